@@ -1,6 +1,7 @@
 package com.fundquest.api_gateway.config;
 
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -48,10 +49,31 @@ public class CustomRouteConfig {
                         )
                         .uri("lb://auth-service"))
 
+                // Auth Service JWKS - public token verification keys
+                .route("auth-jwks", r -> r.path("/.well-known/jwks.json")
+                        .and().method("GET")
+                        .filters(f -> f
+                                .addRequestHeader("X-Gateway-Source", "api-gateway")
+                                .addRequestHeader("X-Service-Name", "auth-service")
+                        )
+                        .uri("lb://auth-service"))
+
                 // =================================================================
                 // AUDIT TRAIL ROUTES - Must be defined BEFORE the general auth route
                 // =================================================================
 
+                // Audit Trail - Live event stream (SSE). Netty flushes each event as it arrives; the response
+                // timeout is disabled so a global httpclient.response-timeout never cuts a long-lived stream
+                .route("audit-trails-stream", r -> r.path("/api/v1/auth/audit/stream")
+                        .and().method("GET")
+                        .filters(f -> f
+                                .addRequestHeader("X-Gateway-Source", "api-gateway")
+                                .addRequestHeader("X-Service-Name", "auth-service")
+                                .addRequestHeader("X-Audit-Context", "audit-trail-stream")
+                        )
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://auth-service"))
+
                 // Audit Trail - Search audit trails with filters (most specific first)
                 .route("audit-trails-search", r -> r.path("/api/v1/auth/audit/search")
                         .and().method("GET")
@@ -0,0 +1,56 @@
+package com.fundquest.api_gateway.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Resolves the client address once at the edge and forwards it as {@code X-Client-Address},
+ * so downstream services read one header instead of probing forwarding headers themselves.
+ * Any client-supplied value is overwritten.
+ */
+@Component
+public class ClientAddressFilter implements GlobalFilter, Ordered {
+
+    public static final String CLIENT_ADDRESS_HEADER = "X-Client-Address";
+
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    public ClientAddressFilter(@Value("${gateway.client-address.trusted-hops:0}") int trustedHops) {
+        // With no proxy in front of the gateway the socket peer is the client
+        this.remoteAddressResolver = trustedHops > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedHops)
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        InetSocketAddress remoteAddress = remoteAddressResolver.resolve(exchange);
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> headers.remove(CLIENT_ADDRESS_HEADER))
+                    .build();
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .header(CLIENT_ADDRESS_HEADER, remoteAddress.getAddress().getHostAddress())
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -1,13 +1,12 @@
 package com.fundquest.auth.audit_trail.aspect;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fundquest.auth.audit_trail.annotation.Auditable;
 import com.fundquest.auth.audit_trail.entity.AuditTrail;
 import com.fundquest.auth.audit_trail.entity.enums.ActionType;
 import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
 import com.fundquest.auth.audit_trail.service.AuditTrailService;
 import com.fundquest.auth.dto.response.AuthResponse;
+import com.fundquest.auth.dto.response.AuthResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -16,19 +15,24 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * AOP Aspect for automatic audit logging
  * Intercepts methods annotated with @Auditable and logs their execution
  * IMPROVED: Handles login scenarios where no user is authenticated yet
+ * <p>
+ * Only cheap work happens on the request thread: resource ids are evaluated and the arguments and result
+ * are captured. Description rendering and parameter serialization are handed to the audit writer as
+ * deferred work, and request details are taken as an {@link com.fundquest.auth.audit_trail.service.AuditRequestSnapshot}.
  */
 @Aspect
 @Component
@@ -38,8 +42,13 @@ import java.util.Map;
 public class AuditAspect {
 
     private final AuditTrailService auditTrailService;
-    private final ObjectMapper objectMapper;
-    private final ExpressionParser expressionParser = new SpelExpressionParser();
+    private final AuditParameterSerializer parameterSerializer;
+    // MIXED compiles hot expressions to bytecode and falls back to interpretation if compilation fails
+    private final ExpressionParser expressionParser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, AuditAspect.class.getClassLoader()));
+
+    // Parsed expressions and parameter names per audited method; annotation values never change at runtime
+    private final Map<Method, AuditMethodMetadata> methodMetadata = new ConcurrentHashMap<>();
 
     // Thread-local storage for audit context during method execution
     private final ThreadLocal<AuditContext> auditContext = new ThreadLocal<>();
@@ -52,8 +61,12 @@ public class AuditAspect {
         try {
             log.debug("Preparing audit for method: {}", joinPoint.getSignature().getName());
 
-            AuditTrail auditTrail = createAuditTrail(joinPoint, auditable, null);
-            AuditContext context = new AuditContext(auditTrail, joinPoint, auditable);
+            AuditMethodMetadata metadata = metadataFor(joinPoint, auditable);
+            AuditEvaluationContext evaluationContext = metadata.hasExpressions()
+                    ? new AuditEvaluationContext(metadata, joinPoint.getArgs())
+                    : null;
+            AuditTrail auditTrail = createAuditTrail(auditable, metadata, evaluationContext);
+            AuditContext context = new AuditContext(auditTrail, joinPoint, auditable, metadata, evaluationContext);
             auditContext.set(context);
 
         } catch (Exception e) {
@@ -72,18 +85,19 @@ public class AuditAspect {
             AuditContext context = auditContext.get();
             if (context != null) {
                 // Update audit trail with result information if needed
-                updateAuditWithResult(context.auditTrail, joinPoint, auditable, result);
+                updateAuditWithResult(context, joinPoint, auditable, result);
 
                 // SPECIAL HANDLING for login operations: extract user email from result
+                String loginEmail = null;
                 if (isLoginOperation(auditable) && result instanceof AuthResponse) {
-                    updateAuditWithLoginInfo(context.auditTrail, (AuthResponse) result);
+                    loginEmail = updateAuditWithLoginInfo(context.auditTrail, (AuthResponse) result);
+                } else if (isLoginOperation(auditable) && result instanceof AuthResult authResult) {
+                    loginEmail = updateAuditWithLoginInfo(context.auditTrail, authResult.response());
                 }
 
-                // Ensure we have a user email (set default if still null)
-                ensureUserEmail(context.auditTrail, auditable);
-
-                // Log the successful audit
-                auditTrailService.logAuditAsync(context.auditTrail);
+                // Log the successful audit; the description and parameters are rendered by the writer
+                auditTrailService.logAuditAsync(context.auditTrail,
+                        deferredWork(context, joinPoint.getArgs(), result, loginEmail, false));
 
                 log.debug("Audit logged successfully for method: {}", joinPoint.getSignature().getName());
             }
@@ -106,15 +120,9 @@ public class AuditAspect {
                 // Mark audit as failed and include error information
                 context.auditTrail.markAsFailed(exception.getMessage());
 
-                // Update description to indicate failure
-                String originalDescription = context.auditTrail.getActionDescription();
-                context.auditTrail.setActionDescription("FAILED: " + originalDescription);
-
-                // Ensure we have a user email for failure cases too
-                ensureUserEmail(context.auditTrail, auditable);
-
-                // Log the failed audit
-                auditTrailService.logAuditAsync(context.auditTrail);
+                // Log the failed audit; the description gets its FAILED prefix on the writer
+                auditTrailService.logAuditAsync(context.auditTrail,
+                        deferredWork(context, joinPoint.getArgs(), null, null, true));
 
                 log.debug("Failure audit logged for method: {} - Error: {}",
                         joinPoint.getSignature().getName(), exception.getMessage());
@@ -128,46 +136,60 @@ public class AuditAspect {
     }
 
     /**
-     * Create initial audit trail from method signature and annotation
+     * Create initial audit trail from method signature and annotation; the description is rendered later
      */
-    private AuditTrail createAuditTrail(JoinPoint joinPoint, Auditable auditable, Object result) {
-        StandardEvaluationContext context = createEvaluationContext(joinPoint, result);
-
+    private AuditTrail createAuditTrail(Auditable auditable, AuditMethodMetadata metadata,
+                                        AuditEvaluationContext context) {
         // Extract resource information using SpEL expressions
-        String resourceId = extractValue(auditable.resourceIdExpression(), context);
-        String resourceIdentifier = extractValue(auditable.resourceIdentifierExpression(), context);
-
-        // Format description with method parameters
-        String description = formatDescription(auditable.description(), joinPoint, result);
+        String resourceId = extractValue(metadata.resourceIdExpression, context);
+        String resourceIdentifier = extractValue(metadata.resourceIdentifierExpression, context);
 
-        // Create audit trail
-        AuditTrail auditTrail = auditTrailService.createMethodAudit(
+        return auditTrailService.createMethodAudit(
                 auditable.actionType(),
-                description,
+                null,
                 auditable.resourceType(),
                 resourceId,
                 resourceIdentifier
         );
+    }
 
-        // Add request parameters if requested
-        if (auditable.includeParameters()) {
-            auditTrail.setRequestParameters(serializeParameters(joinPoint));
-        }
+    /**
+     * Work the audit writer runs before the entry is written: render the description and serialize parameters.
+     * Captures the argument array and result by reference, so nothing is copied on the request thread.
+     */
+    private Consumer<AuditTrail> deferredWork(AuditContext context, Object[] args, Object result,
+                                              String loginEmail, boolean failed) {
+        AuditMethodMetadata metadata = context.metadata;
+        boolean includeParameters = context.auditable.includeParameters();
+        return auditTrail -> {
+            String description = formatDescription(metadata, args, result);
+            if (description != null && loginEmail != null) {
+                // Replace placeholder with actual email
+                description = description.replace("{0}", loginEmail)
+                        .replace("VerifyMicrosoftTokenRequest", "user " + loginEmail);
+            }
+            auditTrail.setActionDescription(failed ? "FAILED: " + description : description);
 
-        return auditTrail;
+            if (includeParameters) {
+                auditTrail.setRequestParameters(parameterSerializer.serialize(metadata.redactionPlan, args));
+            }
+        };
     }
 
     /**
      * Update audit trail with result information
      */
-    private void updateAuditWithResult(AuditTrail auditTrail, JoinPoint joinPoint, Auditable auditable, Object result) {
-        if (auditable.includeResult() && result != null) {
-            // Re-evaluate expressions that might use result
-            StandardEvaluationContext context = createEvaluationContext(joinPoint, result);
+    private void updateAuditWithResult(AuditContext auditCtx, JoinPoint joinPoint, Auditable auditable, Object result) {
+        if (auditable.includeResult() && result != null && auditCtx.evaluationContext != null) {
+            AuditTrail auditTrail = auditCtx.auditTrail;
+
+            // Re-evaluate expressions that might use result, reusing the context built before execution
+            AuditEvaluationContext context = auditCtx.evaluationContext;
+            context.setVariable("result", result);
 
             // Re-extract resource information with result context
-            String resourceId = extractValue(auditable.resourceIdExpression(), context);
-            String resourceIdentifier = extractValue(auditable.resourceIdentifierExpression(), context);
+            String resourceId = extractValue(auditCtx.metadata.resourceIdExpression, context);
+            String resourceIdentifier = extractValue(auditCtx.metadata.resourceIdentifierExpression, context);
 
             if (resourceId != null && !resourceId.equals(auditTrail.getResourceId())) {
                 auditTrail.setResourceId(resourceId);
@@ -176,18 +198,15 @@ public class AuditAspect {
             if (resourceIdentifier != null && !resourceIdentifier.equals(auditTrail.getResourceIdentifier())) {
                 auditTrail.setResourceIdentifier(resourceIdentifier);
             }
-
-            // Re-format description with result
-            String updatedDescription = formatDescription(auditable.description(), joinPoint, result);
-            auditTrail.setActionDescription(updatedDescription);
         }
     }
 
     /**
      * IMPROVED: Special handling for login operations
      * Extracts user information from AuthResponse result
+     * @return the logged-in user's email, used to fill the description placeholder
      */
-    private void updateAuditWithLoginInfo(AuditTrail auditTrail, AuthResponse authResponse) {
+    private String updateAuditWithLoginInfo(AuditTrail auditTrail, AuthResponse authResponse) {
         if (authResponse != null && authResponse.getUser() != null) {
             String userEmail = authResponse.getUser().getEmail();
             String userName = authResponse.getUser().getName();
@@ -202,41 +221,13 @@ public class AuditAspect {
                 auditTrail.setUserName(userName);
             }
 
-            // Update description with actual user email
-            String currentDescription = auditTrail.getActionDescription();
-            if (currentDescription != null && userEmail != null) {
-                // Replace placeholder with actual email
-                String updatedDescription = currentDescription.replace("{0}", userEmail)
-                        .replace("VerifyMicrosoftTokenRequest", "user " + userEmail);
-                auditTrail.setActionDescription(updatedDescription);
-            }
-
             // Update resource identifier
             if (userEmail != null && "unknown".equals(auditTrail.getResourceIdentifier())) {
                 auditTrail.setResourceIdentifier(userEmail);
             }
+            return userEmail;
         }
-    }
-
-    /**
-     * IMPROVED: Ensures audit trail has a user email, setting defaults for special cases
-     */
-    private void ensureUserEmail(AuditTrail auditTrail, Auditable auditable) {
-        if (auditTrail.getUserEmail() == null || auditTrail.getUserEmail().trim().isEmpty()) {
-            if (isLoginOperation(auditable)) {
-                // For login operations, if we still don't have a user email, set as ANONYMOUS
-                auditTrail.setUserEmail("ANONYMOUS");
-                auditTrail.setUserName("Anonymous User");
-                auditTrail.setUserRole("UNAUTHENTICATED");
-                log.debug("Set audit user to ANONYMOUS for login operation");
-            } else {
-                // For other operations, this shouldn't happen, but set fallback
-                auditTrail.setUserEmail("SYSTEM");
-                auditTrail.setUserName("System");
-                auditTrail.setUserRole("SYSTEM");
-                log.warn("Set audit user to SYSTEM as fallback for operation: {}", auditable.actionType());
-            }
-        }
+        return null;
     }
 
     /**
@@ -249,147 +240,39 @@ public class AuditAspect {
                 auditable.resourceType() == ResourceType.AUTHENTICATION;
     }
 
-    /**
-     * Create SpEL evaluation context with method parameters and result
-     */
-    private StandardEvaluationContext createEvaluationContext(JoinPoint joinPoint, Object result) {
-        StandardEvaluationContext context = new StandardEvaluationContext();
-
-        // Add method parameters
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Parameter[] parameters = signature.getMethod().getParameters();
-        Object[] args = joinPoint.getArgs();
-
-        for (int i = 0; i < parameters.length && i < args.length; i++) {
-            // Add by parameter name
-            context.setVariable(parameters[i].getName(), args[i]);
-            // Add by position (p0, p1, etc.)
-            context.setVariable("p" + i, args[i]);
-        }
-
-        // Add result if available
-        if (result != null) {
-            context.setVariable("result", result);
-        }
-
-        return context;
+    private AuditMethodMetadata metadataFor(JoinPoint joinPoint, Auditable auditable) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return methodMetadata.computeIfAbsent(method,
+                key -> AuditMethodMetadata.of(key, auditable, expressionParser, parameterSerializer));
     }
 
     /**
-     * Extract value using SpEL expression
+     * Extract value using a pre-parsed SpEL expression
      */
-    private String extractValue(String expression, StandardEvaluationContext context) {
-        if (expression == null || expression.trim().isEmpty()) {
+    private String extractValue(Expression expression, AuditEvaluationContext context) {
+        if (expression == null) {
             return null;
         }
 
         try {
-            Expression expr = expressionParser.parseExpression(expression);
-            Object value = expr.getValue(context);
+            Object value = expression.getValue(context);
             return value != null ? value.toString() : null;
         } catch (Exception e) {
-            log.debug("Failed to evaluate expression '{}': {}", expression, e.getMessage());
+            log.debug("Failed to evaluate expression '{}': {}", expression.getExpressionString(), e.getMessage());
             return null;
         }
     }
 
     /**
-     * Format description with method parameters and result
-     * IMPROVED: Better handling of complex objects in descriptions
+     * Render the precompiled description with method parameters and result
      */
-    private String formatDescription(String template, JoinPoint joinPoint, Object result) {
+    private String formatDescription(AuditMethodMetadata metadata, Object[] args, Object result) {
         try {
-            Object[] args = joinPoint.getArgs();
-
-            // Simple parameter substitution
-            String formatted = template;
-            for (int i = 0; i < args.length; i++) {
-                String placeholder = "{" + i + "}";
-                if (formatted.contains(placeholder)) {
-                    String value = formatParameterValue(args[i]);
-                    formatted = formatted.replace(placeholder, value);
-                }
-            }
-
-            // Result substitution
-            if (result != null && formatted.contains("{result}")) {
-                String resultValue = formatParameterValue(result);
-                formatted = formatted.replace("{result}", resultValue);
-            }
-
-            return formatted;
+            return metadata.description.render(args, result);
         } catch (Exception e) {
-            log.debug("Failed to format description '{}': {}", template, e.getMessage());
-            return template; // Return original template if formatting fails
-        }
-    }
-
-    /**
-     * IMPROVED: Better formatting of parameter values for descriptions
-     */
-    private String formatParameterValue(Object value) {
-        if (value == null) {
-            return "null";
-        }
-
-        // Handle AuthResponse specially to get user email
-        if (value instanceof AuthResponse) {
-            AuthResponse authResponse = (AuthResponse) value;
-            if (authResponse.getUser() != null && authResponse.getUser().getEmail() != null) {
-                return authResponse.getUser().getEmail();
-            }
-            return "AuthResponse";
+            log.debug("Failed to format description '{}': {}", metadata.description.template(), e.getMessage());
+            return metadata.description.template(); // Return original template if formatting fails
         }
-
-        // Handle other common types
-        String stringValue = value.toString();
-
-        // Limit length to avoid overly long descriptions
-        if (stringValue.length() > 100) {
-            return stringValue.substring(0, 100) + "...";
-        }
-
-        return stringValue;
-    }
-
-    /**
-     * Serialize method parameters to JSON
-     */
-    private String serializeParameters(JoinPoint joinPoint) {
-        try {
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            Parameter[] parameters = signature.getMethod().getParameters();
-            Object[] args = joinPoint.getArgs();
-
-            Map<String, Object> paramMap = new HashMap<>();
-            for (int i = 0; i < parameters.length && i < args.length; i++) {
-                // Avoid serializing sensitive data
-                String paramName = parameters[i].getName();
-                if (isSensitiveParameter(paramName)) {
-                    paramMap.put(paramName, "[REDACTED]");
-                } else {
-                    paramMap.put(paramName, args[i]);
-                }
-            }
-
-            return objectMapper.writeValueAsString(paramMap);
-        } catch (JsonProcessingException e) {
-            log.debug("Failed to serialize parameters: {}", e.getMessage());
-            return "Failed to serialize parameters";
-        }
-    }
-
-    /**
-     * Check if parameter contains sensitive data that should be redacted
-     */
-    private boolean isSensitiveParameter(String paramName) {
-        if (paramName == null) return false;
-
-        String lowerName = paramName.toLowerCase();
-        return lowerName.contains("password") ||
-                lowerName.contains("token") ||
-                lowerName.contains("secret") ||
-                lowerName.contains("authcode");
     }
 
     /**
@@ -399,11 +282,16 @@ public class AuditAspect {
         final AuditTrail auditTrail;
         final JoinPoint joinPoint;
         final Auditable auditable;
+        final AuditMethodMetadata metadata;
+        final AuditEvaluationContext evaluationContext;
 
-        AuditContext(AuditTrail auditTrail, JoinPoint joinPoint, Auditable auditable) {
+        AuditContext(AuditTrail auditTrail, JoinPoint joinPoint, Auditable auditable,
+                     AuditMethodMetadata metadata, AuditEvaluationContext evaluationContext) {
             this.auditTrail = auditTrail;
             this.joinPoint = joinPoint;
             this.auditable = auditable;
+            this.metadata = metadata;
+            this.evaluationContext = evaluationContext;
         }
     }
 }
\ No newline at end of file
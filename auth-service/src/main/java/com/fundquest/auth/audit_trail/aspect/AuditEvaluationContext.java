@@ -0,0 +1,40 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.List;
+
+/**
+ * SpEL context for one audited call, in the style of Spring's {@code MethodBasedEvaluationContext}:
+ * arguments are resolved by name ({@code #request}) or position ({@code #p0}) on lookup from the method's
+ * precomputed variable indexes instead of being copied into the variable map up front. Only {@code #result}
+ * is set explicitly.
+ * <p>
+ * Contexts hold per-call state and are never shared, but they all use one reflective property accessor,
+ * whose thread-safe getter cache would otherwise be rebuilt for every audited call.
+ */
+final class AuditEvaluationContext extends StandardEvaluationContext {
+
+    private static final List<PropertyAccessor> PROPERTY_ACCESSORS = List.of(new ReflectivePropertyAccessor());
+
+    private final AuditMethodMetadata metadata;
+    private final Object[] args;
+
+    AuditEvaluationContext(AuditMethodMetadata metadata, Object[] args) {
+        this.metadata = metadata;
+        this.args = args;
+        setPropertyAccessors(PROPERTY_ACCESSORS);
+    }
+
+    @Override
+    public Object lookupVariable(String name) {
+        Object value = super.lookupVariable(name);
+        if (value != null) {
+            return value;
+        }
+        Integer index = metadata.variableIndexes.get(name);
+        return index != null && index < args.length ? args[index] : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import com.fundquest.auth.audit_trail.annotation.Auditable;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-method audit metadata, built once the first time an {@link Auditable} method is called.
+ * Holds the parsed resource expressions, the compiled description, the SpEL variable indexes of the parameters
+ * and, for {@code includeParameters} methods, the parameter redaction plan,
+ * so the aspect never re-parses annotation strings or re-reflects on parameters.
+ */
+final class AuditMethodMetadata {
+
+    // Parameter name and positional alias (p0, p1, ...) to argument index
+    final Map<String, Integer> variableIndexes;
+    final Expression resourceIdExpression;
+    final Expression resourceIdentifierExpression;
+    final DescriptionTemplate description;
+    final ParameterRedactionPlan redactionPlan;
+
+    private AuditMethodMetadata(String[] parameterNames,
+                                Expression resourceIdExpression, Expression resourceIdentifierExpression,
+                                DescriptionTemplate description, ParameterRedactionPlan redactionPlan) {
+        this.description = description;
+        this.redactionPlan = redactionPlan;
+        this.resourceIdExpression = resourceIdExpression;
+        this.resourceIdentifierExpression = resourceIdentifierExpression;
+
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < parameterNames.length; i++) {
+            indexes.put("p" + i, i);
+        }
+        // A parameter literally named p0 keeps its own meaning, as it did when names were bound last
+        for (int i = 0; i < parameterNames.length; i++) {
+            indexes.put(parameterNames[i], i);
+        }
+        this.variableIndexes = Map.copyOf(indexes);
+    }
+
+    /**
+     * Whether any resource expression needs a SpEL context
+     */
+    boolean hasExpressions() {
+        return resourceIdExpression != null || resourceIdentifierExpression != null;
+    }
+
+    static AuditMethodMetadata of(Method method, Auditable auditable, ExpressionParser parser,
+                                  AuditParameterSerializer parameterSerializer) {
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+        }
+
+        return new AuditMethodMetadata(names,
+                parse(parser, auditable.resourceIdExpression()),
+                parse(parser, auditable.resourceIdentifierExpression()),
+                DescriptionTemplate.compile(auditable.description()),
+                auditable.includeParameters() ? parameterSerializer.planFor(method) : null);
+    }
+
+    private static Expression parse(ExpressionParser parser, String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return null;
+        }
+        return parser.parseExpression(expression);
+    }
+}
@@ -0,0 +1,193 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams audited method arguments as a JSON object straight into a reused, fixed-size buffer.
+ * Redaction follows the method's {@link ParameterRedactionPlan}; output is cut off once it reaches
+ * {@code spring.audit.parameters.max-bytes}, so large admin payloads cost a bounded amount of work and storage.
+ */
+@Component
+@Slf4j
+class AuditParameterSerializer {
+
+    static final String REDACTED = "[REDACTED]";
+    static final String TRUNCATED_SUFFIX = "...[TRUNCATED]";
+
+    private static final int MAX_INTROSPECTION_DEPTH = 4;
+
+    private final ObjectMapper objectMapper;
+    private final int maxBytes;
+    private final ThreadLocal<BoundedBuffer> buffers;
+
+    AuditParameterSerializer(ObjectMapper objectMapper,
+                             @Value("${spring.audit.parameters.max-bytes:4096}") int maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.buffers = ThreadLocal.withInitial(() -> new BoundedBuffer(maxBytes));
+    }
+
+    /**
+     * Build the redaction plan for a method from its parameter names and declared parameter types
+     */
+    ParameterRedactionPlan planFor(Method method) {
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        Map<String, Boolean> properties = new HashMap<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+            collectProperties(objectMapper.constructType(parameters[i].getParameterizedType()), properties, visited, 0);
+        }
+        return new ParameterRedactionPlan(names, properties);
+    }
+
+    /**
+     * Serialize arguments as {@code {"name": value, ...}}, truncated at the configured byte budget
+     */
+    String serialize(ParameterRedactionPlan plan, Object[] args) {
+        BoundedBuffer buffer = buffers.get();
+        buffer.reset();
+        JsonGenerator generator = null;
+        try {
+            generator = objectMapper.getFactory().createGenerator(buffer);
+            generator.writeStartObject();
+            for (int i = 0; i < plan.parameterNames.length && i < args.length; i++) {
+                generator.writeFieldName(plan.parameterNames[i]);
+                if (plan.redactedParameters[i]) {
+                    generator.writeString(REDACTED);
+                } else {
+                    objectMapper.writeValue(new FilteringGeneratorDelegate(
+                            generator, plan, TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true), args[i]);
+                }
+                generator.flush();
+            }
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException e) {
+            if (!buffer.exceeded) {
+                log.debug("Failed to serialize parameters: {}", e.getMessage());
+                return "Failed to serialize parameters";
+            }
+            closeQuietly(generator);
+        }
+        return buffer.exceeded ? buffer.toUtf8String() + TRUNCATED_SUFFIX : buffer.toUtf8String();
+    }
+
+    private static void closeQuietly(JsonGenerator generator) {
+        if (generator == null) {
+            return;
+        }
+        try {
+            generator.close();
+        } catch (IOException ignored) {
+            // Budget already exceeded; the buffer holds everything that will be kept
+        }
+    }
+
+    private void collectProperties(JavaType type, Map<String, Boolean> properties, Set<Class<?>> visited, int depth) {
+        if (type == null || depth > MAX_INTROSPECTION_DEPTH) {
+            return;
+        }
+        if (type.isContainerType()) {
+            collectProperties(type.getContentType(), properties, visited, depth + 1);
+            return;
+        }
+        Class<?> raw = type.getRawClass();
+        if (raw.isPrimitive() || raw.isEnum() || raw.getName().startsWith("java.") || !visited.add(raw)) {
+            return;
+        }
+        BeanDescription description = objectMapper.getSerializationConfig().introspect(type);
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            properties.put(property.getName(), ParameterRedactionPlan.isSensitiveName(property.getName()));
+            collectProperties(property.getPrimaryType(), properties, visited, depth + 1);
+        }
+    }
+
+    /**
+     * Fixed-capacity output stream; fails the write that would overflow and remembers that it did
+     */
+    private static final class BoundedBuffer extends OutputStream {
+
+        // Shared and stackless: overflowing is the expected way large payloads end
+        private static final IOException BUDGET_EXCEEDED = new IOException("Audit parameter budget exceeded") {
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+
+        private final byte[] bytes;
+        private int count;
+        private boolean exceeded;
+
+        BoundedBuffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void reset() {
+            count = 0;
+            exceeded = false;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == bytes.length) {
+                exceeded = true;
+                throw BUDGET_EXCEEDED;
+            }
+            bytes[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length) throws IOException {
+            int accepted = Math.min(length, bytes.length - count);
+            System.arraycopy(source, offset, bytes, count, accepted);
+            count += accepted;
+            if (accepted < length) {
+                exceeded = true;
+                throw BUDGET_EXCEEDED;
+            }
+        }
+
+        /**
+         * Decode what was written, dropping a multi-byte character cut by the budget
+         */
+        String toUtf8String() {
+            int end = count;
+            if (exceeded) {
+                int start = end;
+                while (start > 0 && (bytes[start - 1] & 0xC0) == 0x80) {
+                    start--;
+                }
+                if (start > 0 && (bytes[start - 1] & 0x80) != 0) {
+                    int lead = bytes[start - 1] & 0xFF;
+                    int expected = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : 2;
+                    if (end - (start - 1) < expected) {
+                        end = start - 1;
+                    }
+                }
+            }
+            return new String(bytes, 0, end, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import com.fundquest.auth.audit_trail.annotation.Auditable;
+import com.fundquest.auth.dto.response.AuthResponse;
+import com.fundquest.auth.dto.response.AuthResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Auditable#description()} tokenized once into literal and placeholder segments.
+ * Supports {@code {0}}, {@code {1}}, ... for method arguments and {@code {result}} for the return value.
+ * A placeholder with no matching value is rendered verbatim, as the original replace-based formatting did.
+ */
+final class DescriptionTemplate {
+
+    private static final int LITERAL = -1;
+    private static final int RESULT = -2;
+    private static final String RESULT_NAME = "result";
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String template;
+    // Parallel arrays: for each segment, either a literal (LITERAL) or an argument index / RESULT
+    private final String[] literals;
+    private final int[] placeholders;
+
+    private DescriptionTemplate(String template, String[] literals, int[] placeholders) {
+        this.template = template;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    static DescriptionTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+
+        int literalStart = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int close = template.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            int placeholder = placeholderIndex(template.substring(open + 1, close));
+            if (placeholder == LITERAL) {
+                open = template.indexOf('{', open + 1);
+                continue;
+            }
+            if (open > literalStart) {
+                literals.add(template.substring(literalStart, open));
+                placeholders.add(LITERAL);
+            }
+            literals.add(template.substring(open, close + 1));
+            placeholders.add(placeholder);
+            literalStart = close + 1;
+            open = template.indexOf('{', literalStart);
+        }
+        if (literalStart < template.length()) {
+            literals.add(template.substring(literalStart));
+            placeholders.add(LITERAL);
+        }
+
+        int[] placeholderArray = placeholders.stream().mapToInt(Integer::intValue).toArray();
+        return new DescriptionTemplate(template, literals.toArray(String[]::new), placeholderArray);
+    }
+
+    String template() {
+        return template;
+    }
+
+    /**
+     * Render in a single pass; {@code result} may be null before or after a failed execution
+     */
+    String render(Object[] args, Object result) {
+        if (placeholders.length == 1 && placeholders[0] == LITERAL) {
+            return literals[0];
+        }
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        for (int i = 0; i < placeholders.length; i++) {
+            int placeholder = placeholders[i];
+            if (placeholder == LITERAL) {
+                buffer.append(literals[i]);
+            } else if (placeholder == RESULT) {
+                appendValue(buffer, result, result != null, literals[i]);
+            } else {
+                boolean present = placeholder < args.length;
+                appendValue(buffer, present ? args[placeholder] : null, present, literals[i]);
+            }
+        }
+        return buffer.toString();
+    }
+
+    private static void appendValue(StringBuilder buffer, Object value, boolean present, String placeholderText) {
+        if (!present) {
+            buffer.append(placeholderText);
+        } else {
+            buffer.append(formatValue(value));
+        }
+    }
+
+    /**
+     * Formats a value for a description: auth results by user email, everything else truncated
+     */
+    static String formatValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+
+        // Handle AuthResponse specially to get user email; never let the refresh token reach the audit log
+        if (value instanceof AuthResult authResult) {
+            value = authResult.response();
+        }
+        if (value instanceof AuthResponse authResponse) {
+            if (authResponse.getUser() != null && authResponse.getUser().getEmail() != null) {
+                return authResponse.getUser().getEmail();
+            }
+            return "AuthResponse";
+        }
+
+        String stringValue = value.toString();
+
+        // Limit length to avoid overly long descriptions
+        if (stringValue.length() > MAX_VALUE_LENGTH) {
+            return stringValue.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+
+        return stringValue;
+    }
+
+    private static int placeholderIndex(String name) {
+        if (RESULT_NAME.equals(name)) {
+            return RESULT;
+        }
+        if (name.isEmpty() || name.length() > 3) {
+            return LITERAL;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return LITERAL;
+            }
+        }
+        return Integer.parseInt(name);
+    }
+}
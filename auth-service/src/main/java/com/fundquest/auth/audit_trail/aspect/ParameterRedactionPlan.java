@@ -0,0 +1,49 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+
+import java.util.Map;
+
+/**
+ * Per-method redaction decisions for {@code includeParameters} audits, built once from the parameter
+ * names and the declared parameter types. Whole parameters are redacted by name; nested properties
+ * whose names look sensitive are dropped from the JSON while it is streamed.
+ * <p>
+ * Property names not known up front (map keys, subtypes) are classified each time they are seen and not
+ * remembered, so arbitrary map keys cannot grow the plan.
+ */
+final class ParameterRedactionPlan extends TokenFilter {
+
+    final String[] parameterNames;
+    final boolean[] redactedParameters;
+    private final Map<String, Boolean> sensitiveProperties;
+
+    ParameterRedactionPlan(String[] parameterNames, Map<String, Boolean> knownProperties) {
+        this.parameterNames = parameterNames;
+        this.redactedParameters = new boolean[parameterNames.length];
+        for (int i = 0; i < parameterNames.length; i++) {
+            redactedParameters[i] = isSensitiveName(parameterNames[i]);
+        }
+        this.sensitiveProperties = Map.copyOf(knownProperties);
+    }
+
+    @Override
+    public TokenFilter includeProperty(String name) {
+        Boolean known = sensitiveProperties.get(name);
+        boolean sensitive = known != null ? known : isSensitiveName(name);
+        return sensitive ? null : this;
+    }
+
+    /**
+     * Check if a parameter or property name suggests sensitive data that should be redacted
+     */
+    static boolean isSensitiveName(String name) {
+        if (name == null) return false;
+
+        String lowerName = name.toLowerCase();
+        return lowerName.contains("password") ||
+                lowerName.contains("token") ||
+                lowerName.contains("secret") ||
+                lowerName.contains("authcode");
+    }
+}
@@ -0,0 +1,106 @@
+package com.fundquest.auth.audit_trail.controller;
+
+import com.fundquest.auth.audit_trail.dto.response.AuditStatBucketResponse;
+import com.fundquest.auth.audit_trail.dto.response.AuditStatCountResponse;
+import com.fundquest.auth.audit_trail.service.AuditStatsService;
+import com.fundquest.auth.audit_trail.stats.AuditStatDimension;
+import com.fundquest.auth.audit_trail.stats.AuditStatGranularity;
+import com.fundquest.auth.dto.response.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.fundquest.auth.constants.AppConstants.AUDIT_ENDPOINT;
+import static com.fundquest.auth.constants.AppConstants.AUTH_BASE_PATH;
+
+@RestController
+@RequestMapping(AUTH_BASE_PATH + AUDIT_ENDPOINT + "/stats")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(
+        name = "Audit Trail Statistics",
+        description = "Aggregated audit counts served from hourly/daily rollups. All operations require Super Admin privileges."
+)
+public class AuditStatsController {
+
+    private final AuditStatsService auditStatsService;
+
+    @GetMapping("/counts")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(
+            summary = "Get Audit Counts",
+            description = "Count audit events per action type, resource type, status or user over a date range, largest first.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Audit counts retrieved successfully",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<ApiResponse<List<AuditStatCountResponse>>> getCounts(
+            @Parameter(description = "Dimension to group by", example = "ACTION_TYPE")
+            @RequestParam AuditStatDimension dimension,
+
+            @Parameter(description = "Start date (yyyy-MM-dd), defaults to 30 days ago", example = "2024-03-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "End date, inclusive (yyyy-MM-dd), defaults to today", example = "2024-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Maximum number of values (max 100)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        List<AuditStatCountResponse> response = auditStatsService.getCounts(dimension, startDate, endDate, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping("/timeline")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(
+            summary = "Get Audit Timeline",
+            description = "Count audit events per hour or per day over a date range. Hourly buckets are only kept for the recent retention window.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Audit timeline retrieved successfully",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<ApiResponse<List<AuditStatBucketResponse>>> getTimeline(
+            @Parameter(description = "Bucket size", example = "DAY")
+            @RequestParam(defaultValue = "DAY") AuditStatGranularity granularity,
+
+            @Parameter(description = "Start date (yyyy-MM-dd), defaults to 30 days ago", example = "2024-03-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "End date, inclusive (yyyy-MM-dd), defaults to today", example = "2024-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        List<AuditStatBucketResponse> response = auditStatsService.getTimeline(granularity, startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
@@ -1,13 +1,20 @@
 package com.fundquest.auth.audit_trail.controller;
 
 import com.fundquest.auth.audit_trail.dto.request.AuditSearchRequest;
+import com.fundquest.auth.audit_trail.dto.response.AuditTrailCursorResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailPageResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailResponse;
 import com.fundquest.auth.audit_trail.entity.enums.ActionType;
 import com.fundquest.auth.audit_trail.entity.enums.AuditStatus;
 import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
+import com.fundquest.auth.audit_trail.export.AuditExportFormat;
+import com.fundquest.auth.audit_trail.service.AuditCursor;
+import com.fundquest.auth.audit_trail.service.AuditExportService;
 import com.fundquest.auth.audit_trail.service.AuditTrailService;
+import com.fundquest.auth.audit_trail.stream.AuditEventBroadcaster;
+import com.fundquest.auth.audit_trail.stream.AuditStreamFilter;
 import com.fundquest.auth.dto.response.ApiResponse;
+import com.fundquest.auth.util.pagination.CountMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,12 +26,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
 
 import static com.fundquest.auth.constants.AppConstants.AUDIT_ENDPOINT;
 import static com.fundquest.auth.constants.AppConstants.AUTH_BASE_PATH;
@@ -39,7 +51,11 @@ import static com.fundquest.auth.constants.AppConstants.AUTH_BASE_PATH;
 )
 public class AuditTrailController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final AuditTrailService auditTrailService;
+    private final AuditExportService auditExportService;
+    private final AuditEventBroadcaster auditEventBroadcaster;
 
     @GetMapping
     @PreAuthorize("hasRole('SUPER_ADMIN')")
@@ -81,6 +97,7 @@ public class AuditTrailController {
                                         "size": 8,
                                         "totalElements": 25,
                                         "totalPages": 4,
+                                        "totalEstimated": false,
                                         "isFirstPage": true,
                                         "isLastPage": false,
                                         "hasNext": true,
@@ -107,9 +124,141 @@ public class AuditTrailController {
                     example = "8",
                     schema = @Schema(type = "integer", minimum = "1", maximum = "8", defaultValue = "8")
             )
-            @RequestParam(defaultValue = "8") int size) {
+            @RequestParam(defaultValue = "8") int size,
+
+            @Parameter(description = "How the total is obtained: EXACT, CACHED, ESTIMATED (planner statistics) or NONE. Default: EXACT")
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
+
+        AuditTrailPageResponse response = auditTrailService.getAllAuditTrails(page, size, count);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(
+            summary = "Get Audit Trails By Cursor",
+            description = "Retrieve audit trails most recent first using keyset pagination. Pass an empty cursor for the first page " +
+                    "and the returned nextCursor for the following ones. Response time does not depend on how deep the page is.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Audit trails retrieved successfully",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Audit Trails Cursor Response",
+                                    value = """
+                                    {
+                                      "success": true,
+                                      "data": {
+                                        "content": [
+                                          {
+                                            "id": 1,
+                                            "userEmail": "admin@fundquestnigeria.com",
+                                            "actionType": "ACTIVATE",
+                                            "actionDescription": "User user@example.com was activated",
+                                            "initiatedDate": "2024-03-15",
+                                            "initiatedTime": "14:30:45",
+                                            "status": "SUCCESS"
+                                          }
+                                        ],
+                                        "size": 8,
+                                        "numberOfElements": 8,
+                                        "hasNext": true,
+                                        "nextCursor": "MjAyNC0wMy0xNVQxNDozMDo0NXwx",
+                                        "totalElements": null,
+                                        "totalEstimated": false
+                                      }
+                                    }
+                                    """,
+                                    description = "One page of audit trail records and the cursor for the next"
+                            )
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<ApiResponse<AuditTrailCursorResponse>> getAuditTrailsByCursor(
+            @Parameter(description = "Opaque cursor from the previous page; empty for the first page")
+            @RequestParam String cursor,
+
+            @Parameter(description = "Page size (maximum 8). Default: 8")
+            @RequestParam(defaultValue = "8") int size,
+
+            @Parameter(description = "Include an estimated total from table statistics. Default: false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        AuditTrailCursorResponse response = auditTrailService.getAuditTrailsAfter(cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping(value = "/search", params = "cursor")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(
+            summary = "Search Audit Trails By Cursor",
+            description = "Search audit trails with the same filters as /search, using keyset pagination instead of page numbers.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Filtered audit trails retrieved successfully",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<ApiResponse<AuditTrailCursorResponse>> searchAuditTrailsByCursor(
+            @Parameter(description = "Filter by user email (partial match, case-insensitive)")
+            @RequestParam(required = false) String userEmail,
+
+            @Parameter(description = "Filter by user name (partial match, case-insensitive)")
+            @RequestParam(required = false) String userName,
+
+            @Parameter(description = "Filter by action type")
+            @RequestParam(required = false) ActionType actionType,
+
+            @Parameter(description = "Filter by resource type")
+            @RequestParam(required = false) ResourceType resourceType,
+
+            @Parameter(description = "Filter by status")
+            @RequestParam(required = false) AuditStatus status,
+
+            @Parameter(description = "Start date for filtering (YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "End date for filtering (YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "General search term for action description (partial match, case-insensitive)")
+            @RequestParam(required = false) String searchTerm,
+
+            @Parameter(description = "Opaque cursor from the previous page; empty for the first page")
+            @RequestParam String cursor,
+
+            @Parameter(description = "Page size (maximum 8). Default: 8")
+            @RequestParam(defaultValue = "8") int size,
+
+            @Parameter(description = "Include the exact number of matches (runs a count query). Default: false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        AuditSearchRequest searchRequest = AuditSearchRequest.builder()
+                .userEmail(userEmail)
+                .userName(userName)
+                .actionType(actionType)
+                .resourceType(resourceType)
+                .status(status)
+                .startDate(startDate)
+                .endDate(endDate)
+                .searchTerm(searchTerm)
+                .build();
 
-        AuditTrailPageResponse response = auditTrailService.getAllAuditTrails(page, size);
+        AuditTrailCursorResponse response =
+                auditTrailService.searchAuditTrailsAfter(searchRequest, cursor, size, includeTotal);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -159,7 +308,10 @@ public class AuditTrailController {
             @RequestParam(defaultValue = "1") int page,
 
             @Parameter(description = "Page size (maximum 8). Default: 8")
-            @RequestParam(defaultValue = "8") int size) {
+            @RequestParam(defaultValue = "8") int size,
+
+            @Parameter(description = "How the total is obtained: EXACT, CACHED (short-lived cache per filter) or NONE. Default: EXACT")
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
 
         AuditSearchRequest searchRequest = AuditSearchRequest.builder()
                 .userEmail(userEmail)
@@ -172,10 +324,160 @@ public class AuditTrailController {
                 .searchTerm(searchTerm)
                 .build();
 
-        AuditTrailPageResponse response = auditTrailService.searchAuditTrails(searchRequest, page, size);
+        AuditTrailPageResponse response = auditTrailService.searchAuditTrails(searchRequest, page, size, count);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(
+            summary = "Export Audit Trails",
+            description = "Stream every audit trail matching the filters as CSV or NDJSON, newest first. " +
+                    "The response is gzip-compressed when the client sends Accept-Encoding: gzip. " +
+                    "Each row carries a cursor; pass the last one received to resume an interrupted export.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Audit trails streamed",
+                    content = {
+                            @Content(mediaType = "text/csv"),
+                            @Content(mediaType = "application/x-ndjson")
+                    }
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportAuditTrails(
+            @Parameter(description = "Filter by user email (partial match, case-insensitive)")
+            @RequestParam(required = false) String userEmail,
+
+            @Parameter(description = "Filter by user name (partial match, case-insensitive)")
+            @RequestParam(required = false) String userName,
+
+            @Parameter(description = "Filter by action type")
+            @RequestParam(required = false) ActionType actionType,
+
+            @Parameter(description = "Filter by resource type")
+            @RequestParam(required = false) ResourceType resourceType,
+
+            @Parameter(description = "Filter by status")
+            @RequestParam(required = false) AuditStatus status,
+
+            @Parameter(description = "Start date for filtering (YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "End date for filtering (YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "General search term for action description (partial match, case-insensitive)")
+            @RequestParam(required = false) String searchTerm,
+
+            @Parameter(description = "Output format: CSV or NDJSON. Default: CSV")
+            @RequestParam(defaultValue = "CSV") AuditExportFormat format,
+
+            @Parameter(description = "Resume after this row (cursor value of the last row received)")
+            @RequestParam(required = false) String cursor,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        AuditSearchRequest searchRequest = AuditSearchRequest.builder()
+                .userEmail(userEmail)
+                .userName(userName)
+                .actionType(actionType)
+                .resourceType(resourceType)
+                .status(status)
+                .startDate(startDate)
+                .endDate(endDate)
+                .searchTerm(searchTerm)
+                .build();
+        // Decoded before the response is committed so a bad cursor is still a 400
+        AuditCursor position = AuditCursor.decode(cursor);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+                auditExportService.export(searchRequest, position, format, compressed);
+                compressed.finish();
+            } else {
+                auditExportService.export(searchRequest, position, format, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("audit-trail-export." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(
+            summary = "Stream Audit Trails",
+            description = "Server-Sent Events stream of audit trails as they are written, filtered like search. " +
+                    "Each event is named 'audit' and carries the summary as JSON; its id is a resume position. " +
+                    "Events written by any instance are delivered in commit order. On reconnect the Last-Event-ID " +
+                    "header (or lastEventId parameter) replays the events missed since then, possibly repeating a few " +
+                    "(de-duplicate on the summary id); if too many were missed a 'resync' event is sent instead. " +
+                    "Clients that fall behind are disconnected and should reconnect.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Audit trail events streamed",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            )
+    })
+    public ResponseEntity<SseEmitter> streamAuditTrails(
+            @Parameter(description = "Filter by user email (partial match, case-insensitive)")
+            @RequestParam(required = false) String userEmail,
+
+            @Parameter(description = "Filter by user name (partial match, case-insensitive)")
+            @RequestParam(required = false) String userName,
+
+            @Parameter(description = "Filter by action type")
+            @RequestParam(required = false) ActionType actionType,
+
+            @Parameter(description = "Filter by resource type")
+            @RequestParam(required = false) ResourceType resourceType,
+
+            @Parameter(description = "Filter by status")
+            @RequestParam(required = false) AuditStatus status,
+
+            @Parameter(description = "General search term for action description (partial match, case-insensitive)")
+            @RequestParam(required = false) String searchTerm,
+
+            @Parameter(description = "Resume after this event, for clients that cannot send Last-Event-ID")
+            @RequestParam(required = false) String lastEventId,
+
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+
+        AuditStreamFilter filter = AuditStreamFilter.of(AuditSearchRequest.builder()
+                .userEmail(userEmail)
+                .userName(userName)
+                .actionType(actionType)
+                .resourceType(resourceType)
+                .status(status)
+                .searchTerm(searchTerm)
+                .build());
+        Long resumeAfter = AuditEventBroadcaster.parseEventId(
+                lastEventIdHeader != null && !lastEventIdHeader.isBlank() ? lastEventIdHeader : lastEventId);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Tells nginx-style proxies in front of the gateway not to buffer the stream
+                .header("X-Accel-Buffering", "no")
+                .body(auditEventBroadcaster.subscribe(filter, resumeAfter));
+    }
+
     @GetMapping("/user/{userEmail:.+}")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     @Operation(
@@ -205,9 +507,12 @@ public class AuditTrailController {
             @RequestParam(defaultValue = "1") int page,
 
             @Parameter(description = "Page size (maximum 8). Default: 8")
-            @RequestParam(defaultValue = "8") int size) {
+            @RequestParam(defaultValue = "8") int size,
+
+            @Parameter(description = "How the total is obtained: EXACT, CACHED (short-lived cache per user) or NONE. Default: EXACT")
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
 
-        AuditTrailPageResponse response = auditTrailService.getUserAuditTrails(userEmail, page, size);
+        AuditTrailPageResponse response = auditTrailService.getUserAuditTrails(userEmail, page, size, count);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
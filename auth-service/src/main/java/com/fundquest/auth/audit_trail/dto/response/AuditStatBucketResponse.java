@@ -0,0 +1,17 @@
+package com.fundquest.auth.audit_trail.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditStatBucketResponse {
+    private LocalDateTime bucketStart;
+    private long count;
+}
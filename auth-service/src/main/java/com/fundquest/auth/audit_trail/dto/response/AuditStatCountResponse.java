@@ -0,0 +1,15 @@
+package com.fundquest.auth.audit_trail.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditStatCountResponse {
+    private String key;
+    private long count;
+}
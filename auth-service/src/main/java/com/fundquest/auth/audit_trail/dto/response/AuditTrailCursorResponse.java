@@ -0,0 +1,26 @@
+package com.fundquest.auth.audit_trail.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated audit listing. Pass {@code nextCursor} back as {@code cursor}
+ * to continue; totals are only filled in when requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditTrailCursorResponse {
+    private List<AuditTrailSummaryResponse> content;
+    private int size;
+    private int numberOfElements;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+    private boolean totalEstimated;
+}
@@ -23,9 +23,14 @@ import static com.fundquest.auth.audit_trail.entity.enums.AuditStatus.SUCCESS;
 public class AuditTrail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_trail_seq")
+    @SequenceGenerator(name = "audit_trail_seq", sequenceName = "audit_trail_tbl_id_seq", allocationSize = 1)
     private Long id;
 
+    // Idempotency key assigned when the event is created; makes spool replays safe to repeat
+    @Column(name = "event_id", length = 36, updatable = false)
+    private String eventId;
+
     @Column(name = "user_email", nullable = false)
     private String userEmail;
 
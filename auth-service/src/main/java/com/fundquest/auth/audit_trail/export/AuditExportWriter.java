@@ -0,0 +1,35 @@
+package com.fundquest.auth.audit_trail.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes exported audit rows one at a time; nothing is retained between rows.
+ * Every row carries a {@code cursor} value: passing the last one received back to the export resumes after it.
+ */
+public interface AuditExportWriter {
+
+    String CURSOR_FIELD = "cursor";
+
+    /**
+     * @param values column values in export column order; null for SQL NULL
+     * @param cursor resume token of this row
+     */
+    void writeRow(String[] values, String cursor) throws IOException;
+
+    /**
+     * Flush buffered output; the underlying stream is left open
+     */
+    void finish() throws IOException;
+
+    static AuditExportWriter create(AuditExportFormat format, List<String> columns, OutputStream out,
+                                    JsonFactory jsonFactory) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvAuditExportWriter(columns, out);
+            case NDJSON -> new NdjsonAuditExportWriter(columns, out, jsonFactory);
+        };
+    }
+}
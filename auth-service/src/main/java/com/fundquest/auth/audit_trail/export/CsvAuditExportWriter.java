@@ -0,0 +1,87 @@
+package com.fundquest.auth.audit_trail.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with a header row; fields containing separators, quotes or line breaks are quoted.
+ * Audit values are user-controlled, so a field a spreadsheet would evaluate as a formula (leading
+ * {@code = + - @}, tab or carriage return) is prefixed with {@code '} and written as text.
+ */
+class CsvAuditExportWriter implements AuditExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char FORMULA_ESCAPE = '\'';
+
+    private final Writer writer;
+
+    CsvAuditExportWriter(List<String> columns, OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (String column : columns) {
+            writer.write(column);
+            writer.write(',');
+        }
+        writer.write(CURSOR_FIELD);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(String[] values, String cursor) throws IOException {
+        for (String value : values) {
+            writeField(value);
+            writer.write(',');
+        }
+        writer.write(cursor);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean formula = isFormulaTrigger(value.charAt(0));
+        if (!needsQuoting(value)) {
+            if (formula) {
+                writer.write(FORMULA_ESCAPE);
+            }
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write(FORMULA_ESCAPE);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean isFormulaTrigger(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
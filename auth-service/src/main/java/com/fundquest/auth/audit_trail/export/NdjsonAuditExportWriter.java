@@ -0,0 +1,50 @@
+package com.fundquest.auth.audit_trail.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One JSON object per line; null columns are omitted
+ */
+class NdjsonAuditExportWriter implements AuditExportWriter {
+
+    private final SerializedString[] fieldNames;
+    private final JsonGenerator generator;
+    private boolean empty = true;
+
+    NdjsonAuditExportWriter(List<String> columns, OutputStream out, JsonFactory jsonFactory) throws IOException {
+        this.fieldNames = columns.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+        // The caller owns the stream (it may be a gzip wrapper that still needs its trailer)
+        this.generator = jsonFactory.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    public void writeRow(String[] values, String cursor) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                generator.writeFieldName(fieldNames[i]);
+                generator.writeString(values[i]);
+            }
+        }
+        generator.writeStringField(CURSOR_FIELD, cursor);
+        generator.writeEndObject();
+        empty = false;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!empty) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
@@ -1,11 +1,15 @@
 package com.fundquest.auth.audit_trail.mapper;
 
+import com.fundquest.auth.audit_trail.dto.response.AuditTrailCursorResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailPageResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailSummaryResponse;
 import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.audit_trail.repository.AuditTrailSummaryView;
+import com.fundquest.auth.audit_trail.service.AuditCursor;
+import com.fundquest.auth.util.pagination.CountedSlice;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -51,34 +55,34 @@ public class AuditTrailMapper {
     }
 
     /**
-     * Convert AuditTrail entity to AuditTrailSummaryResponse DTO
+     * Convert a listing projection to AuditTrailSummaryResponse DTO
      */
-    public AuditTrailSummaryResponse toAuditTrailSummaryResponse(AuditTrail auditTrail) {
+    public AuditTrailSummaryResponse toAuditTrailSummaryResponse(AuditTrailSummaryView auditTrail) {
         if (auditTrail == null) {
-            log.warn("Attempted to convert null AuditTrail to AuditTrailSummaryResponse");
+            log.warn("Attempted to convert null AuditTrailSummaryView to AuditTrailSummaryResponse");
             return null;
         }
 
         return AuditTrailSummaryResponse.builder()
-                .id(auditTrail.getId())
-                .userEmail(auditTrail.getUserEmail())
-                .userName(auditTrail.getUserName())
-                .userRole(auditTrail.getUserRole())
-                .actionType(auditTrail.getActionType())
-                .actionDescription(auditTrail.getActionDescription())
-                .resourceType(auditTrail.getResourceType())
-                .resourceIdentifier(auditTrail.getResourceIdentifier())
-                .initiatedDate(auditTrail.getInitiatedDate())
-                .initiatedTime(auditTrail.getInitiatedTime())
-                .status(auditTrail.getStatus())
-                .serviceName(auditTrail.getServiceName())
+                .id(auditTrail.id())
+                .userEmail(auditTrail.userEmail())
+                .userName(auditTrail.userName())
+                .userRole(auditTrail.userRole())
+                .actionType(auditTrail.actionType())
+                .actionDescription(auditTrail.actionDescription())
+                .resourceType(auditTrail.resourceType())
+                .resourceIdentifier(auditTrail.resourceIdentifier())
+                .initiatedDate(auditTrail.initiatedDate())
+                .initiatedTime(auditTrail.initiatedTime())
+                .status(auditTrail.status())
+                .serviceName(auditTrail.serviceName())
                 .build();
     }
 
     /**
-     * Convert list of AuditTrail entities to list of AuditTrailSummaryResponse DTOs
+     * Convert list of listing projections to list of AuditTrailSummaryResponse DTOs
      */
-    public List<AuditTrailSummaryResponse> toAuditTrailSummaryResponseList(List<AuditTrail> auditTrails) {
+    public List<AuditTrailSummaryResponse> toAuditTrailSummaryResponseList(List<AuditTrailSummaryView> auditTrails) {
         if (auditTrails == null) {
             log.warn("Attempted to convert null audit trails list to AuditTrailSummaryResponse list");
             return List.of();
@@ -90,16 +94,16 @@ public class AuditTrailMapper {
     }
 
     /**
-     * Convert Spring Data Page<AuditTrail> to AuditTrailPageResponse DTO
+     * Convert a counted slice of listing projections to AuditTrailPageResponse DTO
      */
-    public AuditTrailPageResponse toAuditTrailPageResponse(Page<AuditTrail> auditPage) {
-        if (auditPage == null) {
-            log.warn("Attempted to convert null Page<AuditTrail> to AuditTrailPageResponse");
+    public AuditTrailPageResponse toAuditTrailPageResponse(CountedSlice<AuditTrailSummaryView> counted) {
+        if (counted == null) {
+            log.warn("Attempted to convert null CountedSlice<AuditTrailSummaryView> to AuditTrailPageResponse");
             return AuditTrailPageResponse.builder()
                     .content(List.of())
                     .page(1)
                     .size(0)
-                    .totalElements(0)
+                    .totalElements(0L)
                     .totalPages(0)
                     .isFirstPage(true)
                     .isLastPage(true)
@@ -109,6 +113,7 @@ public class AuditTrailMapper {
                     .build();
         }
 
+        Slice<AuditTrailSummaryView> auditPage = counted.slice();
         List<AuditTrailSummaryResponse> content = toAuditTrailSummaryResponseList(auditPage.getContent());
 
         // Convert 0-based page number to 1-based for frontend
@@ -118,8 +123,9 @@ public class AuditTrailMapper {
                 .content(content)
                 .page(pageNumber)
                 .size(auditPage.getSize())
-                .totalElements(auditPage.getTotalElements())
-                .totalPages(auditPage.getTotalPages())
+                .totalElements(counted.totalElements())
+                .totalPages(counted.totalPages())
+                .totalEstimated(counted.totalEstimated())
                 .isFirstPage(auditPage.isFirst())
                 .isLastPage(auditPage.isLast())
                 .hasNext(auditPage.hasNext())
@@ -127,4 +133,32 @@ public class AuditTrailMapper {
                 .numberOfElements(auditPage.getNumberOfElements())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Convert a keyset query result (fetched with one extra row) to AuditTrailCursorResponse DTO
+     * @param rows up to pageSize + 1 rows in cursor order; the extra row only signals that more exist
+     * @param total total count if requested, otherwise null
+     * @param totalEstimated whether the total comes from planner statistics rather than a count
+     */
+    public AuditTrailCursorResponse toAuditTrailCursorResponse(List<AuditTrailSummaryView> rows, int pageSize, Long total,
+                                                               boolean totalEstimated) {
+        boolean hasNext = rows.size() > pageSize;
+        List<AuditTrailSummaryView> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AuditTrailSummaryView last = page.get(page.size() - 1);
+            nextCursor = new AuditCursor(last.initiatedTimestamp(), last.id()).encode();
+        }
+
+        return AuditTrailCursorResponse.builder()
+                .content(toAuditTrailSummaryResponseList(page))
+                .size(pageSize)
+                .numberOfElements(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(total)
+                .totalEstimated(total != null && totalEstimated)
+                .build();
+    }
+}
@@ -0,0 +1,239 @@
+package com.fundquest.auth.audit_trail.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains the monthly partitions of audit_trail_tbl (see V6 migration).
+ * Creates partitions {@code premake-months} ahead so inserts never land in the default partition, and
+ * enforces {@code spring.audit.cleanup.retention-days} by dropping (or detaching, for archiving) whole
+ * partitions once every row in them has expired, which costs the same regardless of row count.
+ * <p>
+ * Rows that still reach the default partition (e.g. a spool replay of old events) are moved into their
+ * month's partition when it is created; past months get a partition for them, and expired ones are deleted
+ * with the partitions they belong to. Rows left over (far-future timestamps, or expired rows when detaching)
+ * show up in {@code audit.partitions.default.rows}.
+ * <p>
+ * Runs at startup and daily; a transaction-scoped advisory lock keeps instances from racing.
+ * A failed run is counted in {@code audit.partitions.maintenance.failures} so it can be alerted on.
+ */
+@Component
+@Slf4j
+public class AuditPartitionManager {
+
+    private static final String PARENT_TABLE = "audit_trail_tbl";
+    private static final String DEFAULT_PARTITION = PARENT_TABLE + "_default";
+    private static final String PARTITION_PREFIX = PARENT_TABLE + "_p";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final long MAINTENANCE_LOCK_KEY = 0x41554449545054L; // "AUDITPT"
+
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ?";
+
+    private static final String METRIC_PREFIX = "audit.partitions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter maintenanceFailures;
+    private final Counter movedRows;
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
+    private final int premakeMonths;
+    private final boolean cleanupEnabled;
+    private final int retentionDays;
+    private final boolean detachOnly;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.audit.partitions.premake-months:3}") int premakeMonths,
+                                 @Value("${spring.audit.cleanup.enabled:true}") boolean cleanupEnabled,
+                                 @Value("${spring.audit.cleanup.retention-days:365}") int retentionDays,
+                                 @Value("${spring.audit.cleanup.mode:drop}") String cleanupMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.premakeMonths = premakeMonths;
+        this.cleanupEnabled = cleanupEnabled;
+        this.retentionDays = retentionDays;
+        this.detachOnly = "detach".equalsIgnoreCase(cleanupMode);
+        this.maintenanceFailures = Counter.builder(METRIC_PREFIX + ".maintenance.failures")
+                .description("Audit partition maintenance runs that failed")
+                .register(meterRegistry);
+        this.movedRows = Counter.builder(METRIC_PREFIX + ".rows.moved")
+                .description("Audit rows moved out of the default partition into their monthly partition")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".default.rows", defaultPartitionRows, AtomicLong::get)
+                .description("Audit rows left in the default partition after the last maintenance run; expected to be 0")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${spring.audit.partitions.maintenance-cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("Audit partition maintenance already running on another instance");
+                    return;
+                }
+
+                List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, PARENT_TABLE);
+                createFuturePartitions(partitions);
+                createPastPartitionsForStrayRows(partitions);
+                if (cleanupEnabled) {
+                    removeExpiredPartitions(partitions);
+                }
+                reportDefaultPartitionRows();
+            });
+        } catch (Exception e) {
+            maintenanceFailures.increment();
+            log.error("Audit partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createFuturePartitions(List<String> partitions) {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = partitionName(month);
+            if (partitions.contains(name)) {
+                continue;
+            }
+
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            // Creating a range that already has rows in the default partition fails, so those rows move first
+            Boolean stray = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION +
+                            " WHERE initiated_timestamp >= ? AND initiated_timestamp < ?)",
+                    Boolean.class, from.atStartOfDay(), to.atStartOfDay());
+            if (Boolean.TRUE.equals(stray)) {
+                createPartitionFromDefault(name, from, to);
+                continue;
+            }
+
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT_TABLE +
+                    " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("Created audit partition {} [{}, {})", name, from, to);
+        }
+    }
+
+    /**
+     * Build the partition as a plain table, move the month's rows out of the default partition into it and
+     * attach it. Runs in the maintenance transaction, so readers see the rows in exactly one place and a
+     * failure leaves everything as it was.
+     */
+    private void createPartitionFromDefault(String name, LocalDate from, LocalDate to) {
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE initiated_timestamp >= ? AND initiated_timestamp < ? RETURNING *) " +
+                        "INSERT INTO " + name + " SELECT * FROM moved",
+                from.atStartOfDay(), to.atStartOfDay());
+        // Attaching creates the partition's copies of the parent's indexes
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        movedRows.increment(moved);
+        log.warn("Created audit partition {} [{}, {}) and moved {} rows into it from {}",
+                name, from, to, moved, DEFAULT_PARTITION);
+    }
+
+    /**
+     * Give past months that only exist in the default partition (older than the partitions V6 created)
+     * a partition of their own, unless they are already expired
+     */
+    private void createPastPartitionsForStrayRows(List<String> partitions) {
+        YearMonth current = YearMonth.now();
+        List<LocalDate> strayMonths = jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(date_trunc('month', initiated_timestamp) AS DATE) FROM " + DEFAULT_PARTITION,
+                LocalDate.class);
+        for (LocalDate strayMonth : strayMonths) {
+            YearMonth month = YearMonth.from(strayMonth);
+            String name = partitionName(month);
+            if (!month.isBefore(current) || isExpired(month) || partitions.contains(name)) {
+                continue;
+            }
+            createPartitionFromDefault(name, month.atDay(1), month.plusMonths(1).atDay(1));
+        }
+    }
+
+    private void removeExpiredPartitions(List<String> partitions) {
+        for (String name : partitions) {
+            YearMonth month = monthOf(name);
+            if (month == null || !isExpired(month)) {
+                continue;
+            }
+
+            if (detachOnly) {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+                log.info("Detached expired audit partition {} (retention {} days)", name, retentionDays);
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + name);
+                log.info("Dropped expired audit partition {} (retention {} days)", name, retentionDays);
+            }
+        }
+
+        // Expired rows that never had a partition go the same way; when detaching they are kept and reported
+        if (!detachOnly) {
+            LocalDate retainedFrom = YearMonth.from(LocalDate.now().minusDays(retentionDays)).atDay(1);
+            int deleted = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE initiated_timestamp < ?",
+                    retainedFrom.atStartOfDay());
+            if (deleted > 0) {
+                log.info("Deleted {} expired audit rows from {} (retention {} days)", deleted, DEFAULT_PARTITION, retentionDays);
+            }
+        }
+    }
+
+    private void reportDefaultPartitionRows() {
+        Long remaining = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION, Long.class);
+        defaultPartitionRows.set(remaining != null ? remaining : 0);
+        if (remaining != null && remaining > 0) {
+            log.warn("{} audit rows remain in {} outside every monthly partition", remaining, DEFAULT_PARTITION);
+        }
+    }
+
+    /**
+     * Only whole months past the retention cutoff are expired; the month holding the cutoff is kept
+     */
+    private boolean isExpired(YearMonth month) {
+        return !month.plusMonths(1).atDay(1).isAfter(LocalDate.now().minusDays(retentionDays));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + SUFFIX_FORMAT.format(month);
+    }
+
+    /**
+     * Month covered by a partition following the naming convention, or null (e.g. the default partition)
+     */
+    private static YearMonth monthOf(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), SUFFIX_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.fundquest.auth.audit_trail.repository;
+
+import com.fundquest.auth.audit_trail.dto.request.AuditSearchRequest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain SQL form of {@link AuditTrailSpecifications#matching} plus the keyset bound, for exports that stream
+ * rows straight off a JDBC cursor instead of materializing entities. Rows come newest first in
+ * {@code (initiated_timestamp DESC, id DESC)} order, so an export can resume from the last row written.
+ */
+public final class AuditExportQuery {
+
+    /**
+     * Exported columns, in output order
+     */
+    public static final List<String> COLUMNS = List.of(
+            "id", "event_id", "initiated_timestamp", "user_email", "user_name", "user_role",
+            "action_type", "action_description", "resource_type", "resource_id", "resource_identifier",
+            "endpoint", "http_method", "status", "error_message", "ip_address", "user_agent", "session_id",
+            "request_parameters", "service_name");
+
+    private final String sql;
+    private final Object[] args;
+
+    private AuditExportQuery(String sql, Object[] args) {
+        this.sql = sql;
+        this.args = args;
+    }
+
+    /**
+     * Rows matching the request's filters within [from, to) that come after the cursor row
+     */
+    public static AuditExportQuery of(AuditSearchRequest request, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime cursorTimestamp, long cursorId) {
+        Timestamp cursor = Timestamp.valueOf(cursorTimestamp);
+        StringBuilder sql = new StringBuilder(512)
+                .append("SELECT ").append(String.join(", ", COLUMNS)).append(" FROM audit_trail_tbl")
+                .append(" WHERE initiated_timestamp >= ? AND initiated_timestamp < ?")
+                .append(" AND initiated_timestamp <= ? AND (initiated_timestamp < ? OR id < ?)");
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to), cursor, cursor, cursorId));
+
+        addContains(sql, args, "user_email", request.getUserEmail());
+        addContains(sql, args, "user_name", request.getUserName());
+        addContains(sql, args, "action_description", request.getSearchTerm());
+        addEquals(sql, args, "action_type", request.getActionType());
+        addEquals(sql, args, "resource_type", request.getResourceType());
+        addEquals(sql, args, "status", request.getStatus());
+
+        sql.append(" ORDER BY initiated_timestamp DESC, id DESC");
+        return new AuditExportQuery(sql.toString(), args.toArray());
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    public Object[] args() {
+        return args.clone();
+    }
+
+    private static void addContains(StringBuilder sql, List<Object> args, String column, String term) {
+        if (term == null || term.isBlank()) {
+            return;
+        }
+        sql.append(" AND lower(").append(column).append(") LIKE ? ESCAPE '")
+                .append(AuditTrailSpecifications.LIKE_ESCAPE).append('\'');
+        args.add("%" + AuditTrailSpecifications.escapeLike(term.trim().toLowerCase()) + "%");
+    }
+
+    private static void addEquals(StringBuilder sql, List<Object> args, String column, Enum<?> value) {
+        if (value == null) {
+            return;
+        }
+        sql.append(" AND ").append(column).append(" = ?");
+        args.add(value.name());
+    }
+}
@@ -6,23 +6,25 @@ import com.fundquest.auth.audit_trail.entity.enums.AuditStatus;
 import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long> {
+public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long>, JpaSpecificationExecutor<AuditTrail>,
+        AuditTrailSummaryRepository {
 
     /**
-     * Find all audit trails with pagination, ordered by most recent first
+     * Find all audit trail summaries, ordered by most recent first; the total is resolved separately
      */
-    @Query("SELECT a FROM AuditTrail a ORDER BY a.initiatedTimestamp DESC")
-    Page<AuditTrail> findAllOrderByTimestampDesc(Pageable pageable);
+    @Query(AuditTrailSummaryView.SELECT + "FROM AuditTrail a ORDER BY a.initiatedTimestamp DESC")
+    Slice<AuditTrailSummaryView> findAllOrderByTimestampDesc(Pageable pageable);
 
     /**
      * Search audit trails by user email (case-insensitive partial match)
@@ -61,40 +63,56 @@ public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long> {
     Page<AuditTrail> findByStatus(@Param("status") AuditStatus status, Pageable pageable);
 
     /**
-     * Filter by date range
-     */
-    @Query("SELECT a FROM AuditTrail a WHERE a.initiatedDate BETWEEN :startDate AND :endDate ORDER BY a.initiatedTimestamp DESC")
-    Page<AuditTrail> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
-
-    /**
-     * Advanced search with multiple filters
-     */
-    @Query("SELECT a FROM AuditTrail a WHERE " +
-            "(:userEmail IS NULL OR LOWER(a.userEmail) LIKE LOWER(CONCAT('%', :userEmail, '%'))) AND " +
-            "(:userName IS NULL OR LOWER(a.userName) LIKE LOWER(CONCAT('%', :userName, '%'))) AND " +
-            "(:actionType IS NULL OR a.actionType = :actionType) AND " +
-            "(:resourceType IS NULL OR a.resourceType = :resourceType) AND " +
-            "(:status IS NULL OR a.status = :status) AND " +
-            "(:startDate IS NULL OR a.initiatedDate >= :startDate) AND " +
-            "(:endDate IS NULL OR a.initiatedDate <= :endDate) AND " +
-            "(:searchTerm IS NULL OR LOWER(a.actionDescription) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-            "ORDER BY a.initiatedTimestamp DESC")
-    Page<AuditTrail> findWithFilters(
-            @Param("userEmail") String userEmail,
-            @Param("userName") String userName,
-            @Param("actionType") ActionType actionType,
-            @Param("resourceType") ResourceType resourceType,
-            @Param("status") AuditStatus status,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            @Param("searchTerm") String searchTerm,
+     * Keyset page: rows strictly after the cursor in (initiatedTimestamp DESC, id DESC) order.
+     * The row-value comparison is an index range seek, so cost does not grow with page depth.
+     */
+    @Query(AuditTrailSummaryView.SELECT + "FROM AuditTrail a WHERE (a.initiatedTimestamp, a.id) < (:cursorTimestamp, :cursorId) " +
+            "ORDER BY a.initiatedTimestamp DESC, a.id DESC")
+    List<AuditTrailSummaryView> findPageAfter(
+            @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+            @Param("cursorId") Long cursorId,
             Pageable pageable);
 
     /**
-     * Find audit trails for a specific user
+     * Planner row estimate summed over all partitions; O(partitions) and no table scan, refreshed by ANALYZE
+     */
+    @Query(value = "SELECT CAST(COALESCE(SUM(GREATEST(c.reltuples, 0)), 0) AS BIGINT) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'audit_trail_tbl'", nativeQuery = true)
+    long estimateRowCount();
+
+    /**
+     * Find audit trail summaries for a specific user; the total is resolved separately
+     */
+    @Query(AuditTrailSummaryView.SELECT + "FROM AuditTrail a WHERE a.userEmail = :email ORDER BY a.initiatedTimestamp DESC")
+    Slice<AuditTrailSummaryView> findByUserEmail(@Param("email") String email, Pageable pageable);
+
+    long countByUserEmail(String userEmail);
+
+    /**
+     * Highest sequence id written so far, 0 for an empty table
+     */
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM AuditTrail a")
+    long findMaxId();
+
+    /**
+     * Ids above {@code after} in ascending order; answered from the (id, initiated_timestamp) primary key indexes
+     */
+    @Query("SELECT a.id FROM AuditTrail a WHERE a.id > :after ORDER BY a.id ASC")
+    List<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Which of the given ids exist (have been committed)
+     */
+    @Query("SELECT a.id FROM AuditTrail a WHERE a.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Summaries of the given rows in id order
      */
-    @Query("SELECT a FROM AuditTrail a WHERE a.userEmail = :email ORDER BY a.initiatedTimestamp DESC")
-    Page<AuditTrail> findByUserEmail(@Param("email") String email, Pageable pageable);
+    @Query(AuditTrailSummaryView.SELECT + "FROM AuditTrail a WHERE a.id IN :ids ORDER BY a.id ASC")
+    List<AuditTrailSummaryView> findSummariesByIdIn(@Param("ids") List<Long> ids);
 
     /**
      * Find audit trails for a specific resource
@@ -108,12 +126,6 @@ public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long> {
     @Query("SELECT a.actionType, COUNT(a) FROM AuditTrail a GROUP BY a.actionType")
     List<Object[]> countByActionType();
 
-    /**
-     * Count audit trails by user for a specific date range
-     */
-    @Query("SELECT a.userEmail, COUNT(a) FROM AuditTrail a WHERE a.initiatedDate BETWEEN :startDate AND :endDate GROUP BY a.userEmail ORDER BY COUNT(a) DESC")
-    List<Object[]> countByUserInDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
     /**
      * Find recent failed audit trails
      */
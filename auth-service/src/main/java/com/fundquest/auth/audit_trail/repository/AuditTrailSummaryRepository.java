@@ -0,0 +1,25 @@
+package com.fundquest.auth.audit_trail.repository;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Specification queries that select {@link AuditTrailSummaryView} instead of hydrating entities
+ */
+public interface AuditTrailSummaryRepository {
+
+    /**
+     * Page of summaries matching the specification; no count query, the total is resolved separately
+     */
+    Slice<AuditTrailSummaryView> findSummaries(Specification<AuditTrail> spec, Pageable pageable);
+
+    /**
+     * First {@code limit} summaries matching the specification in the given order, without counting
+     */
+    List<AuditTrailSummaryView> findSummaries(Specification<AuditTrail> spec, Sort sort, int limit);
+}
@@ -0,0 +1,59 @@
+package com.fundquest.auth.audit_trail.repository;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Criteria implementation of {@link AuditTrailSummaryRepository}: applies the specification's predicate
+ * to a constructor selection, so only the summary columns leave PostgreSQL
+ */
+public class AuditTrailSummaryRepositoryImpl implements AuditTrailSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<AuditTrailSummaryView> findSummaries(Specification<AuditTrail> spec, Pageable pageable) {
+        // One extra row tells whether a next page exists
+        List<AuditTrailSummaryView> content = entityManager.createQuery(select(spec, pageable.getSort()))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public List<AuditTrailSummaryView> findSummaries(Specification<AuditTrail> spec, Sort sort, int limit) {
+        return entityManager.createQuery(select(spec, sort))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private CriteriaQuery<AuditTrailSummaryView> select(Specification<AuditTrail> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AuditTrailSummaryView> query = cb.createQuery(AuditTrailSummaryView.class);
+        Root<AuditTrail> a = query.from(AuditTrail.class);
+        query.select(cb.construct(AuditTrailSummaryView.class,
+                a.get("id"), a.get("userEmail"), a.get("userName"), a.get("userRole"),
+                a.get("actionType"), a.get("actionDescription"), a.get("resourceType"), a.get("resourceIdentifier"),
+                a.get("initiatedDate"), a.get("initiatedTime"), a.get("initiatedTimestamp"),
+                a.get("status"), a.get("serviceName")));
+        query.where(spec.toPredicate(a, query, cb));
+        query.orderBy(toOrders(sort, a, cb));
+        return query;
+    }
+}
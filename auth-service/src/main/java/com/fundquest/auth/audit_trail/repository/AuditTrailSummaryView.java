@@ -0,0 +1,38 @@
+package com.fundquest.auth.audit_trail.repository;
+
+import com.fundquest.auth.audit_trail.entity.enums.ActionType;
+import com.fundquest.auth.audit_trail.entity.enums.AuditStatus;
+import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Columns shown in audit listings, selected directly by list queries.
+ * Detail-only columns (request parameters, user agent, error message, endpoint) are never read for a list page
+ * and the rows never enter the persistence context; only the lookup by id loads a full {@code AuditTrail}.
+ */
+public record AuditTrailSummaryView(
+        Long id,
+        String userEmail,
+        String userName,
+        String userRole,
+        ActionType actionType,
+        String actionDescription,
+        ResourceType resourceType,
+        String resourceIdentifier,
+        LocalDate initiatedDate,
+        LocalTime initiatedTime,
+        LocalDateTime initiatedTimestamp,
+        AuditStatus status,
+        String serviceName
+) {
+
+    /**
+     * JPQL constructor expression selecting this view from alias {@code a}
+     */
+    static final String SELECT = "SELECT new com.fundquest.auth.audit_trail.repository.AuditTrailSummaryView(" +
+            "a.id, a.userEmail, a.userName, a.userRole, a.actionType, a.actionDescription, a.resourceType, " +
+            "a.resourceIdentifier, a.initiatedDate, a.initiatedTime, a.initiatedTimestamp, a.status, a.serviceName) ";
+}
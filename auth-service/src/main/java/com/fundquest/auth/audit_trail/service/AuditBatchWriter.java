@@ -0,0 +1,458 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.audit_trail.spool.AuditSpool;
+import com.fundquest.auth.audit_trail.stats.AuditStatsRepository;
+import com.fundquest.auth.audit_trail.stream.AuditEventBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit ingestion pipeline: request threads enqueue into a bounded lock-free queue and a single
+ * writer thread flushes every {@code batch-size} events or {@code flush-interval-ms}, whichever comes
+ * first, as one JDBC batch insert in one transaction. Ids come from the table's sequence default.
+ * Events arrive as {@link PendingAudit}s and are completed by the {@link AuditEventEnricher} on the
+ * writer thread, so description rendering, parameter serialization and IP parsing stay off request threads.
+ * <p>
+ * Enqueueing never blocks. Events that do not fit in the queue go to a second bounded queue, where an
+ * {@code audit-spooler} thread completes them the same way and appends them to the {@link AuditSpool}; batches
+ * that fail because the database is unavailable are spooled too, and the spool is replayed later. When the database rejects a batch's
+ * content, the batch is retried one event at a time and only the events rejected on their own are dead-lettered.
+ */
+@Component
+@Slf4j
+public class AuditBatchWriter {
+
+    // event_id is the idempotency key: replaying a spooled event that already made it in is a no-op.
+    // The unique index also carries the partition key; a replayed event keeps its original timestamp.
+    private static final String INSERT_SQL = "INSERT INTO audit_trail_tbl (" +
+            "event_id, user_email, user_name, user_role, action_type, action_description, resource_type, resource_id, " +
+            "resource_identifier, endpoint, http_method, request_parameters, initiated_date, initiated_time, " +
+            "initiated_timestamp, ip_address, user_agent, session_id, status, error_message, service_name, created_at" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (event_id, initiated_timestamp) DO NOTHING";
+
+    private static final String METRIC_PREFIX = "audit.writer";
+
+    // varchar widths of audit_trail_tbl; longer values are cut so one oversized field cannot reject the row
+    private static final int DEFAULT_COLUMN_LENGTH = 255;
+    private static final int ENUM_COLUMN_LENGTH = 100;
+    private static final int ENDPOINT_LENGTH = 500;
+    private static final int HTTP_METHOD_LENGTH = 10;
+    private static final int IP_ADDRESS_LENGTH = 45;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditSpool auditSpool;
+    private final AuditEventEnricher auditEventEnricher;
+    private final AuditStatsRepository auditStatsRepository;
+    private final AuditEventBroadcaster auditEventBroadcaster;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int overflowCapacity;
+    private final long flushIntervalNanos;
+
+    private final Queue<PendingAudit> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<PendingAudit> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger overflowQueued = new AtomicInteger();
+
+    private final Counter writtenEvents;
+    private final Counter spooledEvents;
+    private final Counter droppedEvents;
+    private final Counter failedEvents;
+    private final Counter deadLetteredEvents;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Thread spoolerThread;
+
+    public AuditBatchWriter(JdbcTemplate jdbcTemplate,
+                            AuditSpool auditSpool,
+                            AuditEventEnricher auditEventEnricher,
+                            AuditStatsRepository auditStatsRepository,
+                            AuditEventBroadcaster auditEventBroadcaster,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.audit.writer.batch-size:200}") int batchSize,
+                            @Value("${spring.audit.writer.queue-capacity:10000}") int queueCapacity,
+                            @Value("${spring.audit.writer.overflow-capacity:10000}") int overflowCapacity,
+                            @Value("${spring.audit.writer.flush-interval-ms:250}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditSpool = auditSpool;
+        this.auditEventEnricher = auditEventEnricher;
+        this.auditStatsRepository = auditStatsRepository;
+        this.auditEventBroadcaster = auditEventBroadcaster;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.overflowCapacity = overflowCapacity;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        this.writtenEvents = eventCounter(meterRegistry, "written");
+        this.spooledEvents = eventCounter(meterRegistry, "spooled");
+        this.droppedEvents = eventCounter(meterRegistry, "dropped");
+        this.failedEvents = eventCounter(meterRegistry, "failed");
+        this.deadLetteredEvents = eventCounter(meterRegistry, "dead_lettered");
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush")
+                .description("Latency of one audit batch insert")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .description("Audit events per flushed batch")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", queued, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".overflow.size", overflowQueued, AtomicInteger::get)
+                .description("Audit events waiting to be spooled")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        spoolerThread = new Thread(this::spoolLoop, "audit-spooler");
+        spoolerThread.setDaemon(true);
+        spoolerThread.start();
+        log.info("Audit batch writer started (batch size: {}, flush interval: {} ms, queue capacity: {})",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), queueCapacity);
+    }
+
+    /**
+     * Flushes whatever is still queued before the datasource goes away
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        LockSupport.unpark(spoolerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        spoolerThread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Enqueue an audit event to be completed and written by the writer thread; never blocks the caller
+     * on database I/O. When the queue is full the event goes to the overflow queue and is completed and
+     * spooled by the spooler thread. Only when that queue is full too is the event spooled from the caller,
+     * with just the cheap request enrichment: its deferred work is skipped and the description falls back
+     * to the one derived from the action and resource at insert time.
+     * @return false if the event could neither be queued nor spooled
+     */
+    public boolean submit(PendingAudit pendingAudit) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            return overflow(pendingAudit);
+        }
+        queue.offer(pendingAudit);
+        if (queued.get() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    private boolean overflow(PendingAudit pendingAudit) {
+        if (overflowQueued.incrementAndGet() > overflowCapacity) {
+            overflowQueued.decrementAndGet();
+            return spool(auditEventEnricher.completeOnOverflow(pendingAudit));
+        }
+        overflow.offer(pendingAudit);
+        LockSupport.unpark(spoolerThread);
+        return true;
+    }
+
+    private void spoolLoop() {
+        while (running || !overflow.isEmpty()) {
+            PendingAudit next = overflow.poll();
+            if (next == null) {
+                if (running) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+                continue;
+            }
+            overflowQueued.decrementAndGet();
+            spool(complete(next));
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditTrail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            long deadline = System.nanoTime() + flushIntervalNanos;
+            while (batch.size() < batchSize) {
+                PendingAudit next = queue.poll();
+                if (next != null) {
+                    queued.decrementAndGet();
+                    batch.add(complete(next));
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private AuditTrail complete(PendingAudit pendingAudit) {
+        try {
+            return auditEventEnricher.complete(pendingAudit);
+        } catch (Exception e) {
+            log.warn("Failed to enrich audit event, writing it as captured: {}", e.getMessage());
+            return pendingAudit.auditTrail();
+        }
+    }
+
+    private void flush(List<AuditTrail> batch) {
+        long start = System.nanoTime();
+        try {
+            List<AuditTrail> rejected = insertIsolatingRejects(batch);
+            rejected.forEach(this::deadLetter);
+            log.debug("Flushed {} audit events", batch.size() - rejected.size());
+        } catch (Exception e) {
+            failedEvents.increment(batch.size());
+            log.error("Failed to write {} audit events, spooling them: {}", batch.size(), e.getMessage());
+            batch.forEach(this::spool);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Insert a batch; if the database rejects its content, retry event by event so one bad event
+     * cannot hold back the others. Events inserted before a retry are skipped on the next attempt by event_id.
+     * @return the events the database rejects on their own, for the caller to dead-letter
+     * @throws RuntimeException if the failure is not caused by the events (database unavailable); retry later
+     */
+    public List<AuditTrail> insertIsolatingRejects(List<AuditTrail> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        try {
+            insertBatch(batch);
+            return List.of();
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            if (batch.size() == 1) {
+                log.error("Audit event {} rejected by the database: {}", batch.get(0).getEventId(), e.getMessage());
+                return List.of(batch.get(0));
+            }
+            log.warn("Audit batch of {} events rejected, retrying them one at a time: {}", batch.size(), e.getMessage());
+        }
+
+        List<AuditTrail> rejected = new ArrayList<>();
+        for (AuditTrail audit : batch) {
+            try {
+                insertBatch(List.of(audit));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                log.error("Audit event {} rejected by the database: {}", audit.getEventId(), e.getMessage());
+                rejected.add(audit);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Insert a batch and add the inserted events to the hourly stats in one transaction, then wake up the
+     * audit stream. Events already present (same event_id) are skipped and not counted
+     * @throws org.springframework.dao.DataAccessException if the database rejects the batch
+     */
+    public void insertBatch(List<AuditTrail> batch) {
+        List<AuditTrail> inserted = transactionTemplate.execute(status -> {
+            int[][] updateCounts = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), AuditBatchWriter::bind);
+            List<AuditTrail> rows = inserted(batch, updateCounts);
+            auditStatsRepository.increment(rows);
+            return rows;
+        });
+        int written = inserted != null ? inserted.size() : 0;
+        writtenEvents.increment(written);
+        batchSizes.record(batch.size());
+        // The stream follows the table; committed rows are picked up by its next poll, which this brings forward
+        auditEventBroadcaster.wakeUp();
+    }
+
+    /**
+     * Drop events that are already in audit_trail_tbl, such as a spooled batch that did commit before its
+     * connection failed. Replays check up front because the update counts of a rewritten batch cannot tell
+     * which of its rows were skipped
+     */
+    public List<AuditTrail> withoutPersisted(List<AuditTrail> events) {
+        List<String> eventIds = new ArrayList<>(events.size());
+        List<Object> args = new ArrayList<>(events.size() + 2);
+        Timestamp from = null;
+        Timestamp to = null;
+        for (AuditTrail audit : events) {
+            if (audit.getEventId() == null) {
+                continue;
+            }
+            Timestamp initiated = Timestamp.valueOf(audit.getInitiatedTimestamp());
+            from = from == null || initiated.before(from) ? initiated : from;
+            to = to == null || initiated.after(to) ? initiated : to;
+            eventIds.add(audit.getEventId());
+        }
+        if (eventIds.isEmpty()) {
+            return events;
+        }
+
+        // The timestamp range lets the lookup skip partitions the batch cannot be in
+        args.addAll(eventIds);
+        args.add(from);
+        args.add(to);
+        Set<String> persisted = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT event_id FROM audit_trail_tbl WHERE event_id IN (" +
+                        String.join(", ", Collections.nCopies(eventIds.size(), "?")) + ") " +
+                        "AND initiated_timestamp BETWEEN ? AND ?",
+                String.class, args.toArray()));
+        if (persisted.isEmpty()) {
+            return events;
+        }
+        return events.stream()
+                .filter(audit -> audit.getEventId() == null || !persisted.contains(audit.getEventId()))
+                .toList();
+    }
+
+    /**
+     * Events whose insert added a row. A batch the driver rewrote into multi-row INSERTs reports
+     * SUCCESS_NO_INFO per event; live batches carry fresh event ids, so those rows are all new
+     */
+    private static List<AuditTrail> inserted(List<AuditTrail> batch, int[][] updateCounts) {
+        List<AuditTrail> inserted = new ArrayList<>(batch.size());
+        int index = 0;
+        for (int[] chunk : updateCounts) {
+            for (int count : chunk) {
+                if (count == 1 || count == Statement.SUCCESS_NO_INFO) {
+                    inserted.add(batch.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+
+    private void deadLetter(AuditTrail auditTrail) {
+        if (auditSpool.deadLetter(auditTrail)) {
+            deadLetteredEvents.increment();
+        } else {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Failures that say nothing about the events themselves: no connection, no transaction, timeouts, deadlocks
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private boolean spool(AuditTrail auditTrail) {
+        if (auditSpool.append(auditTrail)) {
+            spooledEvents.increment();
+            return true;
+        }
+        droppedEvents.increment();
+        log.warn("Audit event could not be spooled, dropping audit: {}", auditTrail.getActionDescription());
+        return false;
+    }
+
+    private static void bind(PreparedStatement ps, AuditTrail audit) throws SQLException {
+        ps.setString(1, audit.getEventId());
+        ps.setString(2, cap(audit.getUserEmail(), DEFAULT_COLUMN_LENGTH));
+        ps.setString(3, cap(audit.getUserName(), DEFAULT_COLUMN_LENGTH));
+        ps.setString(4, cap(audit.getUserRole(), ENUM_COLUMN_LENGTH));
+        ps.setString(5, audit.getActionType() != null ? audit.getActionType().name() : null);
+        ps.setString(6, describe(audit));
+        ps.setString(7, audit.getResourceType() != null ? audit.getResourceType().name() : null);
+        ps.setString(8, cap(audit.getResourceId(), DEFAULT_COLUMN_LENGTH));
+        ps.setString(9, cap(audit.getResourceIdentifier(), DEFAULT_COLUMN_LENGTH));
+        ps.setString(10, cap(audit.getEndpoint(), ENDPOINT_LENGTH));
+        ps.setString(11, cap(audit.getHttpMethod(), HTTP_METHOD_LENGTH));
+        ps.setString(12, audit.getRequestParameters());
+        ps.setDate(13, Date.valueOf(audit.getInitiatedDate()));
+        ps.setTime(14, Time.valueOf(audit.getInitiatedTime()));
+        ps.setTimestamp(15, Timestamp.valueOf(audit.getInitiatedTimestamp()));
+        ps.setString(16, cap(audit.getIpAddress(), IP_ADDRESS_LENGTH));
+        ps.setString(17, audit.getUserAgent());
+        ps.setString(18, cap(audit.getSessionId(), DEFAULT_COLUMN_LENGTH));
+        ps.setString(19, audit.getStatus().name());
+        ps.setString(20, audit.getErrorMessage());
+        ps.setString(21, cap(audit.getServiceName(), ENUM_COLUMN_LENGTH));
+        ps.setTimestamp(22, Timestamp.valueOf(audit.getCreatedAt()));
+    }
+
+    /**
+     * action_description is NOT NULL; an event whose description could not be rendered is still recorded
+     */
+    private static String describe(AuditTrail audit) {
+        if (audit.getActionDescription() != null && !audit.getActionDescription().isBlank()) {
+            return audit.getActionDescription();
+        }
+        return audit.getActionType() + " " + (audit.getResourceType() != null ? audit.getResourceType() : "")
+                + (audit.getResourceIdentifier() != null ? " " + audit.getResourceIdentifier() : "");
+    }
+
+    static String cap(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        // Never leave half of a surrogate pair at the cut
+        int end = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return value.substring(0, end);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC_PREFIX + ".events")
+                .description("Audit events by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
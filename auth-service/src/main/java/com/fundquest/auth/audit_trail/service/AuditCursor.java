@@ -0,0 +1,41 @@
+package com.fundquest.auth.audit_trail.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the audit trail ordering {@code (initiated_timestamp DESC, id DESC)}: the last row of a page.
+ * Clients receive it as an opaque URL-safe token and pass it back to fetch the rows that follow.
+ */
+public record AuditCursor(LocalDateTime initiatedTimestamp, long id) {
+
+    // Sorts after every real row, so the first page uses the same seek query as the rest
+    static final AuditCursor START = new AuditCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = initiatedTimestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token; a blank token means "from the newest row"
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static AuditCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new AuditCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid audit trail cursor");
+        }
+    }
+}
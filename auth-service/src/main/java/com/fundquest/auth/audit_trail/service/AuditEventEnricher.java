@@ -0,0 +1,107 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.util.ClientAddressResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+import static com.fundquest.auth.audit_trail.entity.enums.ActionType.LOGIN;
+import static com.fundquest.auth.audit_trail.entity.enums.ActionType.VERIFY;
+import static com.fundquest.auth.audit_trail.entity.enums.ResourceType.AUTHENTICATION;
+
+/**
+ * Completes an audit event from its {@link AuditRequestSnapshot}: runs the deferred work,
+ * resolves the client address and applies user fallbacks. Runs on the audit writer and spooler threads.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditEventEnricher {
+
+    private final ClientAddressResolver clientAddressResolver;
+
+    public AuditTrail complete(PendingAudit pending) {
+        AuditTrail auditTrail = pending.auditTrail();
+        if (pending.deferredWork() != null) {
+            try {
+                pending.deferredWork().accept(auditTrail);
+            } catch (Exception e) {
+                log.debug("Deferred audit work failed: {}", e.getMessage());
+            }
+        }
+        enrich(auditTrail, pending.request());
+        return auditTrail;
+    }
+
+    /**
+     * Completion for an event the writer queue had no room for, which runs on the request thread: applies
+     * the request snapshot but skips the deferred work (template rendering, parameter serialization).
+     * Only used when the spooler queue is full as well
+     */
+    public AuditTrail completeOnOverflow(PendingAudit pending) {
+        AuditTrail auditTrail = pending.auditTrail();
+        enrich(auditTrail, pending.request());
+        return auditTrail;
+    }
+
+    public void enrich(AuditTrail auditTrail, AuditRequestSnapshot request) {
+        if (request != null) {
+            setRequestInformation(auditTrail, request);
+        }
+        setUserInformation(auditTrail, request);
+
+        if (auditTrail.getInitiatedTimestamp() == null) {
+            auditTrail.setTimestamps(LocalDateTime.now());
+        }
+    }
+
+    private void setRequestInformation(AuditTrail auditTrail, AuditRequestSnapshot request) {
+        auditTrail.setEndpoint(request.endpoint());
+        auditTrail.setHttpMethod(request.httpMethod());
+        if (request.endpoint() != null) {
+            auditTrail.setIpAddress(clientAddressResolver.resolve(
+                    request.remoteAddress(), request.gatewayClientAddress(), request.forwardedFor()));
+        }
+        auditTrail.setUserAgent(request.userAgent());
+        auditTrail.setSessionId(request.sessionId());
+    }
+
+    /**
+     * Keeps user info set by the aspect (e.g. from a login result); otherwise uses the captured
+     * principal, and falls back to ANONYMOUS for login operations or SYSTEM for everything else
+     */
+    private void setUserInformation(AuditTrail auditTrail, AuditRequestSnapshot request) {
+        String userEmail = auditTrail.getUserEmail();
+        if (userEmail != null && !userEmail.trim().isEmpty() && !"unknown".equals(userEmail)) {
+            return;
+        }
+
+        if (isLoginOperation(auditTrail)) {
+            auditTrail.setUserEmail("ANONYMOUS");
+            auditTrail.setUserName("Anonymous User");
+            auditTrail.setUserRole("UNAUTHENTICATED");
+        } else if (request != null && request.principal() != null) {
+            auditTrail.setUserEmail(request.principal());
+            if (auditTrail.getUserRole() == null) {
+                auditTrail.setUserRole(request.role());
+            }
+        } else {
+            auditTrail.setUserEmail("SYSTEM");
+            auditTrail.setUserName("System");
+            auditTrail.setUserRole("SYSTEM");
+            log.warn("Set audit user to SYSTEM as fallback for operation: {}", auditTrail.getActionType());
+        }
+    }
+
+    /**
+     * Check if this is a login operation
+     */
+    private boolean isLoginOperation(AuditTrail auditTrail) {
+        return auditTrail.getActionType() == LOGIN ||
+                auditTrail.getActionType() == VERIFY ||
+                auditTrail.getResourceType() == AUTHENTICATION;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.dto.request.AuditSearchRequest;
+import com.fundquest.auth.audit_trail.export.AuditExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface AuditExportService {
+
+    /**
+     * Stream audit trails matching the filters to the output, newest first, without loading them into memory
+     * @param searchRequest filter criteria (same semantics as search)
+     * @param cursor resume after this row; {@link AuditCursor#decode(String)} of a blank token starts from the newest
+     * @param format CSV or NDJSON
+     * @param out destination; flushed but not closed
+     * @return number of rows written
+     */
+    long export(AuditSearchRequest searchRequest, AuditCursor cursor, AuditExportFormat format, OutputStream out)
+            throws IOException;
+}
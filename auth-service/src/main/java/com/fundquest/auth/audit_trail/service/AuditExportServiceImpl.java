@@ -0,0 +1,99 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fundquest.auth.audit_trail.dto.request.AuditSearchRequest;
+import com.fundquest.auth.audit_trail.export.AuditExportFormat;
+import com.fundquest.auth.audit_trail.export.AuditExportWriter;
+import com.fundquest.auth.audit_trail.repository.AuditExportQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static com.fundquest.auth.audit_trail.service.AuditTrailServiceImpl.endOf;
+import static com.fundquest.auth.audit_trail.service.AuditTrailServiceImpl.startOf;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditExportServiceImpl implements AuditExportService {
+
+    private static final int TIMESTAMP_COLUMN = AuditExportQuery.COLUMNS.indexOf("initiated_timestamp");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.audit.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    @Transactional(readOnly = true) // PostgreSQL only honours the fetch size (server-side cursor) inside a transaction
+    public long export(AuditSearchRequest searchRequest, AuditCursor cursor, AuditExportFormat format,
+                       OutputStream out) throws IOException {
+        AuditExportQuery query = AuditExportQuery.of(searchRequest,
+                startOf(searchRequest.getStartDate()), endOf(searchRequest.getEndDate()),
+                cursor.initiatedTimestamp(), cursor.id());
+        AuditExportWriter writer = AuditExportWriter.create(
+                format, AuditExportQuery.COLUMNS, out, objectMapper.getFactory());
+        RowWriter rowWriter = new RowWriter(writer);
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        query.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                new ArgumentPreparedStatementSetter(query.args()).setValues(statement);
+                return statement;
+            }, rowWriter);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the query is abandoned and the cursor closed
+            throw e.getCause();
+        }
+
+        writer.finish();
+        log.info("Exported {} audit trails as {}", rowWriter.rows, format);
+        return rowWriter.rows;
+    }
+
+    /**
+     * Hands each row to the export writer as it arrives; the values array is reused between rows
+     */
+    private static final class RowWriter implements RowCallbackHandler {
+
+        private final AuditExportWriter writer;
+        private final String[] values = new String[AuditExportQuery.COLUMNS.size()];
+        private long rows;
+
+        private RowWriter(AuditExportWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getString(i + 1);
+            }
+            LocalDateTime timestamp = rs.getObject(TIMESTAMP_COLUMN + 1, LocalDateTime.class);
+            values[TIMESTAMP_COLUMN] = timestamp.toString();
+
+            try {
+                writer.writeRow(values, new AuditCursor(timestamp, rs.getLong("id")).encode());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+    }
+}
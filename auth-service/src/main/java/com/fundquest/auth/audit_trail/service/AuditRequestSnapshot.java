@@ -0,0 +1,86 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.constants.AppConstants;
+import com.fundquest.auth.security.AuthorityRegistry;
+import com.fundquest.auth.security.JwtAuthenticationToken;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Request and security context of an audited call, copied on the request thread.
+ * Neither context is available on the audit writer thread, so everything the enricher needs is
+ * captured here as plain field copies; parsing and validation happen later, off the request path.
+ *
+ * @param gatewayClientAddress client address set by the api-gateway, null if absent
+ * @param forwardedFor raw {@code X-Forwarded-For} value, null if absent
+ */
+public record AuditRequestSnapshot(
+        String endpoint,
+        String httpMethod,
+        String remoteAddress,
+        String gatewayClientAddress,
+        String forwardedFor,
+        String userAgent,
+        String sessionId,
+        String principal,
+        String role
+) {
+
+    private static final AuditRequestSnapshot EMPTY =
+            new AuditRequestSnapshot(null, null, null, null, null, null, null, null, null);
+
+    /**
+     * Copy what the audit needs from the current thread's request and authentication
+     */
+    public static AuditRequestSnapshot capture() {
+        String principal = null;
+        String role = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                && authentication.getPrincipal() instanceof String email) {
+            principal = email;
+            role = roleOf(authentication);
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return principal == null ? EMPTY : new AuditRequestSnapshot(null, null, null, null, null, null, null, principal, role);
+        }
+
+        HttpServletRequest request = servletAttributes.getRequest();
+        HttpSession session = request.getSession(false);
+
+        return new AuditRequestSnapshot(
+                request.getRequestURI(),
+                request.getMethod(),
+                request.getRemoteAddr(),
+                request.getHeader(AppConstants.CLIENT_ADDRESS_HEADER),
+                request.getHeader(AppConstants.FORWARDED_FOR_HEADER),
+                request.getHeader("User-Agent"),
+                session != null ? session.getId() : null,
+                principal,
+                role
+        );
+    }
+
+    private static String roleOf(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            return jwtAuthentication.getToken().role();
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(AuthorityRegistry.ROLE_PREFIX)) {
+                return name.substring(AuthorityRegistry.ROLE_PREFIX.length());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.dto.response.AuditStatBucketResponse;
+import com.fundquest.auth.audit_trail.dto.response.AuditStatCountResponse;
+import com.fundquest.auth.audit_trail.stats.AuditStatDimension;
+import com.fundquest.auth.audit_trail.stats.AuditStatGranularity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AuditStatsService {
+
+    /**
+     * Event counts grouped by one dimension, read from the rollup tables
+     * @param dimension action type, resource type, status or user
+     * @param startDate first day included (defaults to 30 days ago)
+     * @param endDate last day included (defaults to today)
+     * @param limit maximum number of values returned, largest counts first
+     * @return counts per dimension value
+     */
+    List<AuditStatCountResponse> getCounts(AuditStatDimension dimension, LocalDate startDate, LocalDate endDate, int limit);
+
+    /**
+     * Event counts per hour or per day, read from the rollup tables
+     * @param granularity bucket size
+     * @param startDate first day included (defaults to 30 days ago)
+     * @param endDate last day included (defaults to today)
+     * @return buckets in chronological order; empty buckets are omitted
+     */
+    List<AuditStatBucketResponse> getTimeline(AuditStatGranularity granularity, LocalDate startDate, LocalDate endDate);
+}
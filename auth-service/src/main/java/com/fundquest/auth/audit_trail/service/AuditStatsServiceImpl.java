@@ -0,0 +1,72 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.dto.response.AuditStatBucketResponse;
+import com.fundquest.auth.audit_trail.dto.response.AuditStatCountResponse;
+import com.fundquest.auth.audit_trail.stats.AuditStatDimension;
+import com.fundquest.auth.audit_trail.stats.AuditStatGranularity;
+import com.fundquest.auth.audit_trail.stats.AuditStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditStatsServiceImpl implements AuditStatsService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_LIMIT = 100;
+
+    private final AuditStatsRepository auditStatsRepository;
+
+    @Value("${spring.audit.stats.hourly-retention-days:30}")
+    private int hourlyRetentionDays;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditStatCountResponse> getCounts(AuditStatDimension dimension, LocalDate startDate, LocalDate endDate,
+                                                  int limit) {
+        if (dimension == null) {
+            throw new IllegalArgumentException("dimension is required");
+        }
+        LocalDate to = endExclusive(endDate);
+        LocalDate from = start(startDate, to);
+        int validLimit = limit <= 0 ? 10 : Math.min(limit, MAX_LIMIT);
+        return auditStatsRepository.countBy(dimension, from, to, validLimit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditStatBucketResponse> getTimeline(AuditStatGranularity granularity, LocalDate startDate,
+                                                     LocalDate endDate) {
+        LocalDate to = endExclusive(endDate);
+        LocalDate from = start(startDate, to);
+
+        if (granularity == AuditStatGranularity.HOUR) {
+            // Hourly buckets are purged once they fall out of the retention window; older hours would come back empty
+            if (from.isBefore(LocalDate.now().minusDays(hourlyRetentionDays))) {
+                throw new IllegalArgumentException(
+                        "Hourly timeline only covers the last " + hourlyRetentionDays + " days; use DAY granularity");
+            }
+            return auditStatsRepository.countPerHour(from.atStartOfDay(), to.atStartOfDay());
+        }
+        return auditStatsRepository.countPerDay(from, to);
+    }
+
+    private static LocalDate endExclusive(LocalDate endDate) {
+        return (endDate != null ? endDate : LocalDate.now()).plusDays(1);
+    }
+
+    private static LocalDate start(LocalDate startDate, LocalDate endExclusive) {
+        LocalDate from = startDate != null ? startDate : endExclusive.minusDays(DEFAULT_RANGE_DAYS);
+        if (!from.isBefore(endExclusive)) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        return from;
+    }
+}
@@ -2,11 +2,15 @@ package com.fundquest.auth.audit_trail.service;
 
 
 import com.fundquest.auth.audit_trail.dto.request.AuditSearchRequest;
+import com.fundquest.auth.audit_trail.dto.response.AuditTrailCursorResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailPageResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailResponse;
 import com.fundquest.auth.audit_trail.entity.AuditTrail;
 import com.fundquest.auth.audit_trail.entity.enums.ActionType;
 import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
+import com.fundquest.auth.util.pagination.CountMode;
+
+import java.util.function.Consumer;
 
 public interface AuditTrailService {
 
@@ -17,36 +21,66 @@ public interface AuditTrailService {
     void logAudit(AuditTrail auditTrail);
 
     /**
-     * Log an audit trail entry asynchronously
+     * Log an audit trail entry asynchronously; the entry is queued and written in a batch
      * @param auditTrail the audit trail to log
      */
     void logAuditAsync(AuditTrail auditTrail);
 
+    /**
+     * Log an audit trail entry asynchronously, running deferred work on the writer thread before it is written
+     * @param auditTrail the audit trail to log
+     * @param deferredWork completes the entry off the request thread (description, parameters); may be null
+     */
+    void logAuditAsync(AuditTrail auditTrail, Consumer<AuditTrail> deferredWork);
+
     /**
      * Get all audit trails with pagination
      * @param page 1-based page number
      * @param size page size (max 8)
+     * @param countMode how the total is obtained
      * @return paginated audit trails
      */
-    AuditTrailPageResponse getAllAuditTrails(int page, int size);
+    AuditTrailPageResponse getAllAuditTrails(int page, int size, CountMode countMode);
 
     /**
      * Search audit trails with filters
      * @param searchRequest search criteria
      * @param page 1-based page number
      * @param size page size (max 8)
+     * @param countMode how the total is obtained
      * @return paginated filtered audit trails
      */
-    AuditTrailPageResponse searchAuditTrails(AuditSearchRequest searchRequest, int page, int size);
+    AuditTrailPageResponse searchAuditTrails(AuditSearchRequest searchRequest, int page, int size, CountMode countMode);
+
+    /**
+     * Get the audit trails after a cursor, most recent first, using keyset pagination
+     * @param cursor opaque cursor from a previous page; blank for the first page
+     * @param size page size (max 8)
+     * @param includeTotal whether to add an estimated total (planner statistics, no count query)
+     * @return one page and the cursor for the next
+     */
+    AuditTrailCursorResponse getAuditTrailsAfter(String cursor, int size, boolean includeTotal);
+
+    /**
+     * Search audit trails with filters using keyset pagination
+     * @param searchRequest search criteria
+     * @param cursor opaque cursor from a previous page; blank for the first page
+     * @param size page size (max 8)
+     * @param includeTotal whether to add the exact number of matches (runs a count query)
+     * @return one page and the cursor for the next
+     */
+    AuditTrailCursorResponse searchAuditTrailsAfter(AuditSearchRequest searchRequest, String cursor, int size,
+                                                    boolean includeTotal);
 
     /**
      * Get audit trails for a specific user
      * @param userEmail user email
      * @param page 1-based page number
      * @param size page size (max 8)
+     * @param countMode how the total is obtained
      * @return paginated user audit trails
      */
-    AuditTrailPageResponse getUserAuditTrails(String userEmail, int page, int size);
+    AuditTrailPageResponse getUserAuditTrails(String userEmail, int page, int size, CountMode countMode);
 
     /**
      * Get audit trail by ID
@@ -3,6 +3,7 @@ package com.fundquest.auth.audit_trail.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fundquest.auth.audit_trail.dto.request.AuditSearchRequest;
+import com.fundquest.auth.audit_trail.dto.response.AuditTrailCursorResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailPageResponse;
 import com.fundquest.auth.audit_trail.dto.response.AuditTrailResponse;
 import com.fundquest.auth.audit_trail.entity.AuditTrail;
@@ -10,29 +11,28 @@ import com.fundquest.auth.audit_trail.entity.enums.ActionType;
 import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
 import com.fundquest.auth.audit_trail.mapper.AuditTrailMapper;
 import com.fundquest.auth.audit_trail.repository.AuditTrailRepository;
-import com.fundquest.auth.util.SecurityContextService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.fundquest.auth.audit_trail.repository.AuditTrailSpecifications;
+import com.fundquest.auth.audit_trail.repository.AuditTrailSummaryView;
+import com.fundquest.auth.util.pagination.CountMode;
+import com.fundquest.auth.util.pagination.PageCounter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.List;
+import java.util.UUID;
 
-import static com.fundquest.auth.audit_trail.entity.enums.ActionType.LOGIN;
-import static com.fundquest.auth.audit_trail.entity.enums.ActionType.VERIFY;
 import static com.fundquest.auth.audit_trail.entity.enums.AuditStatus.SUCCESS;
-import static com.fundquest.auth.audit_trail.entity.enums.ResourceType.AUTHENTICATION;
 
 @Service
 @RequiredArgsConstructor
@@ -42,17 +42,25 @@ public class AuditTrailServiceImpl implements AuditTrailService {
 
     private final AuditTrailRepository auditTrailRepository;
     private final AuditTrailMapper auditTrailMapper;
-    private final SecurityContextService securityContextService;
     private final ObjectMapper objectMapper;
+    private final AuditBatchWriter auditBatchWriter;
+    private final AuditEventEnricher auditEventEnricher;
+    private final PageCounter pageCounter;
 
     private static final int MAX_PAGE_SIZE = 8;
     private static final int DEFAULT_PAGE_SIZE = 8;
 
+    // Open-ended search bounds; keeping the range always bound lets PostgreSQL prune partitions
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "initiatedTimestamp");
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "initiatedTimestamp", "id");
+
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW) // Independent transaction
     public void logAudit(AuditTrail auditTrail) {
         try {
-            enrichAuditTrail(auditTrail);
+            auditEventEnricher.enrich(auditTrail, AuditRequestSnapshot.capture());
             auditTrailRepository.save(auditTrail);
             log.debug("Audit trail logged: {} by {}", auditTrail.getActionDescription(), auditTrail.getUserEmail());
         } catch (Exception e) {
@@ -62,53 +70,90 @@ public class AuditTrailServiceImpl implements AuditTrailService {
     }
 
     @Override
-    @Async("auditExecutor")
-    @Transactional(propagation = Propagation.REQUIRES_NEW) // Independent transaction for async
+    @Transactional(propagation = Propagation.SUPPORTS) // Only enqueues; the batch writer owns the insert transaction
     public void logAuditAsync(AuditTrail auditTrail) {
+        logAuditAsync(auditTrail, null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logAuditAsync(AuditTrail auditTrail, Consumer<AuditTrail> deferredWork) {
         try {
-            enrichAuditTrail(auditTrail);
-            auditTrailRepository.save(auditTrail);
-            log.debug("Audit trail logged asynchronously: {} by {}", auditTrail.getActionDescription(), auditTrail.getUserEmail());
+            // Only the request snapshot is taken here; enrichment and deferred work run on the writer thread
+            if (auditBatchWriter.submit(new PendingAudit(auditTrail, AuditRequestSnapshot.capture(), deferredWork))) {
+                log.debug("Audit trail queued: {} {}", auditTrail.getActionType(), auditTrail.getResourceType());
+            }
         } catch (Exception e) {
-            log.error("Failed to log audit trail asynchronously: {}", e.getMessage(), e);
-            // Could implement retry logic or dead letter queue here
+            log.error("Failed to queue audit trail: {}", e.getMessage(), e);
         }
     }
 
     @Override
     @Transactional(readOnly = true)
-    public AuditTrailPageResponse getAllAuditTrails(int page, int size) {
+    public AuditTrailPageResponse getAllAuditTrails(int page, int size, CountMode countMode) {
         Pageable pageable = createPageable(page, size);
-        Page<AuditTrail> auditPage = auditTrailRepository.findAllOrderByTimestampDesc(pageable);
-        return auditTrailMapper.toAuditTrailPageResponse(auditPage);
+        Slice<AuditTrailSummaryView> auditPage = auditTrailRepository.findAllOrderByTimestampDesc(pageable);
+        return auditTrailMapper.toAuditTrailPageResponse(pageCounter.count(auditPage, countMode,
+                PageCounter.key("audit.all"), auditTrailRepository::count, auditTrailRepository::estimateRowCount));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public AuditTrailPageResponse searchAuditTrails(AuditSearchRequest searchRequest, int page, int size) {
-        Pageable pageable = createPageable(page, size);
+    public AuditTrailPageResponse searchAuditTrails(AuditSearchRequest searchRequest, int page, int size,
+                                                    CountMode countMode) {
+        Pageable pageable = createPageable(page, size, NEWEST_FIRST);
+        Specification<AuditTrail> filters = AuditTrailSpecifications.matching(
+                searchRequest, startOf(searchRequest.getStartDate()), endOf(searchRequest.getEndDate()));
+
+        Slice<AuditTrailSummaryView> auditPage = auditTrailRepository.findSummaries(filters, pageable);
+
+        // Filtered: planner statistics would describe the whole table, so ESTIMATED falls back to a cached count
+        String cacheKey = PageCounter.key("audit.search", PageCounter.ignoreCase(searchRequest.getUserEmail()),
+                PageCounter.ignoreCase(searchRequest.getUserName()), searchRequest.getActionType(),
+                searchRequest.getResourceType(), searchRequest.getStatus(), searchRequest.getStartDate(),
+                searchRequest.getEndDate(), PageCounter.ignoreCase(searchRequest.getSearchTerm()));
+        return auditTrailMapper.toAuditTrailPageResponse(pageCounter.count(auditPage, countMode, cacheKey,
+                () -> auditTrailRepository.count(filters), null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditTrailCursorResponse getAuditTrailsAfter(String cursor, int size, boolean includeTotal) {
+        AuditCursor position = AuditCursor.decode(cursor);
+        int pageSize = validatePageSize(size);
+
+        List<AuditTrailSummaryView> rows = auditTrailRepository.findPageAfter(
+                position.initiatedTimestamp(), position.id(), PageRequest.of(0, pageSize + 1));
+
+        Long total = includeTotal ? auditTrailRepository.estimateRowCount() : null;
+        return auditTrailMapper.toAuditTrailCursorResponse(rows, pageSize, total, true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditTrailCursorResponse searchAuditTrailsAfter(AuditSearchRequest searchRequest, String cursor, int size,
+                                                           boolean includeTotal) {
+        AuditCursor position = AuditCursor.decode(cursor);
+        int pageSize = validatePageSize(size);
+        Specification<AuditTrail> filters = AuditTrailSpecifications.matching(
+                searchRequest, startOf(searchRequest.getStartDate()), endOf(searchRequest.getEndDate()));
 
-        Page<AuditTrail> auditPage = auditTrailRepository.findWithFilters(
-                searchRequest.getUserEmail(),
-                searchRequest.getUserName(),
-                searchRequest.getActionType(),
-                searchRequest.getResourceType(),
-                searchRequest.getStatus(),
-                searchRequest.getStartDate(),
-                searchRequest.getEndDate(),
-                searchRequest.getSearchTerm(),
-                pageable
-        );
-
-        return auditTrailMapper.toAuditTrailPageResponse(auditPage);
+        // One extra row tells whether a next page exists; no count query unless asked for
+        List<AuditTrailSummaryView> rows = auditTrailRepository.findSummaries(
+                filters.and(AuditTrailSpecifications.before(position.initiatedTimestamp(), position.id())),
+                KEYSET_ORDER, pageSize + 1);
+
+        Long total = includeTotal ? auditTrailRepository.count(filters) : null;
+        return auditTrailMapper.toAuditTrailCursorResponse(rows, pageSize, total, false);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public AuditTrailPageResponse getUserAuditTrails(String userEmail, int page, int size) {
+    public AuditTrailPageResponse getUserAuditTrails(String userEmail, int page, int size, CountMode countMode) {
         Pageable pageable = createPageable(page, size);
-        Page<AuditTrail> auditPage = auditTrailRepository.findByUserEmail(userEmail, pageable);
-        return auditTrailMapper.toAuditTrailPageResponse(auditPage);
+        Slice<AuditTrailSummaryView> auditPage = auditTrailRepository.findByUserEmail(userEmail, pageable);
+        return auditTrailMapper.toAuditTrailPageResponse(pageCounter.count(auditPage, countMode,
+                PageCounter.key("audit.user", userEmail), () -> auditTrailRepository.countByUserEmail(userEmail), null));
     }
 
     @Override
@@ -124,6 +169,7 @@ public class AuditTrailServiceImpl implements AuditTrailService {
         LocalDateTime now = LocalDateTime.now();
 
         return AuditTrail.builder()
+                .eventId(UUID.randomUUID().toString())
                 .initiatedTimestamp(now)
                 .initiatedDate(now.toLocalDate())
                 .initiatedTime(now.toLocalTime())
@@ -154,151 +200,25 @@ public class AuditTrailServiceImpl implements AuditTrailService {
         logAuditAsync(originalAudit);
     }
 
-    private void enrichAuditTrail(AuditTrail auditTrail) {
-        // Set request information first
-        setRequestInformation(auditTrail);
-
-        // Only try to set user information from security context if not already set by aspect
-        // and if it's not a login operation with ANONYMOUS user
-        if (shouldSetUserInfoFromContext(auditTrail)) {
-            setUserInformation(auditTrail);
-        }
-
-        if (auditTrail.getInitiatedTimestamp() == null) {
-            auditTrail.setTimestamps(LocalDateTime.now());
-        }
+    static LocalDateTime startOf(LocalDate startDate) {
+        return startDate != null ? startDate.atStartOfDay() : MIN_TIMESTAMP;
     }
 
     /**
-     * IMPROVED: Check if we should set user info from security context
+     * End dates are inclusive in the API, so the bound is the start of the following day
      */
-    private boolean shouldSetUserInfoFromContext(AuditTrail auditTrail) {
-        // Don't override user info that was already set by the aspect
-        if (auditTrail.getUserEmail() != null &&
-                !auditTrail.getUserEmail().trim().isEmpty() &&
-                !"unknown".equals(auditTrail.getUserEmail())) {
-            return false;
-        }
-
-        // Don't try to get user info from context for login operations
-        if (isLoginOperation(auditTrail)) {
-            // Ensure login operations have proper fallback values
-            if (auditTrail.getUserEmail() == null ||
-                    auditTrail.getUserEmail().trim().isEmpty() ||
-                    "unknown".equals(auditTrail.getUserEmail())) {
-                auditTrail.setUserEmail("ANONYMOUS");
-                auditTrail.setUserName("Anonymous User");
-                auditTrail.setUserRole("UNAUTHENTICATED");
-            }
-            return false;
-        }
-
-        return true;
+    static LocalDateTime endOf(LocalDate endDate) {
+        return endDate != null ? endDate.plusDays(1).atStartOfDay() : MAX_TIMESTAMP;
     }
 
-    /**
-     * Check if this is a login operation
-     */
-    private boolean isLoginOperation(AuditTrail auditTrail) {
-        return auditTrail.getActionType() == LOGIN ||
-                auditTrail.getActionType() == VERIFY ||
-                auditTrail.getResourceType() == AUTHENTICATION;
-    }
-
-    private void setUserInformation(AuditTrail auditTrail) {
-        try {
-            if (securityContextService.isAuthenticated()) {
-                String userEmail = securityContextService.getAuthenticatedUserEmailSafely();
-                if (userEmail != null) {
-                    auditTrail.setUserEmail(userEmail);
-
-                    Authentication auth = securityContextService.getCurrentAuthentication();
-                    if (auth != null) {
-                        Optional<String> role = auth.getAuthorities().stream()
-                                .map(GrantedAuthority::getAuthority)
-                                .filter(authority -> authority.startsWith("ROLE_"))
-                                .map(authority -> authority.substring(5))
-                                .findFirst();
-
-                        role.ifPresent(auditTrail::setUserRole);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Could not set user information for audit trail: {}", e.getMessage());
-            // Set fallback values if no user info available
-            if (auditTrail.getUserEmail() == null || auditTrail.getUserEmail().trim().isEmpty()) {
-                auditTrail.setUserEmail("SYSTEM");
-                auditTrail.setUserRole("SYSTEM");
-            }
-        }
-    }
-
-    private void setRequestInformation(AuditTrail auditTrail) {
-        try {
-            ServletRequestAttributes requestAttributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-
-            if (requestAttributes != null) {
-                HttpServletRequest request = requestAttributes.getRequest();
-
-                auditTrail.setEndpoint(request.getRequestURI());
-                auditTrail.setHttpMethod(request.getMethod());
-
-                // FIXED: Better IP address handling
-                String clientIp = getClientIpAddress(request);
-                auditTrail.setIpAddress(clientIp); // Uses the custom setter with validation
-
-                auditTrail.setUserAgent(request.getHeader("User-Agent"));
-                auditTrail.setSessionId(request.getSession(false) != null ?
-                        request.getSession().getId() : null);
-            }
-        } catch (Exception e) {
-            log.debug("Could not set request information for audit trail: {}", e.getMessage());
-        }
-    }
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        String[] headerNames = {
-                "X-Forwarded-For", "X-Real-IP", "Proxy-Client-IP",
-                "WL-Proxy-Client-IP", "HTTP_X_FORWARDED_FOR",
-                "HTTP_X_FORWARDED", "HTTP_X_CLUSTER_CLIENT_IP",
-                "HTTP_CLIENT_IP", "HTTP_FORWARDED_FOR",
-                "HTTP_FORWARDED", "HTTP_VIA", "REMOTE_ADDR"
-        };
-
-        for (String header : headerNames) {
-            String ip = request.getHeader(header);
-            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
-                if (ip.contains(",")) {
-                    ip = ip.split(",")[0].trim();
-                }
-                // Validate IP address format and length
-                if (isValidIpAddress(ip)) {
-                    return ip;
-                }
-            }
-        }
-
-        String remoteAddr = request.getRemoteAddr();
-        return isValidIpAddress(remoteAddr) ? remoteAddr : "127.0.0.1";
-    }
-
-    private boolean isValidIpAddress(String ip) {
-        if (ip == null || ip.isEmpty()) {
-            return false;
-        }
-
-        // Basic validation - check if it's a reasonable IP address format
-        return ip.length() <= 45 && // Max length for IPv6
-                (ip.matches("^\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}$") || // IPv4 pattern
-                        ip.contains(":") && ip.length() >= 2); // Basic IPv6 pattern
+    private Pageable createPageable(int page, int size) {
+        return createPageable(page, size, Sort.unsorted());
     }
 
-    private Pageable createPageable(int page, int size) {
+    private Pageable createPageable(int page, int size, Sort sort) {
         int springPage = Math.max(0, page - 1);
         int validSize = validatePageSize(size);
-        return PageRequest.of(springPage, validSize);
+        return PageRequest.of(springPage, validSize, sort);
     }
 
     private int validatePageSize(int requestedSize) {
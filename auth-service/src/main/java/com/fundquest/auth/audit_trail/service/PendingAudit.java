@@ -0,0 +1,13 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+
+import java.util.function.Consumer;
+
+/**
+ * An audit event waiting for the writer thread: the trail as built on the request thread,
+ * the request snapshot to enrich it from, and optional deferred work (description rendering,
+ * parameter serialization) to run before it is written.
+ */
+public record PendingAudit(AuditTrail auditTrail, AuditRequestSnapshot request, Consumer<AuditTrail> deferredWork) {
+}
@@ -0,0 +1,393 @@
+package com.fundquest.auth.audit_trail.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, memory-mapped spool for audit events the batch writer could not persist
+ * (queue full or database unavailable).
+ * <p>
+ * Events are JSON records in fixed-size segment files: {@code [int length][payload]}, with a zero
+ * length marking the end of written data. The payload is written before its length, so a record torn
+ * by a crash is simply not visible. A separate cursor file remembers how far the replayer has drained;
+ * fully drained segments are deleted. Appends are memory copies into the mapped segment and never wait
+ * on disk; pages are forced to disk by the replayer and on shutdown.
+ * <p>
+ * Appends hold a lock of their own for the copy only. Forcing pages, moving the cursor and deleting drained
+ * segments run outside it, and the replayer maps the next segment ahead of time so a full segment rolls over
+ * without creating a file on the appending thread.
+ * <p>
+ * Events that can never be written (unreadable records, rows the database rejects on their own) are
+ * moved to {@code dead-letter.ndjson} in the same directory so they cannot hold back the events behind them.
+ */
+@Component
+@Slf4j
+public class AuditSpool {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CURSOR_FILE = "replay.cursor";
+    private static final String DEAD_LETTER_FILE = "dead-letter.ndjson";
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int CURSOR_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Path deadLetterFile;
+    private final int segmentSize;
+
+    private final Object appendLock = new Object();
+    private final Object deadLetterLock = new Object();
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    // Full segments whose pages have not been forced yet
+    private final Queue<MappedByteBuffer> sealedBuffers = new ConcurrentLinkedQueue<>();
+
+    // Guarded by appendLock
+    private long writeSegmentId;
+    private MappedByteBuffer writeBuffer;
+    private MappedByteBuffer spareBuffer;
+    private long spareSegmentId;
+
+    // Replay state, guarded by this
+    private long readSegmentId;
+    private int readOffset;
+    private MappedByteBuffer cursorBuffer;
+
+    public AuditSpool(ObjectMapper objectMapper,
+                      @Value("${spring.audit.spool.directory}") String directory,
+                      @Value("${spring.audit.spool.segment-size-bytes:8388608}") int segmentSize) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+        this.deadLetterFile = this.directory.resolve(DEAD_LETTER_FILE);
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Fails startup when the directory cannot be written: spooled events must survive a restart,
+     * so the spool has to live on persistent storage rather than fall back to a temporary location
+     */
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        if (!Files.isWritable(directory)) {
+            throw new IllegalStateException("Audit spool directory is not writable: " + directory.toAbsolutePath());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(path -> segments.put(segmentId(path), path));
+        }
+
+        cursorBuffer = map(directory.resolve(CURSOR_FILE), CURSOR_BYTES);
+        readSegmentId = cursorBuffer.getLong(0);
+        readOffset = cursorBuffer.getInt(Long.BYTES);
+
+        synchronized (appendLock) {
+            if (segments.isEmpty()) {
+                writeSegmentId = 0;
+                rollSegment();
+            } else {
+                writeSegmentId = segments.lastKey();
+                writeBuffer = map(segments.lastEntry().getValue(), segmentSize);
+                writeBuffer.position(endOfRecords(writeBuffer));
+            }
+        }
+        synchronized (this) {
+            if (!segments.containsKey(readSegmentId)) {
+                readSegmentId = segments.firstKey();
+                readOffset = 0;
+            }
+        }
+        log.info("Audit spool opened at {} ({} segments)", directory, segments.size());
+    }
+
+    @PreDestroy
+    void close() {
+        force();
+    }
+
+    /**
+     * Append an event; a memory copy into the current mapped segment
+     * @return false if the event could not be spooled
+     */
+    public boolean append(AuditTrail auditTrail) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(auditTrail);
+            int recordSize = LENGTH_BYTES + payload.length;
+            // Always leave room for the zero length that terminates the segment
+            if (recordSize + LENGTH_BYTES > segmentSize) {
+                log.warn("Audit event of {} bytes exceeds spool segment size, dropping it", payload.length);
+                return false;
+            }
+            synchronized (appendLock) {
+                if (writeBuffer.remaining() < recordSize + LENGTH_BYTES) {
+                    rollSegment();
+                }
+
+                int position = writeBuffer.position();
+                writeBuffer.put(position + LENGTH_BYTES, payload);
+                writeBuffer.putInt(position, payload.length);
+                writeBuffer.position(position + recordSize);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to spool audit event: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        synchronized (appendLock) {
+            return readSegmentId == writeSegmentId && readOffset >= writeBuffer.position();
+        }
+    }
+
+    /**
+     * Read up to {@code maxEvents} events from the replay cursor without consuming them.
+     * Records that no longer deserialize are returned separately and dead-lettered by {@link #commit(SpoolBatch)}.
+     */
+    public synchronized SpoolBatch peek(int maxEvents) {
+        List<AuditTrail> events = new ArrayList<>(Math.min(maxEvents, 256));
+        List<byte[]> unreadable = new ArrayList<>();
+        long segmentId = readSegmentId;
+        int offset = readOffset;
+
+        // Records appended after this snapshot are left for the next peek
+        long lastSegmentId;
+        ByteBuffer lastBuffer;
+        int lastPosition;
+        synchronized (appendLock) {
+            lastSegmentId = writeSegmentId;
+            lastBuffer = writeBuffer.duplicate();
+            lastPosition = writeBuffer.position();
+        }
+
+        try {
+            while (events.size() + unreadable.size() < maxEvents) {
+                boolean last = segmentId == lastSegmentId;
+                ByteBuffer buffer = last ? lastBuffer : readOnly(segmentId);
+                int limit = last ? lastPosition : segmentSize;
+                int length = offset + LENGTH_BYTES <= limit ? buffer.getInt(offset) : 0;
+                if (length > 0 && offset + LENGTH_BYTES + length <= limit) {
+                    byte[] payload = new byte[length];
+                    buffer.get(offset + LENGTH_BYTES, payload);
+                    try {
+                        events.add(objectMapper.readValue(payload, AuditTrail.class));
+                    } catch (IOException e) {
+                        log.error("Unreadable audit spool record in segment {} at offset {}: {}",
+                                segmentId, offset, e.getMessage());
+                        unreadable.add(payload);
+                    }
+                    offset += LENGTH_BYTES + length;
+                    continue;
+                }
+                if (length != 0) {
+                    // A corrupt length leaves no way to find the next record; the rest of the segment is skipped
+                    log.error("Corrupt audit spool record length {} in segment {} at offset {}", length, segmentId, offset);
+                }
+                // End of a sealed segment: continue with the next one
+                Map.Entry<Long, Path> next = segments.higherEntry(segmentId);
+                if (last || next == null) {
+                    break;
+                }
+                segmentId = next.getKey();
+                offset = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit spool", e);
+        }
+        return new SpoolBatch(events, unreadable, segmentId, offset);
+    }
+
+    /**
+     * Append an event that can never be written to the dead-letter file
+     * @return false if the dead letter could not be written
+     */
+    public boolean deadLetter(AuditTrail auditTrail) {
+        try {
+            appendDeadLetter(objectMapper.writeValueAsBytes(auditTrail));
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to dead-letter audit event {}: {}", auditTrail.getEventId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Move the replay cursor past a batch that has been written to the database, dead-lettering its unreadable
+     * records, and delete segments that are now fully drained
+     * @throws UncheckedIOException if the unreadable records could not be dead-lettered; the cursor does not move
+     */
+    public synchronized void commit(SpoolBatch batch) {
+        for (byte[] payload : batch.unreadable()) {
+            try {
+                // Kept as base64: a damaged payload is not necessarily valid JSON or free of line breaks
+                appendDeadLetter(objectMapper.writeValueAsBytes(
+                        Map.of("unreadable", Base64.getEncoder().encodeToString(payload))));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to dead-letter unreadable audit spool record", e);
+            }
+        }
+
+        readSegmentId = batch.segmentId();
+        readOffset = batch.nextOffset();
+        cursorBuffer.putLong(0, readSegmentId);
+        cursorBuffer.putInt(Long.BYTES, readOffset);
+        cursorBuffer.force();
+
+        while (!segments.isEmpty() && segments.firstKey() < readSegmentId) {
+            Path drained = segments.pollFirstEntry().getValue();
+            try {
+                Files.deleteIfExists(drained);
+            } catch (IOException e) {
+                log.warn("Failed to delete drained audit spool segment {}: {}", drained, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flush written pages to disk: full segments not yet forced, then the written part of the current one.
+     * Appends continue while the pages are forced.
+     */
+    public void force() {
+        MappedByteBuffer current;
+        int written;
+        synchronized (appendLock) {
+            if (writeBuffer == null) {
+                return;
+            }
+            current = writeBuffer.duplicate();
+            written = writeBuffer.position();
+        }
+
+        MappedByteBuffer sealed;
+        while ((sealed = sealedBuffers.poll()) != null) {
+            sealed.force();
+        }
+        if (written > 0) {
+            current.force(0, written);
+        }
+    }
+
+    /**
+     * Create and map the segment the next roll-over will write to, so appends never create files themselves
+     */
+    public void prepareNextSegment() {
+        long nextSegmentId;
+        synchronized (appendLock) {
+            if (spareBuffer != null || writeBuffer == null) {
+                return;
+            }
+            nextSegmentId = writeSegmentId + 1;
+        }
+
+        MappedByteBuffer prepared;
+        try {
+            prepared = map(segmentPath(nextSegmentId), segmentSize);
+        } catch (IOException e) {
+            log.warn("Failed to prepare audit spool segment {}: {}", nextSegmentId, e.getMessage());
+            return;
+        }
+        synchronized (appendLock) {
+            // If an append rolled over in the meantime, the file is already in use as that segment
+            if (writeSegmentId + 1 == nextSegmentId) {
+                spareBuffer = prepared;
+                spareSegmentId = nextSegmentId;
+            }
+        }
+    }
+
+    private void appendDeadLetter(byte[] payload) throws IOException {
+        synchronized (deadLetterLock) {
+            try (FileChannel channel = FileChannel.open(deadLetterFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(payload));
+                channel.write(ByteBuffer.wrap(LINE_SEPARATOR));
+                channel.force(false);
+            }
+        }
+    }
+
+    // Called with appendLock held; the previous segment is forced later by force()
+    private void rollSegment() throws IOException {
+        if (writeBuffer != null) {
+            sealedBuffers.add(writeBuffer);
+        }
+        writeSegmentId++;
+        if (spareBuffer != null && spareSegmentId == writeSegmentId) {
+            writeBuffer = spareBuffer;
+        } else {
+            writeBuffer = map(segmentPath(writeSegmentId), segmentSize);
+        }
+        spareBuffer = null;
+        segments.put(writeSegmentId, segmentPath(writeSegmentId));
+    }
+
+    private Path segmentPath(long segmentId) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+    }
+
+    private ByteBuffer readOnly(long segmentId) throws IOException {
+        try (FileChannel channel = FileChannel.open(segments.get(segmentId), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private int endOfRecords(ByteBuffer buffer) {
+        int offset = 0;
+        while (offset + LENGTH_BYTES <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + LENGTH_BYTES + length > segmentSize) {
+                break;
+            }
+            offset += LENGTH_BYTES + length;
+        }
+        return offset;
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Events read from the spool, records that could not be read, and the cursor position just after them
+     */
+    public record SpoolBatch(List<AuditTrail> events, List<byte[]> unreadable, long segmentId, int nextOffset) {
+
+        public boolean isEmpty() {
+            return events.isEmpty() && unreadable.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.fundquest.auth.audit_trail.spool;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.audit_trail.service.AuditBatchWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drains the audit spool into audit_trail_tbl in append order once the database accepts writes again.
+ * The cursor only advances after a batch commits; if the process dies in between, the batch is
+ * replayed; events already in the table are filtered out first, so they are neither inserted nor counted
+ * in the stats twice. Events the database rejects on their
+ * own and records that no longer deserialize are dead-lettered so the cursor can move past them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditSpoolReplayer {
+
+    private final AuditSpool auditSpool;
+    private final AuditBatchWriter auditBatchWriter;
+
+    @Value("${spring.audit.writer.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${spring.audit.spool.replay-interval-ms:5000}")
+    public void replay() {
+        auditSpool.force();
+        auditSpool.prepareNextSegment();
+        if (auditSpool.isEmpty()) {
+            return;
+        }
+
+        int replayed = 0;
+        int deadLettered = 0;
+        try {
+            AuditSpool.SpoolBatch batch = auditSpool.peek(batchSize);
+            while (!batch.isEmpty()) {
+                List<AuditTrail> pending = auditBatchWriter.withoutPersisted(batch.events());
+                List<AuditTrail> rejected = auditBatchWriter.insertIsolatingRejects(pending);
+                for (AuditTrail auditTrail : rejected) {
+                    if (!auditSpool.deadLetter(auditTrail)) {
+                        throw new IllegalStateException("dead letter file not writable");
+                    }
+                }
+                auditSpool.commit(batch);
+                replayed += pending.size() - rejected.size();
+                deadLettered += rejected.size() + batch.unreadable().size();
+                batch = auditSpool.peek(batchSize);
+            }
+        } catch (Exception e) {
+            // Database still unavailable; the cursor has not moved, retry on the next run
+            log.warn("Audit spool replay paused after {} events ({} dead-lettered): {}",
+                    replayed, deadLettered, e.getMessage());
+            return;
+        }
+        log.info("Replayed {} spooled audit events", replayed);
+        if (deadLettered > 0) {
+            log.error("Moved {} spooled audit events to the dead-letter file", deadLettered);
+        }
+    }
+}
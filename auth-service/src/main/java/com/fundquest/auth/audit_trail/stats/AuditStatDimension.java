@@ -0,0 +1,21 @@
+package com.fundquest.auth.audit_trail.stats;
+
+/**
+ * Dimensions audit statistics can be grouped by, mapped to their rollup column
+ */
+public enum AuditStatDimension {
+    ACTION_TYPE("action_type"),
+    RESOURCE_TYPE("resource_type"),
+    STATUS("status"),
+    USER("user_email");
+
+    private final String column;
+
+    AuditStatDimension(String column) {
+        this.column = column;
+    }
+
+    String column() {
+        return column;
+    }
+}
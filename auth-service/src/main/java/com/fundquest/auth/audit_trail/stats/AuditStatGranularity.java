@@ -0,0 +1,9 @@
+package com.fundquest.auth.audit_trail.stats;
+
+/**
+ * Bucket size of an audit stats timeline
+ */
+public enum AuditStatGranularity {
+    HOUR,
+    DAY
+}
@@ -0,0 +1,90 @@
+package com.fundquest.auth.audit_trail.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Nightly upkeep of the audit rollups, one day at a time over the last {@code verify-days} complete days:
+ * verify the hourly buckets against audit_trail_tbl (rebuilding any day that drifted, e.g. because rows were
+ * written or deleted outside the batch writer), then compact the day into the daily table.
+ * Finally hourly buckets older than {@code hourly-retention-days} are purged.
+ */
+@Component
+@Slf4j
+public class AuditStatsMaintenanceJob {
+
+    private static final long MAINTENANCE_LOCK_KEY = 0x41554449545354L; // "AUDITST"
+
+    private final AuditStatsRepository auditStatsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int verifyDays;
+    private final int hourlyRetentionDays;
+    private final Counter mismatchedBuckets;
+
+    public AuditStatsMaintenanceJob(AuditStatsRepository auditStatsRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${spring.audit.stats.verify-days:2}") int verifyDays,
+                                    @Value("${spring.audit.stats.hourly-retention-days:30}") int hourlyRetentionDays) {
+        this.auditStatsRepository = auditStatsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.verifyDays = verifyDays;
+        this.hourlyRetentionDays = hourlyRetentionDays;
+        this.mismatchedBuckets = Counter.builder("audit.stats.reconcile.mismatches")
+                .description("Hourly audit rollup buckets that differed from audit_trail_tbl and were rebuilt")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${spring.audit.stats.maintenance-cron:0 30 0 * * *}")
+    public void maintainRollups() {
+        LocalDate today = LocalDate.now();
+        for (int i = verifyDays; i >= 1; i--) {
+            LocalDate day = today.minusDays(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!tryLock()) {
+                        return;
+                    }
+                    int mismatches = auditStatsRepository.reconcileHourly(
+                            day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                    if (mismatches > 0) {
+                        mismatchedBuckets.increment(mismatches);
+                        log.warn("Audit stats for {} differed from audit_trail_tbl in {} buckets; rebuilt", day, mismatches);
+                    }
+                    auditStatsRepository.compactDay(day);
+                });
+            } catch (Exception e) {
+                log.error("Audit stats maintenance failed for {}: {}", day, e.getMessage(), e);
+            }
+        }
+
+        try {
+            Integer purged = transactionTemplate.execute(status -> tryLock()
+                    ? auditStatsRepository.purgeHourlyBefore(today.minusDays(hourlyRetentionDays).atStartOfDay())
+                    : 0);
+            log.debug("Purged {} hourly audit stats buckets", purged);
+        } catch (Exception e) {
+            log.error("Audit stats hourly purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Transaction-scoped lock so only one instance maintains the rollups
+     */
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY));
+    }
+}
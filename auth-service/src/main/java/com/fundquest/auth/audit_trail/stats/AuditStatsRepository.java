@@ -0,0 +1,192 @@
+package com.fundquest.auth.audit_trail.stats;
+
+import com.fundquest.auth.audit_trail.dto.response.AuditStatBucketResponse;
+import com.fundquest.auth.audit_trail.dto.response.AuditStatCountResponse;
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and maintains the audit rollup tables (V9 migration).
+ * <p>
+ * Hourly buckets are incremented on ingest. Complete days are compacted into the daily table, and
+ * queries read the daily table up to the last compacted day and hourly buckets after it, so a dashboard
+ * query touches at most one row per (day, dimension) however many raw events there are.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditStatsRepository {
+
+    private static final String INCREMENT_HOURLY_SQL = "INSERT INTO audit_stats_hourly_tbl " +
+            "(bucket_start, action_type, resource_type, status, user_email, event_count) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (bucket_start, action_type, resource_type, status, user_email) " +
+            "DO UPDATE SET event_count = audit_stats_hourly_tbl.event_count + EXCLUDED.event_count";
+
+    // First day not yet compacted; daily rows answer everything before it, hourly rows everything from it
+    private static final String SPLIT_CTE = "WITH split AS (" +
+            "SELECT COALESCE(MAX(bucket_date) + 1, DATE '1970-01-01') AS d FROM audit_stats_daily_tbl) ";
+
+    private static final String RAW_HOURLY_SELECT = "SELECT date_trunc('hour', initiated_timestamp) AS bucket_start, " +
+            "action_type, COALESCE(resource_type, '') AS resource_type, status, COALESCE(user_email, '') AS user_email, " +
+            "COUNT(*) AS event_count FROM audit_trail_tbl " +
+            "WHERE initiated_timestamp >= ? AND initiated_timestamp < ? GROUP BY 1, 2, 3, 4, 5";
+
+    private static final Comparator<HourlyKey> LOCK_ORDER = Comparator.comparing(HourlyKey::bucketStart)
+            .thenComparing(HourlyKey::actionType)
+            .thenComparing(HourlyKey::resourceType)
+            .thenComparing(HourlyKey::status)
+            .thenComparing(HourlyKey::userEmail);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add a batch of events to their hourly buckets; call in the transaction that inserts the events
+     */
+    public void increment(List<AuditTrail> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<HourlyKey, long[]> counts = new HashMap<>();
+        for (AuditTrail audit : batch) {
+            counts.computeIfAbsent(HourlyKey.of(audit), key -> new long[1])[0]++;
+        }
+
+        // Upserting in a fixed key order keeps the writer and the spool replayer from deadlocking
+        List<HourlyKey> keys = new ArrayList<>(counts.keySet());
+        keys.sort(LOCK_ORDER);
+        jdbcTemplate.batchUpdate(INCREMENT_HOURLY_SQL, keys, keys.size(), (ps, key) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(key.bucketStart()));
+            ps.setString(2, key.actionType());
+            ps.setString(3, key.resourceType());
+            ps.setString(4, key.status());
+            ps.setString(5, key.userEmail());
+            ps.setLong(6, counts.get(key)[0]);
+        });
+    }
+
+    /**
+     * Event counts per value of a dimension for days [from, to), largest first
+     */
+    public List<AuditStatCountResponse> countBy(AuditStatDimension dimension, LocalDate from, LocalDate to, int limit) {
+        String column = dimension.column();
+        String sql = SPLIT_CTE +
+                "SELECT dim, SUM(event_count) AS total FROM (" +
+                "SELECT " + column + " AS dim, event_count FROM audit_stats_daily_tbl, split " +
+                "WHERE bucket_date >= ? AND bucket_date < LEAST(?, split.d) " +
+                "UNION ALL " +
+                "SELECT " + column + " AS dim, event_count FROM audit_stats_hourly_tbl, split " +
+                "WHERE bucket_start >= GREATEST(?, CAST(split.d AS TIMESTAMP)) AND bucket_start < ?" +
+                ") s GROUP BY dim ORDER BY total DESC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> AuditStatCountResponse.builder()
+                        .key(emptyToNull(rs.getString("dim")))
+                        .count(rs.getLong("total"))
+                        .build(),
+                from, to, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()), limit);
+    }
+
+    /**
+     * Event counts per day for days [from, to)
+     */
+    public List<AuditStatBucketResponse> countPerDay(LocalDate from, LocalDate to) {
+        String sql = SPLIT_CTE +
+                "SELECT bucket, SUM(event_count) AS total FROM (" +
+                "SELECT bucket_date AS bucket, event_count FROM audit_stats_daily_tbl, split " +
+                "WHERE bucket_date >= ? AND bucket_date < LEAST(?, split.d) " +
+                "UNION ALL " +
+                "SELECT CAST(bucket_start AS DATE) AS bucket, event_count FROM audit_stats_hourly_tbl, split " +
+                "WHERE bucket_start >= GREATEST(?, CAST(split.d AS TIMESTAMP)) AND bucket_start < ?" +
+                ") s GROUP BY bucket ORDER BY bucket";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> AuditStatBucketResponse.builder()
+                        .bucketStart(rs.getDate("bucket").toLocalDate().atStartOfDay())
+                        .count(rs.getLong("total"))
+                        .build(),
+                from, to, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+    }
+
+    /**
+     * Event counts per hour for [from, to); limited to hours still kept in the hourly table
+     */
+    public List<AuditStatBucketResponse> countPerHour(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("SELECT bucket_start, SUM(event_count) AS total FROM audit_stats_hourly_tbl " +
+                        "WHERE bucket_start >= ? AND bucket_start < ? GROUP BY bucket_start ORDER BY bucket_start",
+                (rs, rowNum) -> AuditStatBucketResponse.builder()
+                        .bucketStart(rs.getTimestamp("bucket_start").toLocalDateTime())
+                        .count(rs.getLong("total"))
+                        .build(),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Compare hourly buckets in [from, to) with a fresh aggregation of audit_trail_tbl and rebuild them on mismatch
+     * @return number of buckets that differed (0 means the rollup matched the raw table)
+     */
+    public int reconcileHourly(LocalDateTime from, LocalDateTime to) {
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        Integer mismatches = jdbcTemplate.queryForObject("WITH raw AS (" + RAW_HOURLY_SELECT + "), " +
+                        "rollup AS (SELECT bucket_start, action_type, resource_type, status, user_email, event_count " +
+                        "FROM audit_stats_hourly_tbl WHERE bucket_start >= ? AND bucket_start < ?) " +
+                        "SELECT COUNT(*) FROM raw FULL OUTER JOIN rollup " +
+                        "USING (bucket_start, action_type, resource_type, status, user_email) " +
+                        "WHERE raw.event_count IS DISTINCT FROM rollup.event_count",
+                Integer.class, start, end, start, end);
+
+        if (mismatches != null && mismatches > 0) {
+            jdbcTemplate.update("DELETE FROM audit_stats_hourly_tbl WHERE bucket_start >= ? AND bucket_start < ?",
+                    start, end);
+            jdbcTemplate.update("INSERT INTO audit_stats_hourly_tbl " +
+                    "(bucket_start, action_type, resource_type, status, user_email, event_count) " +
+                    RAW_HOURLY_SELECT, start, end);
+        }
+        return mismatches != null ? mismatches : 0;
+    }
+
+    /**
+     * Replace a day's daily rows with the sum of its hourly buckets; safe to repeat
+     */
+    public void compactDay(LocalDate day) {
+        jdbcTemplate.update("DELETE FROM audit_stats_daily_tbl WHERE bucket_date = ?", day);
+        jdbcTemplate.update("INSERT INTO audit_stats_daily_tbl " +
+                        "(bucket_date, action_type, resource_type, status, user_email, event_count) " +
+                        "SELECT CAST(bucket_start AS DATE), action_type, resource_type, status, user_email, SUM(event_count) " +
+                        "FROM audit_stats_hourly_tbl WHERE bucket_start >= ? AND bucket_start < ? " +
+                        "GROUP BY 1, 2, 3, 4, 5",
+                Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Delete hourly buckets before the cutoff that are already covered by the daily table
+     */
+    public int purgeHourlyBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(SPLIT_CTE + "DELETE FROM audit_stats_hourly_tbl USING split " +
+                "WHERE bucket_start < LEAST(?, CAST(split.d AS TIMESTAMP))", Timestamp.valueOf(cutoff));
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private record HourlyKey(LocalDateTime bucketStart, String actionType, String resourceType, String status,
+                             String userEmail) {
+
+        static HourlyKey of(AuditTrail audit) {
+            return new HourlyKey(
+                    audit.getInitiatedTimestamp().truncatedTo(ChronoUnit.HOURS),
+                    audit.getActionType().name(),
+                    audit.getResourceType() != null ? audit.getResourceType().name() : "",
+                    audit.getStatus().name(),
+                    audit.getUserEmail() != null ? audit.getUserEmail() : "");
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.fundquest.auth.audit_trail.stream;
+
+import com.fundquest.auth.audit_trail.dto.response.AuditTrailSummaryResponse;
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.audit_trail.mapper.AuditTrailMapper;
+import com.fundquest.auth.audit_trail.repository.AuditTrailRepository;
+import com.fundquest.auth.audit_trail.repository.AuditTrailSpecifications;
+import com.fundquest.auth.audit_trail.repository.AuditTrailSummaryView;
+import com.fundquest.auth.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pushes newly written audit events to connected Server-Sent Events subscribers.
+ * <p>
+ * A poll thread follows audit_trail_tbl in sequence id order through an {@link AuditTrailTail}, so every
+ * instance streams the rows written by all instances and by spool replays, in the order they commit.
+ * The local batch writer only wakes the poller early to cut latency. With no subscribers the poller parks and stops
+ * querying; the first subscriber wakes it and the tail starts again at the end of the table. New rows are read back as summaries,
+ * matched against every subscriber's filter and appended to that subscriber's bounded buffer; buffers are
+ * written out on sender threads, one drain per subscriber at a time, so neither the writer nor the poller ever
+ * waits on a socket. A subscriber whose buffer fills up is disconnected and resumes with {@code Last-Event-ID}.
+ * <p>
+ * Event ids are resume positions, not row ids: the id sent with a row is the lower of that row's id and the
+ * tail's watermark, so every matching row at or below it has already been sent. Resuming replays the matching
+ * rows above it, which may repeat a few rows; clients de-duplicate on the {@code id} in the event data.
+ */
+@Component
+@Slf4j
+public class AuditEventBroadcaster {
+
+    public static final String EVENT_NAME = "audit";
+    public static final String RESYNC_EVENT_NAME = "resync";
+
+    private static final String METRIC_PREFIX = "audit.stream";
+    private static final int LOOKUP_CHUNK = 1000;
+    private static final Sort REPLAY_ORDER = Sort.by(Sort.Order.asc("id"));
+
+    private final AuditTrailRepository auditTrailRepository;
+    private final AuditTrailMapper auditTrailMapper;
+    private final AuditTrailTail tail;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int replayLimit;
+    private final long timeoutMs;
+    private final long pollIntervalNanos;
+
+    private final Set<AuditStreamSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senderExecutor;
+    private final Counter droppedSubscribers;
+
+    private volatile boolean running;
+    private Thread pollThread;
+
+    public AuditEventBroadcaster(AuditTrailRepository auditTrailRepository,
+                                 AuditTrailMapper auditTrailMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.audit.stream.buffer-size:256}") int bufferSize,
+                                 @Value("${spring.audit.stream.max-subscribers:50}") int maxSubscribers,
+                                 @Value("${spring.audit.stream.replay-limit:500}") int replayLimit,
+                                 @Value("${spring.audit.stream.timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${spring.audit.stream.poll-interval-ms:500}") long pollIntervalMs,
+                                 @Value("${spring.audit.stream.settle-ms:5000}") long settleMs) {
+        this.auditTrailRepository = auditTrailRepository;
+        this.auditTrailMapper = auditTrailMapper;
+        this.tail = new AuditTrailTail(auditTrailRepository, TimeUnit.MILLISECONDS.toNanos(settleMs), LOOKUP_CHUNK);
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.replayLimit = replayLimit;
+        this.timeoutMs = timeoutMs;
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMs);
+
+        // At most one drain per subscriber, so the pool is bounded by max-subscribers
+        this.senderExecutor = Executors.newCachedThreadPool(daemonThreads("audit-stream-sender"));
+
+        this.droppedSubscribers = Counter.builder(METRIC_PREFIX + ".subscribers.dropped")
+                .description("Stream subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".subscribers", subscriptions, Set::size)
+                .description("Connected audit stream subscribers")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        pollThread = new Thread(this::pollLoop, "audit-stream-poller");
+        pollThread.setDaemon(true);
+        pollThread.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(pollThread);
+        pollThread.join(TimeUnit.SECONDS.toMillis(5));
+        subscriptions.forEach(this::drop);
+        senderExecutor.shutdown();
+    }
+
+    /**
+     * Register a subscriber; events are sent from other threads once the returned emitter is handed to Spring MVC
+     * @param resumeAfter event id the client last received, or null to start with live events only
+     * @throws BusinessException if max-subscribers are already connected
+     */
+    public SseEmitter subscribe(AuditStreamFilter filter, Long resumeAfter) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new BusinessException("Too many audit stream subscribers, try again later", "AUDIT_STREAM_LIMIT");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AuditStreamSubscription subscription = new AuditStreamSubscription(emitter, filter, bufferSize);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscription));
+
+        // Registered before the replay query runs, so rows committed in between reach it through the poller
+        subscriptions.add(subscription);
+        LockSupport.unpark(pollThread);
+        senderExecutor.execute(() -> start(subscription, resumeAfter));
+        return emitter;
+    }
+
+    /**
+     * Called after a local batch commits: poll now rather than at the next interval
+     */
+    public void wakeUp() {
+        if (!subscriptions.isEmpty()) {
+            LockSupport.unpark(pollThread);
+        }
+    }
+
+    /**
+     * Parse a Last-Event-ID value
+     * @throws IllegalArgumentException if it is not an id produced by this stream
+     */
+    public static Long parseEventId(String eventId) {
+        if (eventId == null || eventId.isBlank()) {
+            return null;
+        }
+        try {
+            long position = Long.parseLong(eventId.trim());
+            if (position < 0) {
+                throw new NumberFormatException();
+            }
+            return position;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid audit stream event id");
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went away
+     */
+    @Scheduled(fixedDelayString = "${spring.audit.stream.heartbeat-ms:15000}")
+    void heartbeat() {
+        for (AuditStreamSubscription subscription : subscriptions) {
+            enqueue(subscription, new AuditStreamSubscription.Outgoing(null, SseEmitter.event().comment("keep-alive")));
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            if (subscriptions.isEmpty()) {
+                // Rows written while nobody listens are never sent live, so there is no position worth following;
+                // a resuming subscriber gets them through its Last-Event-ID replay
+                tail.reset();
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                // The tail has not moved; the same rows are picked up by the next successful poll
+                log.warn("Audit stream poll failed: {}", e.getMessage());
+            }
+            LockSupport.parkNanos(this, pollIntervalNanos);
+        }
+    }
+
+    private void poll() {
+        List<Long> committed = tail.poll(System.nanoTime());
+        if (committed.isEmpty() || subscriptions.isEmpty()) {
+            return;
+        }
+
+        long watermark = tail.watermark();
+        try {
+            for (int i = 0; i < committed.size(); i += LOOKUP_CHUNK) {
+                List<Long> chunk = committed.subList(i, Math.min(i + LOOKUP_CHUNK, committed.size()));
+                fanOut(auditTrailRepository.findSummariesByIdIn(chunk), watermark);
+            }
+        } catch (RuntimeException e) {
+            // These rows are past the tail now; subscribers get them by resuming from their last event id
+            log.error("Failed to publish {} audit events, disconnecting {} stream subscribers: {}",
+                    committed.size(), subscriptions.size(), e.getMessage());
+            subscriptions.forEach(this::drop);
+            return;
+        }
+        subscriptions.forEach(this::schedule);
+    }
+
+    private void fanOut(List<AuditTrailSummaryView> written, long watermark) {
+        for (AuditTrailSummaryView view : written) {
+            AuditTrailSummaryResponse payload = null;
+            for (AuditStreamSubscription subscription : subscriptions) {
+                if (subscription.isClosed() || !subscription.filter().matches(view)) {
+                    continue;
+                }
+                if (payload == null) {
+                    payload = auditTrailMapper.toAuditTrailSummaryResponse(view);
+                }
+                // Builders are single-use, so each subscriber gets its own around the shared payload
+                SseEmitter.SseEventBuilder event = toEvent(Math.min(view.id(), watermark), payload);
+                if (!subscription.offer(new AuditStreamSubscription.Outgoing(view.id(), event))) {
+                    drop(subscription);
+                }
+            }
+        }
+    }
+
+    private void start(AuditStreamSubscription subscription, Long resumeAfter) {
+        try {
+            Set<Long> replayed = resumeAfter != null ? replay(subscription, resumeAfter) : Set.of();
+            subscription.goLive(replayed);
+            schedule(subscription);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Audit stream subscriber went away during replay: {}", e.getMessage());
+            close(subscription);
+        } catch (RuntimeException e) {
+            log.error("Failed to replay audit events for stream subscriber", e);
+            subscription.close();
+            remove(subscription);
+            subscription.emitter().completeWithError(e);
+        }
+    }
+
+    /**
+     * Send the matching rows above the client's resume position in id order. If more than replay-limit were missed,
+     * nothing is replayed and a resync event tells the client to reload its listing instead.
+     */
+    private Set<Long> replay(AuditStreamSubscription subscription, long resumeAfter) throws IOException {
+        // Everything at or below the watermark had committed before the query below runs
+        long watermark = tail.watermark();
+        Specification<AuditTrail> spec = AuditTrailSpecifications.filters(subscription.filter().toSearchRequest())
+                .and(AuditTrailSpecifications.idAfter(resumeAfter));
+        List<AuditTrailSummaryView> missed = auditTrailRepository.findSummaries(spec, REPLAY_ORDER, replayLimit + 1);
+
+        SseEmitter emitter = subscription.emitter();
+        if (missed.size() > replayLimit) {
+            emitter.send(SseEmitter.event()
+                    .name(RESYNC_EVENT_NAME)
+                    .data("More than " + replayLimit + " audit events were missed; reload the audit trail listing"));
+            return Set.of();
+        }
+
+        Set<Long> replayed = new HashSet<>();
+        for (AuditTrailSummaryView view : missed) {
+            emitter.send(toEvent(Math.min(view.id(), Math.max(watermark, resumeAfter)),
+                    auditTrailMapper.toAuditTrailSummaryResponse(view)));
+            replayed.add(view.id());
+        }
+        return replayed;
+    }
+
+    private void enqueue(AuditStreamSubscription subscription, AuditStreamSubscription.Outgoing outgoing) {
+        if (subscription.offer(outgoing)) {
+            schedule(subscription);
+        } else {
+            drop(subscription);
+        }
+    }
+
+    private void schedule(AuditStreamSubscription subscription) {
+        if (subscription.hasPending() && subscription.tryStartDrain()) {
+            try {
+                senderExecutor.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.endDrain();
+            }
+        }
+    }
+
+    private void drain(AuditStreamSubscription subscription) {
+        try {
+            do {
+                for (AuditStreamSubscription.Outgoing outgoing : subscription.takeAll()) {
+                    if (subscription.isClosed()) {
+                        return;
+                    }
+                    if (!subscription.wasReplayed(outgoing.auditId())) {
+                        subscription.emitter().send(outgoing.event());
+                    }
+                }
+                subscription.endDrain();
+                // Re-check after releasing: an event offered just before endDrain would otherwise wait for the next one
+            } while (subscription.hasPending() && subscription.tryStartDrain());
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Audit stream subscriber went away: {}", e.getMessage());
+            subscription.endDrain();
+            close(subscription);
+        }
+    }
+
+    /**
+     * Disconnect a subscriber that fell behind. Completing may wait on a write in progress, so it runs on a sender thread.
+     */
+    private void drop(AuditStreamSubscription subscription) {
+        if (subscription.isClosed()) {
+            return;
+        }
+        droppedSubscribers.increment();
+        subscription.close();
+        remove(subscription);
+        try {
+            senderExecutor.execute(() -> complete(subscription));
+        } catch (RejectedExecutionException e) {
+            complete(subscription);
+        }
+    }
+
+    private void close(AuditStreamSubscription subscription) {
+        subscription.close();
+        remove(subscription);
+        complete(subscription);
+    }
+
+    private void remove(AuditStreamSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    private static void complete(AuditStreamSubscription subscription) {
+        try {
+            subscription.emitter().complete();
+        } catch (RuntimeException e) {
+            log.debug("Audit stream emitter already completed: {}", e.getMessage());
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(long resumePosition, AuditTrailSummaryResponse payload) {
+        return SseEmitter.event()
+                .id(Long.toString(resumePosition))
+                .name(EVENT_NAME)
+                .data(payload, MediaType.APPLICATION_JSON);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
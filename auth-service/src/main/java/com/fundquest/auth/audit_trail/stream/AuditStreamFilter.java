@@ -0,0 +1,66 @@
+package com.fundquest.auth.audit_trail.stream;
+
+import com.fundquest.auth.audit_trail.dto.request.AuditSearchRequest;
+import com.fundquest.auth.audit_trail.entity.enums.ActionType;
+import com.fundquest.auth.audit_trail.entity.enums.AuditStatus;
+import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
+import com.fundquest.auth.audit_trail.repository.AuditTrailSummaryView;
+
+/**
+ * Search filters of one stream subscriber, evaluated in memory against every published event.
+ * Same semantics as search: substring terms are case-insensitive, enum filters are equality, unset filters match all.
+ */
+public record AuditStreamFilter(
+        String userEmail,
+        String userName,
+        String searchTerm,
+        ActionType actionType,
+        ResourceType resourceType,
+        AuditStatus status
+) {
+
+    public AuditStreamFilter {
+        userEmail = normalize(userEmail);
+        userName = normalize(userName);
+        searchTerm = normalize(searchTerm);
+    }
+
+    /**
+     * Filters of a search request; the date range does not apply to live events and is ignored
+     */
+    public static AuditStreamFilter of(AuditSearchRequest request) {
+        return new AuditStreamFilter(request.getUserEmail(), request.getUserName(), request.getSearchTerm(),
+                request.getActionType(), request.getResourceType(), request.getStatus());
+    }
+
+    public boolean matches(AuditTrailSummaryView event) {
+        return (actionType == null || actionType == event.actionType())
+                && (resourceType == null || resourceType == event.resourceType())
+                && (status == null || status == event.status())
+                && contains(event.userEmail(), userEmail)
+                && contains(event.userName(), userName)
+                && contains(event.actionDescription(), searchTerm);
+    }
+
+    /**
+     * The same filters as a search request, for replaying missed events from the database
+     */
+    public AuditSearchRequest toSearchRequest() {
+        return AuditSearchRequest.builder()
+                .userEmail(userEmail)
+                .userName(userName)
+                .searchTerm(searchTerm)
+                .actionType(actionType)
+                .resourceType(resourceType)
+                .status(status)
+                .build();
+    }
+
+    private static boolean contains(String value, String term) {
+        return term == null || (value != null && value.toLowerCase().contains(term));
+    }
+
+    private static String normalize(String term) {
+        return term == null || term.isBlank() ? null : term.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,116 @@
+package com.fundquest.auth.audit_trail.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One connected stream client: its filter and a bounded buffer of events not yet written to it.
+ * Publishers only append to the buffer; a single drain at a time writes it out, so a slow connection
+ * never blocks the publisher and a full buffer marks the subscriber as too slow to keep.
+ */
+final class AuditStreamSubscription {
+
+    /**
+     * A pending SSE event; {@code auditId} is null for events that are not audit rows (heartbeats)
+     */
+    record Outgoing(Long auditId, SseEmitter.SseEventBuilder event) {
+    }
+
+    private final SseEmitter emitter;
+    private final AuditStreamFilter filter;
+    private final int capacity;
+    private final ArrayDeque<Outgoing> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Live events are buffered but not drained until the Last-Event-ID replay has been written
+    private volatile boolean live;
+    private volatile boolean closed;
+    private volatile Set<Long> replayedIds = Set.of();
+
+    AuditStreamSubscription(SseEmitter emitter, AuditStreamFilter filter, int capacity) {
+        this.emitter = emitter;
+        this.filter = filter;
+        this.capacity = capacity;
+        this.buffer = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    AuditStreamFilter filter() {
+        return filter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    boolean offer(Outgoing outgoing) {
+        synchronized (buffer) {
+            if (buffer.size() >= capacity) {
+                return false;
+            }
+            buffer.addLast(outgoing);
+            return true;
+        }
+    }
+
+    List<Outgoing> takeAll() {
+        synchronized (buffer) {
+            if (buffer.isEmpty()) {
+                return List.of();
+            }
+            List<Outgoing> pending = new ArrayList<>(buffer);
+            buffer.clear();
+            return pending;
+        }
+    }
+
+    boolean hasPending() {
+        synchronized (buffer) {
+            return !buffer.isEmpty();
+        }
+    }
+
+    /**
+     * Ends the replay phase; live events already sent by the replay are skipped when drained
+     */
+    void goLive(Set<Long> replayed) {
+        this.replayedIds = Set.copyOf(replayed);
+        this.live = true;
+    }
+
+    boolean wasReplayed(Long auditId) {
+        return auditId != null && replayedIds.contains(auditId);
+    }
+
+    /**
+     * Claims the drain for the caller; false while replaying, closed, or another drain is running
+     */
+    boolean tryStartDrain() {
+        return live && !closed && draining.compareAndSet(false, true);
+    }
+
+    void endDrain() {
+        draining.set(false);
+    }
+
+    /**
+     * Marks the subscription closed and drops its buffer; the emitter is completed separately
+     */
+    void close() {
+        closed = true;
+        synchronized (buffer) {
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.fundquest.auth.audit_trail.stream;
+
+import com.fundquest.auth.audit_trail.repository.AuditTrailRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Follows audit_trail_tbl in sequence id order, whichever instance (or spool replay) wrote the rows.
+ * <p>
+ * Ids are taken from the sequence at insert but become visible at commit, so a lower id can commit after
+ * a higher one. Ids between the {@link #watermark()} and the highest id seen that have not shown up yet are
+ * looked up again on every poll until they settle: once a poll that saw id N is {@code settle} old, every id
+ * below N has either committed and been returned or belongs to a transaction that rolled back (or an insert
+ * skipped by ON CONFLICT). The settle time therefore has to exceed the longest audit insert transaction.
+ * <p>
+ * Not thread-safe; owned by the broadcaster's poll thread.
+ */
+final class AuditTrailTail {
+
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private final AuditTrailRepository auditTrailRepository;
+    private final long settleNanos;
+    private final int pageSize;
+
+    private boolean initialized;
+    // Every id up to the watermark has been returned or will never commit
+    private volatile long watermark;
+    private long maxSeen;
+    // Bit i: id watermark + 1 + i has been returned
+    private BitSet seen = new BitSet();
+    // {poll time, highest id seen by that poll}, oldest first
+    private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+
+    AuditTrailTail(AuditTrailRepository auditTrailRepository, long settleNanos, int pageSize) {
+        this.auditTrailRepository = auditTrailRepository;
+        this.settleNanos = settleNanos;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Ids committed since the previous poll, ascending. The first poll only positions the tail at the current end.
+     */
+    List<Long> poll(long nowNanos) {
+        if (!initialized) {
+            maxSeen = auditTrailRepository.findMaxId();
+            watermark = maxSeen;
+            initialized = true;
+            return List.of();
+        }
+
+        List<Long> found = new ArrayList<>();
+        List<Long> pending = unseen();
+        for (int i = 0; i < pending.size(); i += LOOKUP_CHUNK) {
+            found.addAll(auditTrailRepository.findExistingIds(pending.subList(i, Math.min(i + LOOKUP_CHUNK, pending.size()))));
+        }
+
+        long highest = maxSeen;
+        List<Long> page;
+        do {
+            page = auditTrailRepository.findIdsAfter(highest, PageRequest.of(0, pageSize));
+            found.addAll(page);
+            if (!page.isEmpty()) {
+                highest = page.get(page.size() - 1);
+            }
+        } while (page.size() == pageSize);
+
+        // State only moves once every lookup succeeded, so a failed poll is simply repeated
+        maxSeen = highest;
+        for (long id : found) {
+            seen.set(index(id));
+        }
+        samples.addLast(new long[]{nowNanos, maxSeen});
+        settle(nowNanos);
+
+        found.sort(null);
+        return found;
+    }
+
+    /**
+     * Forget the followed position; the next poll starts again at the current end of the table
+     */
+    void reset() {
+        initialized = false;
+        seen = new BitSet();
+        samples.clear();
+    }
+
+    /**
+     * Resume position that is safe to hand out: nothing at or below it can still appear
+     */
+    long watermark() {
+        return watermark;
+    }
+
+    private List<Long> unseen() {
+        List<Long> unseen = new ArrayList<>();
+        int window = (int) (maxSeen - watermark);
+        for (int i = seen.nextClearBit(0); i < window; i = seen.nextClearBit(i + 1)) {
+            unseen.add(watermark + 1 + i);
+        }
+        return unseen;
+    }
+
+    private void settle(long nowNanos) {
+        long settled = watermark;
+        while (!samples.isEmpty() && nowNanos - samples.peekFirst()[0] >= settleNanos) {
+            settled = Math.max(settled, samples.pollFirst()[1]);
+        }
+        if (settled > watermark) {
+            int shift = (int) (settled - watermark);
+            seen = seen.get(shift, Math.max(shift, seen.length()));
+            watermark = settled;
+        }
+    }
+
+    private int index(long id) {
+        return (int) (id - watermark - 1);
+    }
+}
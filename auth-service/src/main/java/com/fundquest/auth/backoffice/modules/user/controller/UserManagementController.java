@@ -8,6 +8,7 @@ import com.fundquest.auth.backoffice.modules.user.service.invite.UserInvitationS
 import com.fundquest.auth.dto.response.ApiResponse;
 import com.fundquest.auth.backoffice.modules.user.dto.response.UserPageResponse;
 import com.fundquest.auth.backoffice.modules.user.service.management.UserManagementService;
+import com.fundquest.auth.util.pagination.CountMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -84,9 +85,12 @@ public class UserManagementController {
                     example = "8",
                     schema = @Schema(type = "integer", minimum = "1", maximum = "8", defaultValue = "8")
             )
-            @RequestParam(defaultValue = "8") int size) {
+            @RequestParam(defaultValue = "8") int size,
 
-        return ResponseEntity.ok(ApiResponse.success(userManagementService.getAllUsers(page, size)));
+            @Parameter(description = "How the total is obtained: EXACT, CACHED, ESTIMATED or NONE. Default: EXACT")
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
+
+        return ResponseEntity.ok(ApiResponse.success(userManagementService.getAllUsers(page, size, count)));
     }
 
     @GetMapping("/search")
@@ -117,9 +121,12 @@ public class UserManagementController {
                     example = "8",
                     schema = @Schema(type = "integer", minimum = "1", maximum = "8", defaultValue = "8")
             )
-            @RequestParam(defaultValue = "8") int size) {
+            @RequestParam(defaultValue = "8") int size,
+
+            @Parameter(description = "How the total is obtained: EXACT, CACHED, ESTIMATED or NONE. Default: EXACT")
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
 
-        return ResponseEntity.ok(ApiResponse.success(userManagementService.searchUsersByName(name, page, size)));
+        return ResponseEntity.ok(ApiResponse.success(userManagementService.searchUsersByName(name, page, size, count)));
     }
 
     @GetMapping("/filter")
@@ -150,9 +157,12 @@ public class UserManagementController {
                     example = "8",
                     schema = @Schema(type = "integer", minimum = "1", maximum = "8", defaultValue = "8")
             )
-            @RequestParam(defaultValue = "8") int size) {
+            @RequestParam(defaultValue = "8") int size,
+
+            @Parameter(description = "How the total is obtained: EXACT, CACHED, ESTIMATED or NONE. Default: EXACT")
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
 
-        return ResponseEntity.ok(ApiResponse.success(userManagementService.filterUsersByStatus(isActive, page, size)));
+        return ResponseEntity.ok(ApiResponse.success(userManagementService.filterUsersByStatus(isActive, page, size, count)));
     }
 
     @GetMapping("/details")
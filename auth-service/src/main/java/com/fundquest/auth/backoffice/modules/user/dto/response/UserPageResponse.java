@@ -15,8 +15,11 @@ public class UserPageResponse {
     private List<UserListResponse> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    // Null when the listing was requested without a total (count=NONE)
+    private Long totalElements;
+    private Integer totalPages;
+    // True when the total comes from a short-lived cache or planner statistics rather than a fresh COUNT
+    private boolean totalEstimated;
     private boolean isFirstPage;
     private boolean isLastPage;
     private boolean hasNext;
@@ -3,8 +3,9 @@ package com.fundquest.auth.backoffice.modules.user.mapper;
 import com.fundquest.auth.entity.User;
 import com.fundquest.auth.backoffice.modules.user.dto.response.UserListResponse;
 import com.fundquest.auth.backoffice.modules.user.dto.response.UserPageResponse;
+import com.fundquest.auth.util.pagination.CountedSlice;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -58,20 +59,20 @@ public class UserListMapper {
     }
 
     /**
-     * Convert Spring Data Page<User> to UserPageResponse DTO
+     * Convert a counted slice of Users to UserPageResponse DTO
      * Handles the page number conversion (0-based to 1-based)
      *
-     * @param userPage Spring Data Page of Users (0-based)
+     * @param counted slice of Users (0-based) with its resolved total
      * @return UserPageResponse DTO (1-based page numbers)
      */
-    public UserPageResponse toUserPageResponse(Page<User> userPage) {
-        if (userPage == null) {
-            log.warn("Attempted to convert null Page<User> to UserPageResponse");
+    public UserPageResponse toUserPageResponse(CountedSlice<User> counted) {
+        if (counted == null) {
+            log.warn("Attempted to convert null CountedSlice<User> to UserPageResponse");
             return UserPageResponse.builder()
                     .content(List.of())
                     .page(1)
                     .size(0)
-                    .totalElements(0)
+                    .totalElements(0L)
                     .totalPages(0)
                     .isFirstPage(true)
                     .isLastPage(true)
@@ -81,6 +82,7 @@ public class UserListMapper {
                     .build();
         }
 
+        Slice<User> userPage = counted.slice();
         List<UserListResponse> content = toUserListResponseList(userPage.getContent());
 
         // Convert 0-based page number to 1-based for frontend
@@ -90,8 +92,9 @@ public class UserListMapper {
                 .content(content)
                 .page(pageNumber) // Convert 0-based to 1-based
                 .size(userPage.getSize())
-                .totalElements(userPage.getTotalElements())
-                .totalPages(userPage.getTotalPages())
+                .totalElements(counted.totalElements())
+                .totalPages(counted.totalPages())
+                .totalEstimated(counted.totalEstimated())
                 .isFirstPage(userPage.isFirst())
                 .isLastPage(userPage.isLast())
                 .hasNext(userPage.hasNext())
@@ -2,6 +2,7 @@ package com.fundquest.auth.backoffice.modules.user.service.management;
 
 import com.fundquest.auth.backoffice.modules.user.dto.response.UserDetailResponse;
 import com.fundquest.auth.backoffice.modules.user.dto.response.UserPageResponse;
+import com.fundquest.auth.util.pagination.CountMode;
 
 import java.util.List;
 
@@ -12,9 +13,10 @@ public interface UserManagementService {
      *
      * @param page 1-based page number (will be converted to 0-based internally)
      * @param size page size (max 8)
+     * @param countMode how the total is obtained
      * @return UserPageResponse with user data and pagination info
      */
-    UserPageResponse getAllUsers(int page, int size);
+    UserPageResponse getAllUsers(int page, int size, CountMode countMode);
 
     /**
      * Search users by name with pagination
@@ -22,9 +24,10 @@ public interface UserManagementService {
      * @param name name to search for (case-insensitive partial match)
      * @param page 1-based page number
      * @param size page size (max 8)
+     * @param countMode how the total is obtained
      * @return UserPageResponse with matching users and pagination info
      */
-    UserPageResponse searchUsersByName(String name, int page, int size);
+    UserPageResponse searchUsersByName(String name, int page, int size, CountMode countMode);
 
     /**
      * Filter users by active status with pagination
@@ -32,9 +35,10 @@ public interface UserManagementService {
      * @param isActive filter by active status (true/false)
      * @param page 1-based page number
      * @param size page size (max 8)
+     * @param countMode how the total is obtained
      * @return UserPageResponse with filtered users and pagination info
      */
-    UserPageResponse filterUsersByStatus(boolean isActive, int page, int size);
+    UserPageResponse filterUsersByStatus(boolean isActive, int page, int size, CountMode countMode);
 
     /**
      * Advanced filter users by multiple criteria
@@ -43,9 +47,10 @@ public interface UserManagementService {
      * @param isActive status filter (optional)
      * @param page 1-based page number
      * @param size page size (max 8)
+     * @param countMode how the total is obtained
      * @return UserPageResponse with filtered users and pagination info
      */
-    UserPageResponse filterUsers(String name, Boolean isActive, int page, int size);
+    UserPageResponse filterUsers(String name, Boolean isActive, int page, int size, CountMode countMode);
 
     /**
      * Get single user by email with detailed information including permissions and role
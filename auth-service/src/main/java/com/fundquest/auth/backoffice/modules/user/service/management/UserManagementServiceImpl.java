@@ -9,12 +9,15 @@ import com.fundquest.auth.backoffice.modules.user.dto.response.UserPageResponse;
 import com.fundquest.auth.backoffice.modules.user.mapper.UserListMapper;
 import com.fundquest.auth.repository.UserRepository;
 import com.fundquest.auth.service.permission.PermissionService;
+import com.fundquest.auth.service.token.RefreshTokenService;
 import com.fundquest.auth.util.SecurityContextService;
+import com.fundquest.auth.util.pagination.CountMode;
+import com.fundquest.auth.util.pagination.PageCounter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,50 +40,60 @@ public class UserManagementServiceImpl implements UserManagementService {
     private final UserDetailMapper userDetailMapper;
     private final PermissionService permissionService;
     private final SecurityContextService securityContextService;
+    private final RefreshTokenService refreshTokenService;
+    private final PageCounter pageCounter;
 
     private static final int MAX_PAGE_SIZE = 8;
     private static final int DEFAULT_PAGE_SIZE = 8;
 
     @Override
-    public UserPageResponse getAllUsers(int page, int size) {
+    public UserPageResponse getAllUsers(int page, int size, CountMode countMode) {
         Pageable pageable = createPageable(page, size);
-        Page<User> userPage = userRepository.findAllUsersWithRole(pageable);
-        return userListMapper.toUserPageResponse(userPage);
+        Slice<User> userPage = userRepository.findAllUsersWithRole(pageable);
+        return userListMapper.toUserPageResponse(pageCounter.count(userPage, countMode,
+                PageCounter.key("users.all"), userRepository::countAllUsersWithRole, userRepository::estimateRowCount));
     }
 
     @Override
-    public UserPageResponse searchUsersByName(String name, int page, int size) {
+    public UserPageResponse searchUsersByName(String name, int page, int size, CountMode countMode) {
         if (name == null || name.trim().isEmpty()) {
-            return getAllUsers(page, size);
+            return getAllUsers(page, size, countMode);
         }
 
         Pageable pageable = createPageable(page, size);
-        Page<User> userPage = userRepository.findByNameContainingIgnoreCase(name.trim(), pageable);
+        String searchName = name.trim();
+        Slice<User> userPage = userRepository.findByNameContainingIgnoreCase(searchName, pageable);
 
-        return userListMapper.toUserPageResponse(userPage);
+        return userListMapper.toUserPageResponse(pageCounter.count(userPage, countMode,
+                PageCounter.key("users.name", PageCounter.ignoreCase(searchName)),
+                () -> userRepository.countByNameContainingIgnoreCase(searchName), null));
     }
 
     @Override
-    public UserPageResponse filterUsersByStatus(boolean isActive, int page, int size) {
+    public UserPageResponse filterUsersByStatus(boolean isActive, int page, int size, CountMode countMode) {
         Pageable pageable = createPageable(page, size);
-        Page<User> userPage = userRepository.findByIsActive(isActive, pageable);
+        Slice<User> userPage = userRepository.findByIsActive(isActive, pageable);
 
-        return userListMapper.toUserPageResponse(userPage);
+        return userListMapper.toUserPageResponse(pageCounter.count(userPage, countMode,
+                PageCounter.key("users.status", isActive),
+                () -> userRepository.countWithRoleByIsActive(isActive), null));
     }
 
     @Override
-    public UserPageResponse filterUsers(String name, Boolean isActive, int page, int size) {
+    public UserPageResponse filterUsers(String name, Boolean isActive, int page, int size, CountMode countMode) {
         if ((name == null || name.trim().isEmpty()) && isActive == null) {
             log.debug("No filters provided, returning all users");
-            return getAllUsers(page, size);
+            return getAllUsers(page, size, countMode);
         }
 
         Pageable pageable = createPageable(page, size);
         String searchName = (name != null && !name.trim().isEmpty()) ? name.trim() : null;
 
-        Page<User> userPage = userRepository.findByNameAndStatus(searchName, isActive, pageable);
+        Slice<User> userPage = userRepository.findByNameAndStatus(searchName, isActive, pageable);
 
-        return userListMapper.toUserPageResponse(userPage);
+        return userListMapper.toUserPageResponse(pageCounter.count(userPage, countMode,
+                PageCounter.key("users.filter", PageCounter.ignoreCase(searchName), isActive),
+                () -> userRepository.countByNameAndStatus(searchName, isActive), null));
     }
 
 
@@ -119,6 +132,8 @@ public class UserManagementServiceImpl implements UserManagementService {
         user.setLastModifiedBy(modifiedBy);
 
         User savedUser = userRepository.save(user);
+        // Cached refresh-token snapshots still carry the old permissions
+        refreshTokenService.invalidateSubjects(email);
         return userDetailMapper.toUserDetailResponse(savedUser);
     }
 
@@ -147,6 +162,9 @@ public class UserManagementServiceImpl implements UserManagementService {
         user.setLastModifiedBy(modifiedBy);
         User savedUser = userRepository.save(user);
 
+        if (isActive) refreshTokenService.invalidateSubjects(email);
+        else refreshTokenService.revokeAllForUser(email);
+
         return userDetailMapper.toUserDetailResponse(savedUser);
     }
 
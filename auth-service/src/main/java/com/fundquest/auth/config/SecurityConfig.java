@@ -1,11 +1,15 @@
 package com.fundquest.auth.config;
 
+import com.fundquest.auth.constants.AppConstants;
+import com.fundquest.auth.security.AuthoritySetMethodSecurityExpressionHandler;
 import com.fundquest.auth.security.JwtAuthenticationEntryPoint;
 import com.fundquest.auth.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -40,9 +44,12 @@ public class SecurityConfig {
                 .cors(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of an already authorized streaming response (audit export, audit stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/auth/microsoft/verify", "/api/v1/auth/refresh",
                                 "/api/v1/auth/user/profile/test").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(AppConstants.JWKS_ENDPOINT).permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**",
                                 "/swagger-resources/**", "/webjars/**").permitAll()
                         .anyRequest().authenticated()
@@ -54,6 +61,14 @@ public class SecurityConfig {
     }
 
 
+    /**
+     * Answers @PreAuthorize authority checks from the token's precomputed authority set
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        return new AuthoritySetMethodSecurityExpressionHandler();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -15,6 +15,11 @@ public final class AppConstants {
     public static final String PERMISSIONS_ENDPOINT = "/api/v1/auth/permissions";
     public static final String ROLE_ENDPOINT = "/roles";
     public static final String AUDIT_ENDPOINT = "/audit";
+    public static final String JWKS_ENDPOINT = "/.well-known/jwks.json";
+
+    // Forwarding Headers
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+    public static final String CLIENT_ADDRESS_HEADER = "X-Client-Address"; // set by the api-gateway at the edge
 
     // JWT Constants
     public static final String JWT_HEADER_PREFIX = "Bearer ";
@@ -29,13 +34,17 @@ public final class AppConstants {
     // Microsoft OAuth Constants
     public static final String MICROSOFT_TOKEN_URL = "https://login.microsoftonline.com/{tenantId}/oauth2/v2.0/token";
     public static final String GRANT_TYPE_AUTH_CODE = "authorization_code";
+    public static final String MICROSOFT_JWKS_URL = "https://login.microsoftonline.com/{tenantId}/discovery/v2.0/keys";
+    public static final String MICROSOFT_ISSUER = "https://login.microsoftonline.com/{tenantId}/v2.0";
 
     // Error Codes
     public static final String INVALID_AUTH_CODE = "INVALID_AUTH_CODE";
     public static final String AUTH_CODE_EXPIRED = "AUTH_CODE_EXPIRED";
     public static final String INVALID_TENANT = "INVALID_TENANT";
+    public static final String INVALID_ID_TOKEN = "INVALID_ID_TOKEN";
     public static final String NO_REFRESH_TOKEN = "NO_REFRESH_TOKEN";
     public static final String INVALID_REFRESH_TOKEN = "INVALID_REFRESH_TOKEN";
+    public static final String REFRESH_TOKEN_REUSED = "REFRESH_TOKEN_REUSED";
     public static final String UNAUTHORIZED = "UNAUTHORIZED";
     public static final String USER_NOT_INVITED = "USER_NOT_INVITED";
 
@@ -45,6 +54,9 @@ public final class AppConstants {
     public static final String CLAIM_TYPE = "type";
     public static final String CLAIM_ROLE = "role";
     public static final String CLAIM_PERMISSIONS = "permissions";
+    public static final String CLAIM_PERMISSION_BITS = "pbits";
+    public static final String CLAIM_PERMISSION_CATALOG_VERSION = "pcv";
+    public static final String CLAIM_REFRESH_FAMILY = "fid";
     public static final String TOKEN_TYPE_ACCESS = "ACCESS";
     public static final String TOKEN_TYPE_REFRESH = "REFRESH";
 
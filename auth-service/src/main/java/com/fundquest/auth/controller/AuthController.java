@@ -5,7 +5,10 @@ import com.fundquest.auth.constants.AppConstants;
 import com.fundquest.auth.dto.request.VerifyMicrosoftTokenRequest;
 import com.fundquest.auth.dto.response.ApiResponse;
 import com.fundquest.auth.dto.response.AuthResponse;
+import com.fundquest.auth.dto.response.AuthResult;
 import com.fundquest.auth.exception.InvalidTokenException;
+import com.fundquest.auth.security.JwtAuthenticationToken;
+import com.fundquest.auth.security.JwtPrincipal;
 import com.fundquest.auth.service.AuthService;
 import com.fundquest.auth.util.AuthResponseHelper;
 import com.fundquest.auth.util.CookieHelper;
@@ -78,9 +81,9 @@ public class AuthController {
 
         log.info("Received Microsoft token verification request");
 
-        AuthResponse authResponse = authService.verifyMicrosoftToken(request);
+        AuthResult authResult = authService.verifyMicrosoftToken(request);
 
-        authResponseHelper.prepareAuthResponseWithCookie(authResponse, response);
+        AuthResponse authResponse = authResponseHelper.prepareAuthResponseWithCookie(authResult, response);
 
         log.info("Successfully verified Microsoft token and set refresh token cookie");
 
@@ -109,7 +112,8 @@ public class AuthController {
             )
     })
     public ResponseEntity<ApiResponse<AuthResponse>> refreshToken(
-            @Parameter(hidden = true) HttpServletRequest request) {
+            @Parameter(hidden = true) HttpServletRequest request,
+            @Parameter(hidden = true) HttpServletResponse response) {
 
         log.info("Received token refresh request");
 
@@ -119,7 +123,10 @@ public class AuthController {
                         AppConstants.NO_REFRESH_TOKEN
                 ));
 
-        AuthResponse authResponse = authService.refreshAccessToken(refreshToken);
+        AuthResult authResult = authService.refreshAccessToken(refreshToken);
+
+        // The presented refresh token is now spent; hand the client its successor
+        AuthResponse authResponse = authResponseHelper.prepareAuthResponseWithCookie(authResult, response);
 
         log.info("Successfully refreshed access token");
 
@@ -150,11 +157,15 @@ public class AuthController {
             )
     })
     public ResponseEntity<ApiResponse<String>> logout(
+            @Parameter(hidden = true) HttpServletRequest request,
             @Parameter(hidden = true) HttpServletResponse response) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof String email) {
-            authService.logout(email);
+            JwtPrincipal accessToken = authentication instanceof JwtAuthenticationToken jwtAuthentication
+                    ? jwtAuthentication.getToken() : null;
+            String refreshToken = cookieHelper.extractRefreshTokenFromCookies(request).orElse(null);
+            authService.logout(email, accessToken, refreshToken);
         }
         authResponseHelper.clearAuthSession(response);
         log.info("Successfully logged out user");
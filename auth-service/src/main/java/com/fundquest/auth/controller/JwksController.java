@@ -0,0 +1,43 @@
+package com.fundquest.auth.controller;
+
+import com.fundquest.auth.security.JwtKeyManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.fundquest.auth.config.swagger.SwaggerConstants.AUTH_TAG;
+import static com.fundquest.auth.constants.AppConstants.JWKS_ENDPOINT;
+
+/**
+ * Publishes the public token verification keys so the gateway and other services can verify
+ * RS256 access tokens locally instead of calling back to auth-service
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = AUTH_TAG)
+public class JwksController {
+
+    private static final long JWKS_MAX_AGE_MINUTES = 5;
+
+    private final JwtKeyManager jwtKeyManager;
+
+    @GetMapping(value = JWKS_ENDPOINT, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "JSON Web Key Set",
+            description = "Public keys used to verify RS256 access tokens. Empty when tokens are signed with HS512.",
+            tags = {AUTH_TAG}
+    )
+    public ResponseEntity<Map<String, Object>> getJwkSet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(JWKS_MAX_AGE_MINUTES, TimeUnit.MINUTES).cachePublic())
+                .body(jwtKeyManager.getJwkSet());
+    }
+}
@@ -0,0 +1,13 @@
+package com.fundquest.auth.dto.response;
+
+/**
+ * Service-layer result of an authentication step: the response body for the client plus the
+ * refresh token the controller sets as an HTTP-only cookie. Never serialized to the client.
+ */
+public record AuthResult(AuthResponse response, String refreshToken) {
+
+    @Override
+    public String toString() {
+        return "AuthResult[response=" + response + ", refreshToken=***]";
+    }
+}
@@ -3,6 +3,7 @@ package com.fundquest.auth.repository;
 import com.fundquest.auth.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -42,31 +43,52 @@ public interface UserRepository extends JpaRepository<User, String> {
 
 
     /**
-     * Find all users with pagination, ordered by creation date descending
+     * Find all users with pagination, ordered by creation date descending; no count query
      */
     @Query("SELECT u FROM User u JOIN FETCH u.role r ORDER BY u.createdAt DESC")
-    Page<User> findAllUsersWithRole(Pageable pageable);
+    Slice<User> findAllUsersWithRole(Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u JOIN u.role r")
+    long countAllUsersWithRole();
+
+    /**
+     * Planner row estimate for user_tbl; no table scan, refreshed by ANALYZE
+     */
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS BIGINT) FROM pg_class WHERE oid = CAST('user_tbl' AS regclass)",
+            nativeQuery = true)
+    long estimateRowCount();
 
     /**
-     * Search users by name (case-insensitive partial match)
+     * Search users by name (case-insensitive partial match); no count query
      */
     @Query("SELECT u FROM User u JOIN FETCH u.role r WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY u.createdAt DESC")
-    Page<User> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+    Slice<User> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u JOIN u.role r WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    long countByNameContainingIgnoreCase(@Param("name") String name);
 
     /**
-     * Filter users by active status
+     * Filter users by active status; no count query
      */
     @Query("SELECT u FROM User u JOIN FETCH u.role r WHERE u.isActive = :isActive ORDER BY u.createdAt DESC")
-    Page<User> findByIsActive(@Param("isActive") boolean isActive, Pageable pageable);
+    Slice<User> findByIsActive(@Param("isActive") boolean isActive, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u JOIN u.role r WHERE u.isActive = :isActive")
+    long countWithRoleByIsActive(@Param("isActive") boolean isActive);
 
     /**
-     * Advanced filter by name and active status
+     * Advanced filter by name and active status; no count query
      */
     @Query("SELECT u FROM User u JOIN FETCH u.role r WHERE " +
             "(:name IS NULL OR LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
             "(:isActive IS NULL OR u.isActive = :isActive) " +
             "ORDER BY u.createdAt DESC")
-    Page<User> findByNameAndStatus(@Param("name") String name, @Param("isActive") Boolean isActive, Pageable pageable);
+    Slice<User> findByNameAndStatus(@Param("name") String name, @Param("isActive") Boolean isActive, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u JOIN u.role r WHERE " +
+            "(:name IS NULL OR LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+            "(:isActive IS NULL OR u.isActive = :isActive)")
+    long countByNameAndStatus(@Param("name") String name, @Param("isActive") Boolean isActive);
 
     /**
      * Count users by active status
@@ -0,0 +1,109 @@
+package com.fundquest.auth.security;
+
+import com.fundquest.auth.entity.Permission;
+import com.fundquest.auth.entity.Role;
+import com.fundquest.auth.repository.PermissionRepository;
+import com.fundquest.auth.repository.RoleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of canonical {@link GrantedAuthority} instances, preloaded from permission_tbl and role_tbl.
+ * Authentication objects built from tokens share these instances instead of allocating new ones per request,
+ * and identical (role, permissions) combinations share one precomputed {@link AuthoritySet}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuthorityRegistry {
+
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    private static final long MAX_AUTHORITY_SETS = 1_000L;
+
+    private final PermissionRepository permissionRepository;
+    private final RoleRepository roleRepository;
+
+    private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+    private final Cache<AuthoritySetKey, AuthoritySet> authoritySets = Caffeine.newBuilder()
+            .maximumSize(MAX_AUTHORITY_SETS)
+            .build();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        for (Permission permission : permissionRepository.findAll()) {
+            permissionAuthority(permission.getName());
+        }
+        for (Role role : roleRepository.findAll()) {
+            roleAuthority(role.getName());
+        }
+        log.info("Authority registry preloaded with {} authorities", authorities.size());
+    }
+
+    /**
+     * Returns the shared authority for a permission name
+     */
+    public GrantedAuthority permissionAuthority(String permissionName) {
+        return authorities.computeIfAbsent(permissionName, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * Returns the shared ROLE_-prefixed authority for a role name, so hasRole() keeps working
+     */
+    public GrantedAuthority roleAuthority(String roleName) {
+        return authorities.computeIfAbsent(ROLE_PREFIX + roleName, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * Returns the shared authority set for a role and its permissions; names come from verified tokens only
+     */
+    public AuthoritySet authoritiesFor(String role, List<String> permissions) {
+        return authoritySets.get(new AuthoritySetKey(role, permissions), this::buildAuthoritySet);
+    }
+
+    private AuthoritySet buildAuthoritySet(AuthoritySetKey key) {
+        List<GrantedAuthority> granted = new ArrayList<>(key.permissions().size() + 1);
+        for (String permission : key.permissions()) {
+            granted.add(permissionAuthority(permission));
+        }
+        if (key.role() != null && !key.role().trim().isEmpty()) {
+            granted.add(roleAuthority(key.role()));
+        }
+        return AuthoritySet.of(granted);
+    }
+
+    private record AuthoritySetKey(String role, List<String> permissions) {
+    }
+
+    /**
+     * Immutable authority list plus its precomputed name set, so authority checks are hash lookups
+     */
+    public record AuthoritySet(List<GrantedAuthority> authorities, Set<String> names) {
+
+        static AuthoritySet of(List<GrantedAuthority> authorities) {
+            Set<String> names = new HashSet<>(authorities.size() * 2);
+            for (GrantedAuthority authority : authorities) {
+                names.add(authority.getAuthority());
+            }
+            return new AuthoritySet(List.copyOf(authorities), Set.copyOf(names));
+        }
+
+        public boolean contains(String authority) {
+            return names.contains(authority);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.fundquest.auth.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * Method security expression handler that answers hasAuthority/hasRole checks for
+ * {@link JwtAuthenticationToken} from its precomputed authority set, instead of rebuilding
+ * a set from the authority list on every {@code @PreAuthorize} evaluation.
+ */
+public class AuthoritySetMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        EvaluationContext context = super.createEvaluationContext(authentication, mi);
+        if (context instanceof StandardEvaluationContext standardContext
+                && standardContext.getRootObject().getValue() instanceof MethodSecurityExpressionOperations root) {
+            standardContext.setRootObject(new AuthoritySetExpressionRoot(root));
+        }
+        return context;
+    }
+
+    /**
+     * Delegating root that only replaces the authority checks
+     */
+    static class AuthoritySetExpressionRoot implements MethodSecurityExpressionOperations {
+
+        private final MethodSecurityExpressionOperations delegate;
+
+        AuthoritySetExpressionRoot(MethodSecurityExpressionOperations delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasAuthority(String authority) {
+            AuthorityRegistry.AuthoritySet authoritySet = authoritySet();
+            return authoritySet != null ? authoritySet.contains(authority) : delegate.hasAuthority(authority);
+        }
+
+        @Override
+        public boolean hasAnyAuthority(String... authorities) {
+            AuthorityRegistry.AuthoritySet authoritySet = authoritySet();
+            if (authoritySet == null) {
+                return delegate.hasAnyAuthority(authorities);
+            }
+            for (String authority : authorities) {
+                if (authoritySet.contains(authority)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasRole(String role) {
+            AuthorityRegistry.AuthoritySet authoritySet = authoritySet();
+            return authoritySet != null ? authoritySet.contains(withRolePrefix(role)) : delegate.hasRole(role);
+        }
+
+        @Override
+        public boolean hasAnyRole(String... roles) {
+            AuthorityRegistry.AuthoritySet authoritySet = authoritySet();
+            if (authoritySet == null) {
+                return delegate.hasAnyRole(roles);
+            }
+            for (String role : roles) {
+                if (authoritySet.contains(withRolePrefix(role))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private AuthorityRegistry.AuthoritySet authoritySet() {
+            return delegate.getAuthentication() instanceof JwtAuthenticationToken token ? token.getAuthoritySet() : null;
+        }
+
+        private static String withRolePrefix(String role) {
+            return role.startsWith(AuthorityRegistry.ROLE_PREFIX) ? role : AuthorityRegistry.ROLE_PREFIX + role;
+        }
+
+        @Override
+        public Authentication getAuthentication() {
+            return delegate.getAuthentication();
+        }
+
+        public Object getPrincipal() {
+            return delegate.getAuthentication().getPrincipal();
+        }
+
+        @Override
+        public boolean permitAll() {
+            return delegate.permitAll();
+        }
+
+        @Override
+        public boolean denyAll() {
+            return delegate.denyAll();
+        }
+
+        @Override
+        public boolean isAnonymous() {
+            return delegate.isAnonymous();
+        }
+
+        @Override
+        public boolean isAuthenticated() {
+            return delegate.isAuthenticated();
+        }
+
+        @Override
+        public boolean isRememberMe() {
+            return delegate.isRememberMe();
+        }
+
+        @Override
+        public boolean isFullyAuthenticated() {
+            return delegate.isFullyAuthenticated();
+        }
+
+        @Override
+        public boolean hasPermission(Object target, Object permission) {
+            return delegate.hasPermission(target, permission);
+        }
+
+        @Override
+        public boolean hasPermission(Object targetId, String targetType, Object permission) {
+            return delegate.hasPermission(targetId, targetType, permission);
+        }
+
+        @Override
+        public void setFilterObject(Object filterObject) {
+            delegate.setFilterObject(filterObject);
+        }
+
+        @Override
+        public Object getFilterObject() {
+            return delegate.getFilterObject();
+        }
+
+        @Override
+        public void setReturnObject(Object returnObject) {
+            delegate.setReturnObject(returnObject);
+        }
+
+        @Override
+        public Object getReturnObject() {
+            return delegate.getReturnObject();
+        }
+
+        @Override
+        public Object getThis() {
+            return delegate.getThis();
+        }
+    }
+}
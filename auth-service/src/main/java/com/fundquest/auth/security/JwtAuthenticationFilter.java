@@ -8,20 +8,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
-
-import static com.fundquest.auth.constants.AppConstants.TOKEN_TYPE_ACCESS;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -29,6 +22,7 @@ import static com.fundquest.auth.constants.AppConstants.TOKEN_TYPE_ACCESS;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final AuthorityRegistry authorityRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -44,33 +38,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             final String token = authHeader.substring(7);
 
-            if (jwtService.validateToken(token)) {
-                String email = jwtService.extractEmailFromToken(token);
-                String tokenType = jwtService.extractTokenType(token);
-
-                // Only allow access tokens for authentication
-                if (TOKEN_TYPE_ACCESS.equals(tokenType) &&
-                        SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                    String role = jwtService.extractRoleFromToken(token);
-                    List<String> permissions = jwtService.extractPermissionsFromToken(token);
-                    List<GrantedAuthority> authorities = permissions.stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
+            Optional<JwtPrincipal> verified = jwtService.verifyToken(token);
 
-                    // Add role as authority with ROLE_ prefix for hasRole() support
-                    if (role != null && !role.trim().isEmpty()) {
-                        authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
-                    }
+            // Only allow access tokens for authentication
+            if (verified.isPresent() && verified.get().isAccessToken() &&
+                    SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(email, null, authorities);
+                JwtPrincipal principal = verified.get();
+                JwtAuthenticationToken authentication = new JwtAuthenticationToken(principal,
+                        authorityRegistry.authoritiesFor(principal.role(), principal.permissions()));
 
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                    log.debug("Successfully authenticated user: {}", email);
-                }
+                log.debug("Successfully authenticated user: {}", principal.email());
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
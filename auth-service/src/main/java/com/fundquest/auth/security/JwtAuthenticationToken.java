@@ -0,0 +1,31 @@
+package com.fundquest.auth.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+/**
+ * Authentication built from a verified access token.
+ * The principal stays the user's email; the attached {@link AuthorityRegistry.AuthoritySet}
+ * lets method security answer hasAuthority/hasRole with a set lookup.
+ */
+public class JwtAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final transient JwtPrincipal token;
+    private final transient AuthorityRegistry.AuthoritySet authoritySet;
+
+    public JwtAuthenticationToken(JwtPrincipal token, AuthorityRegistry.AuthoritySet authoritySet) {
+        super(token.email(), null, authoritySet.authorities());
+        this.token = token;
+        this.authoritySet = authoritySet;
+    }
+
+    /**
+     * The verified access token this authentication was built from (jti, expiry, claims)
+     */
+    public JwtPrincipal getToken() {
+        return token;
+    }
+
+    public AuthorityRegistry.AuthoritySet getAuthoritySet() {
+        return authoritySet;
+    }
+}
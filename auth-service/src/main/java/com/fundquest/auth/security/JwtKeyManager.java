@@ -0,0 +1,267 @@
+package com.fundquest.auth.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import jakarta.annotation.PostConstruct;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the token signing keys and the shared, thread-safe {@link JwtParser}.
+ * Keys are derived once at startup and rebuilt atomically when the config server pushes a refresh.
+ * <p>
+ * Two signing modes are supported via {@code jwt.signing-algorithm}:
+ * HS512 (shared secret, default) and RS256 (RSA key pair, public keys published as a JWKS so other
+ * services can verify tokens locally). Previous keys stay valid for verification so a rotation causes
+ * no downtime; the {@code alg} and {@code kid} headers select the verification key with a single map lookup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtKeyManager {
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    private static final String SECRET_PROPERTY = "jwt.secret";
+    private static final String KEY_ID_PROPERTY = "jwt.key-id";
+    private static final String SIGNING_ALGORITHM_PROPERTY = "jwt.signing-algorithm";
+    private static final String PREVIOUS_KEYS_PROPERTY = "jwt.previous-keys";
+    private static final String RSA_PRIVATE_KEY_PROPERTY = "jwt.rsa.private-key";
+    private static final String RSA_PUBLIC_KEY_PROPERTY = "jwt.rsa.public-key";
+    private static final String RSA_PREVIOUS_PUBLIC_KEYS_PROPERTY = "jwt.rsa.previous-public-keys";
+
+    private final Environment environment;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private volatile KeySet keySet;
+    private KeyPair generatedRsaKeyPair;
+
+    @PostConstruct
+    void init() {
+        this.keySet = loadKeySet();
+        log.info("JWT signing keys initialized (algorithm: {}, current kid: {}, verification keys: {})",
+                keySet.algorithm(), keySet.currentKeyId(), keySet.verificationKeyCount());
+    }
+
+    /**
+     * Rebuilds the key set when any jwt.* property changes after a /refresh
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        boolean jwtKeysChanged = event.getKeys().stream().anyMatch(key -> key.startsWith("jwt."));
+        if (!jwtKeysChanged) {
+            return;
+        }
+
+        KeySet refreshed = loadKeySet();
+        this.keySet = refreshed;
+        verifiedTokenCache.invalidateAll();
+        log.info("JWT signing keys reloaded (algorithm: {}, current kid: {}, verification keys: {})",
+                refreshed.algorithm(), refreshed.currentKeyId(), refreshed.verificationKeyCount());
+    }
+
+    public Key getSigningKey() {
+        return keySet.signingKey();
+    }
+
+    public SignatureAlgorithm getSigningAlgorithm() {
+        return keySet.algorithm();
+    }
+
+    public String getCurrentKeyId() {
+        return keySet.currentKeyId();
+    }
+
+    public JwtParser getParser() {
+        return keySet.parser();
+    }
+
+    /**
+     * Public verification keys as a JWK Set document; empty in HS512 mode
+     */
+    public Map<String, Object> getJwkSet() {
+        return keySet.jwkSet();
+    }
+
+    private KeySet loadKeySet() {
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(
+                environment.getProperty(SIGNING_ALGORITHM_PROPERTY, SignatureAlgorithm.HS512.getValue()));
+        String currentKeyId = environment.getProperty(KEY_ID_PROPERTY, DEFAULT_KEY_ID);
+
+        // HMAC and RSA keys are kept apart and picked by the token's alg header, so an HS512 token and an RS256 token
+        // may carry the same kid. The current secret always stays verifiable: tokens issued before switching to RS256
+        // (with the default key-id the kid does not change) remain valid until expiry
+        SecretKey secretKey = toSecretKey(environment.getRequiredProperty(SECRET_PROPERTY));
+        Map<String, Key> hmacKeys = new HashMap<>();
+        bindMap(PREVIOUS_KEYS_PROPERTY).forEach((kid, secret) -> hmacKeys.put(kid, toSecretKey(secret)));
+        hmacKeys.put(currentKeyId, secretKey);
+
+        Map<String, Key> rsaKeys = new HashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        Key signingKey;
+
+        if (algorithm == SignatureAlgorithm.HS512) {
+            signingKey = secretKey;
+        } else if (algorithm == SignatureAlgorithm.RS256) {
+            KeyPair keyPair = loadRsaKeyPair();
+            signingKey = keyPair.getPrivate();
+            RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+            rsaKeys.put(currentKeyId, publicKey);
+            jwks.add(toJwk(currentKeyId, publicKey));
+
+            bindMap(RSA_PREVIOUS_PUBLIC_KEYS_PROPERTY).forEach((kid, encoded) -> {
+                RSAPublicKey previous = toRsaPublicKey(encoded);
+                rsaKeys.put(kid, previous);
+                jwks.add(toJwk(kid, previous));
+            });
+        } else {
+            throw new IllegalStateException("Unsupported JWT signing algorithm: " + algorithm.getValue());
+        }
+
+        return new KeySet(algorithm, currentKeyId, signingKey, secretKey, Map.copyOf(hmacKeys), Map.copyOf(rsaKeys),
+                Map.of("keys", List.copyOf(jwks)));
+    }
+
+    private KeyPair loadRsaKeyPair() {
+        String privateKey = environment.getProperty(RSA_PRIVATE_KEY_PROPERTY);
+        String publicKey = environment.getProperty(RSA_PUBLIC_KEY_PROPERTY);
+
+        if (StringUtils.hasText(privateKey) && StringUtils.hasText(publicKey)) {
+            return new KeyPair(toRsaPublicKey(publicKey), toRsaPrivateKey(privateKey));
+        }
+
+        // Development fallback: tokens signed with a generated key do not survive restarts or span instances
+        if (generatedRsaKeyPair == null) {
+            log.warn("No RSA key pair configured ({} / {}); generating an ephemeral key pair",
+                    RSA_PRIVATE_KEY_PROPERTY, RSA_PUBLIC_KEY_PROPERTY);
+            generatedRsaKeyPair = Keys.keyPairFor(SignatureAlgorithm.RS256);
+        }
+        return generatedRsaKeyPair;
+    }
+
+    private Map<String, String> bindMap(String property) {
+        return Binder.get(environment)
+                .bind(property, Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+    }
+
+    private static SecretKey toSecretKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static RSAPublicKey toRsaPublicKey(String encoded) {
+        try {
+            return (RSAPublicKey) KeyFactory.getInstance("RSA")
+                    .generatePublic(new X509EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid RSA public key", e);
+        }
+    }
+
+    private static PrivateKey toRsaPrivateKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid RSA private key", e);
+        }
+    }
+
+    /**
+     * Accepts either bare base64 or a PEM block (header/footer lines are stripped)
+     */
+    private static byte[] decodePem(String encoded) {
+        String base64 = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private static Map<String, Object> toJwk(String kid, RSAPublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("use", "sig");
+        jwk.put("alg", SignatureAlgorithm.RS256.getValue());
+        jwk.put("kid", kid);
+        jwk.put("n", encoder.encodeToString(unsigned(publicKey.getModulus().toByteArray())));
+        jwk.put("e", encoder.encodeToString(unsigned(publicKey.getPublicExponent().toByteArray())));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    private static byte[] unsigned(byte[] bytes) {
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+
+    /**
+     * Immutable snapshot of the keys and the parser built from them, swapped as a single reference
+     */
+    private record KeySet(SignatureAlgorithm algorithm, String currentKeyId, Key signingKey,
+                          Map<String, Key> hmacKeys, Map<String, Key> rsaKeys, Map<String, Object> jwkSet,
+                          JwtParser parser) {
+
+        KeySet(SignatureAlgorithm algorithm, String currentKeyId, Key signingKey, SecretKey legacyKey,
+               Map<String, Key> hmacKeys, Map<String, Key> rsaKeys, Map<String, Object> jwkSet) {
+            this(algorithm, currentKeyId, signingKey, hmacKeys, rsaKeys, jwkSet,
+                    buildParser(legacyKey, hmacKeys, rsaKeys));
+        }
+
+        int verificationKeyCount() {
+            return hmacKeys.size() + rsaKeys.size();
+        }
+
+        private static JwtParser buildParser(SecretKey legacyKey, Map<String, Key> hmacKeys, Map<String, Key> rsaKeys) {
+            return Jwts.parserBuilder()
+                    .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                        @Override
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            String kid = header.getKeyId();
+                            // Tokens issued before kid headers were introduced are HS512 with jwt.secret
+                            if (kid == null) {
+                                return legacyKey;
+                            }
+                            String alg = header.getAlgorithm();
+                            Key key = (alg != null && alg.startsWith("HS") ? hmacKeys : rsaKeys).get(kid);
+                            if (key == null) {
+                                throw new SignatureException("Unknown JWT key id: " + kid + " (" + alg + ")");
+                            }
+                            return key;
+                        }
+                    })
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.fundquest.auth.security;
+
+import com.fundquest.auth.constants.AppConstants;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable view of a verified JWT.
+ * Produced once per token by {@link com.fundquest.auth.service.JwtService#verifyToken(String)}
+ * so callers never have to re-parse or re-verify the signature to read individual claims.
+ */
+public record JwtPrincipal(
+        String tokenId,
+        String email,
+        String userId,
+        String tokenType,
+        String role,
+        List<String> permissions,
+        String familyId,
+        Instant expiresAt
+) {
+
+    public JwtPrincipal {
+        permissions = permissions == null ? List.of() : List.copyOf(permissions);
+    }
+
+    public boolean isAccessToken() {
+        return AppConstants.TOKEN_TYPE_ACCESS.equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return AppConstants.TOKEN_TYPE_REFRESH.equals(tokenType);
+    }
+
+    public boolean hasRole() {
+        return role != null && !role.trim().isEmpty();
+    }
+}
@@ -0,0 +1,153 @@
+package com.fundquest.auth.security;
+
+import com.fundquest.auth.entity.Permission;
+import com.fundquest.auth.repository.PermissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory snapshot of permission_tbl used for the compact permission token format.
+ * A user's permissions are encoded as a bitset indexed by permission id and tagged with a catalog version
+ * (a digest of every id/name pair), so a verifier only decodes the bitset when it holds the same catalog.
+ * Decoded names are the shared instances held by the snapshot, not per-request copies.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionCatalog {
+
+    private static final long MIN_RELOAD_INTERVAL_MS = 30_000L;
+
+    private final PermissionRepository permissionRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long lastReloadAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Reloads the catalog from permission_tbl and swaps it in atomically
+     */
+    public synchronized void reload() {
+        List<Permission> permissions = new ArrayList<>(permissionRepository.findAll());
+        permissions.sort(Comparator.comparing(Permission::getId));
+
+        this.snapshot = Snapshot.of(permissions);
+        this.lastReloadAt = System.currentTimeMillis();
+        log.info("Permission catalog loaded: {} permissions, version {}", permissions.size(), snapshot.version());
+    }
+
+    public boolean isLoaded() {
+        return snapshot != Snapshot.EMPTY;
+    }
+
+    public String getVersion() {
+        return snapshot.version();
+    }
+
+    /**
+     * Encodes permission names as a base64url bitset, or empty if any name is unknown to the catalog
+     */
+    public Optional<String> encode(Collection<String> permissionNames) {
+        Optional<String> encoded = snapshot.encode(permissionNames);
+        if (encoded.isEmpty() && reloadIfStale()) {
+            encoded = snapshot.encode(permissionNames);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decodes a bitset produced by {@link #encode(Collection)} into canonical permission names,
+     * or empty if the token was encoded against a different catalog version
+     */
+    public Optional<List<String>> decode(String encoded, String version) {
+        if (!snapshot.version().equals(version) && !(reloadIfStale() && snapshot.version().equals(version))) {
+            log.debug("Permission catalog version mismatch (token: {}, local: {})", version, snapshot.version());
+            return Optional.empty();
+        }
+        return snapshot.decode(encoded);
+    }
+
+    private synchronized boolean reloadIfStale() {
+        if (System.currentTimeMillis() - lastReloadAt < MIN_RELOAD_INTERVAL_MS) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    private record Snapshot(String version, String[] namesById, Map<String, Integer> idsByName) {
+
+        static final Snapshot EMPTY = new Snapshot("", new String[0], Map.of());
+
+        static Snapshot of(List<Permission> permissions) {
+            int maxId = permissions.isEmpty() ? -1 : Math.toIntExact(permissions.get(permissions.size() - 1).getId());
+            String[] namesById = new String[maxId + 1];
+            Map<String, Integer> idsByName = new HashMap<>();
+            StringBuilder fingerprint = new StringBuilder();
+
+            for (Permission permission : permissions) {
+                int id = Math.toIntExact(permission.getId());
+                String name = permission.getName();
+                namesById[id] = name;
+                idsByName.put(name, id);
+                fingerprint.append(id).append(':').append(name).append(';');
+            }
+
+            return new Snapshot(digest(fingerprint.toString()), namesById, Map.copyOf(idsByName));
+        }
+
+        Optional<String> encode(Collection<String> permissionNames) {
+            BitSet bits = new BitSet(namesById.length);
+            for (String name : permissionNames) {
+                Integer id = idsByName.get(name);
+                if (id == null) {
+                    return Optional.empty();
+                }
+                bits.set(id);
+            }
+            return Optional.of(Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()));
+        }
+
+        Optional<List<String>> decode(String encoded) {
+            BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded));
+            List<String> names = new ArrayList<>(bits.cardinality());
+            for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+                if (id >= namesById.length || namesById[id] == null) {
+                    return Optional.empty();
+                }
+                names.add(namesById[id]);
+            }
+            return Optional.of(names);
+        }
+
+        private static String digest(String fingerprint) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash, 0, 8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
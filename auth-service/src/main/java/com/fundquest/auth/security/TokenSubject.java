@@ -0,0 +1,40 @@
+package com.fundquest.auth.security;
+
+import com.fundquest.auth.dto.response.AuthUserData;
+import com.fundquest.auth.entity.Permission;
+import com.fundquest.auth.entity.User;
+
+import java.util.List;
+
+/**
+ * Minimal snapshot of a user needed to mint tokens and answer an auth request.
+ * Cached with the refresh token family so a refresh does not reload the user and its EAGER
+ * role/permission graph. Changes to the user drop the cached snapshot through
+ * {@code RefreshTokenService.invalidateSubjects}.
+ */
+public record TokenSubject(
+        String userId,
+        String email,
+        String role,
+        List<String> permissions,
+        AuthUserData userData
+) {
+
+    public TokenSubject {
+        permissions = permissions == null ? List.of() : List.copyOf(permissions);
+    }
+
+    public static TokenSubject from(User user, AuthUserData userData) {
+        List<String> permissions = user.getPermissions().stream()
+                .map(Permission::getName)
+                .toList();
+
+        return new TokenSubject(
+                user.getId(),
+                user.getEmail(),
+                user.getRole() != null ? user.getRole().getName() : null,
+                permissions,
+                userData
+        );
+    }
+}
@@ -0,0 +1,115 @@
+package com.fundquest.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Bounded cache of already-verified tokens, keyed by the SHA-256 digest of the raw token.
+ * Only tokens that passed signature verification are ever stored, so flooding the service with
+ * random tokens cannot grow the cache; size is additionally capped by {@code jwt.cache.max-size}.
+ * Each entry expires at the earlier of the token's {@code exp} and {@code jwt.cache.ttl-seconds}.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final Cache<String, JwtPrincipal> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.cache.ttl-seconds:300}") long ttlSeconds,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(Duration.ofSeconds(ttlSeconds)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Verified token cache initialized (enabled: {}, maxSize: {}, ttl: {}s)", enabled, maxSize, ttlSeconds);
+    }
+
+    /**
+     * Returns the cached principal for this token if it was verified before and has not expired
+     */
+    public Optional<JwtPrincipal> get(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        JwtPrincipal principal = cache.getIfPresent(digest(token));
+        if (principal == null || isExpired(principal)) {
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    /**
+     * Stores a principal that has just passed signature verification
+     */
+    public void put(String token, JwtPrincipal principal) {
+        if (enabled && principal.expiresAt() != null && !isExpired(principal)) {
+            cache.put(digest(token), principal);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private boolean isExpired(JwtPrincipal principal) {
+        return principal.expiresAt() == null || !principal.expiresAt().isAfter(Instant.now());
+    }
+
+    private static String digest(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Expires each entry no later than the token's own exp claim
+     */
+    private record TokenExpiry(Duration maxTtl) implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.fundquest.auth.service;
 
 import com.fundquest.auth.dto.request.VerifyMicrosoftTokenRequest;
-import com.fundquest.auth.dto.response.AuthResponse;
+import com.fundquest.auth.dto.response.AuthResult;
+import com.fundquest.auth.security.JwtPrincipal;
 
 public interface AuthService {
-    AuthResponse verifyMicrosoftToken(VerifyMicrosoftTokenRequest request);
-    AuthResponse refreshAccessToken(String refreshToken);
-    void logout(String email);
+    AuthResult verifyMicrosoftToken(VerifyMicrosoftTokenRequest request);
+    AuthResult refreshAccessToken(String refreshToken);
+    void logout(String email, JwtPrincipal accessToken, String refreshToken);
 }
\ No newline at end of file
@@ -1,13 +1,33 @@
 package com.fundquest.auth.service;
 
 import com.fundquest.auth.entity.User;
+import com.fundquest.auth.security.JwtPrincipal;
+import com.fundquest.auth.security.TokenSubject;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface JwtService {
     String generateAccessToken(User user);
-    String generateRefreshToken(User user);
+
+    /**
+     * Mints an access token from a cached user snapshot, without touching the User entity
+     */
+    String generateAccessToken(TokenSubject subject);
+
+    /**
+     * Mints a refresh token that belongs to a rotation family
+     */
+    String generateRefreshToken(TokenSubject subject, String tokenId, String familyId, Instant expiresAt);
+
     boolean validateToken(String token);
+
+    /**
+     * Verifies the token once and returns all of its claims, or empty if the token is invalid or expired
+     */
+    Optional<JwtPrincipal> verifyToken(String token);
+
     String extractEmailFromToken(String token);
     String extractUserIdFromToken(String token);
     boolean isTokenExpired(String token);
@@ -0,0 +1,13 @@
+package com.fundquest.auth.service;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+public interface MicrosoftIdTokenVerifier {
+
+    /**
+     * Verify a Microsoft ID token's signature, issuer, audience and expiry against the cached tenant keys.
+     * Never performs network I/O on the calling thread.
+     * @throws com.fundquest.auth.exception.InvalidTokenException if the token cannot be verified
+     */
+    DecodedJWT verify(String idToken);
+}
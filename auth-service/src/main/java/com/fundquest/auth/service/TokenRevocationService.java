@@ -0,0 +1,21 @@
+package com.fundquest.auth.service;
+
+import java.time.Instant;
+
+public interface TokenRevocationService {
+
+    /**
+     * Revoke a token by its jti until the token's own expiry
+     * @param tokenId the token's jti claim
+     * @param userEmail owner of the token, for traceability
+     * @param expiresAt the token's exp claim; the revocation is dropped after this instant
+     */
+    void revoke(String tokenId, String userEmail, Instant expiresAt);
+
+    /**
+     * Check whether a token id has been revoked; served from memory, never hits the database
+     * @param tokenId the token's jti claim
+     * @return true if the token must be rejected
+     */
+    boolean isRevoked(String tokenId);
+}
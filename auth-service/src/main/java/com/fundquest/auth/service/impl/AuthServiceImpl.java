@@ -1,26 +1,40 @@
 package com.fundquest.auth.service.impl;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.fundquest.auth.audit_trail.annotation.Auditable;
 import com.fundquest.auth.constants.AppConstants;
 import com.fundquest.auth.dto.request.VerifyMicrosoftTokenRequest;
 import com.fundquest.auth.dto.response.AuthResponse;
+import com.fundquest.auth.dto.response.AuthResult;
+import com.fundquest.auth.dto.response.AuthUserData;
 import com.fundquest.auth.entity.User;
 import com.fundquest.auth.exception.InvalidTokenException;
 import com.fundquest.auth.exception.TokenExtractionException;
 import com.fundquest.auth.exception.UserNotInvitedException;
 import com.fundquest.auth.service.AuthService;
 import com.fundquest.auth.service.JwtService;
+import com.fundquest.auth.security.JwtPrincipal;
+import com.fundquest.auth.security.TokenSubject;
+import com.fundquest.auth.service.MicrosoftIdTokenVerifier;
 import com.fundquest.auth.service.MicrosoftOAuthService;
+import com.fundquest.auth.service.TokenRevocationService;
 import com.fundquest.auth.service.UserService;
+import com.fundquest.auth.service.token.RefreshTokenRotation;
+import com.fundquest.auth.service.token.RefreshTokenService;
 import com.fundquest.auth.util.UserMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
 import static com.fundquest.auth.audit_trail.entity.enums.ActionType.LOGIN;
 import static com.fundquest.auth.audit_trail.entity.enums.ActionType.LOGOUT;
 import static com.fundquest.auth.audit_trail.entity.enums.ResourceType.AUTHENTICATION;
@@ -34,55 +48,78 @@ import static com.fundquest.auth.constants.AppConstants.USER_NOT_INVITED;
 public class AuthServiceImpl implements AuthService {
 
     private final MicrosoftOAuthService microsoftOAuthService;
+    private final MicrosoftIdTokenVerifier idTokenVerifier;
     private final UserService userService;
     private final JwtService jwtService;
     private final UserMapper userMapper;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final MeterRegistry meterRegistry;
+
+    private static final String LOGIN_STEP_METRIC = "auth.login.step";
+
+    private final Map<LoginStep, Timer> loginStepTimers = new EnumMap<>(LoginStep.class);
+
+    @PostConstruct
+    void registerLoginTimers() {
+        for (LoginStep step : LoginStep.values()) {
+            loginStepTimers.put(step, Timer.builder(LOGIN_STEP_METRIC)
+                    .description("Latency of each step of the Microsoft login flow")
+                    .tag("step", step.tag)
+                    .register(meterRegistry));
+        }
+    }
 
     @Override
     @Auditable(
             actionType = LOGIN,
             description = "User successfully authenticated via Microsoft OAuth",
             resourceType = AUTHENTICATION,
-            resourceIdExpression = "#result != null ? #result.user.email : 'unknown'",
-            resourceIdentifierExpression = "#result != null ? #result.user.email : 'unknown'",
+            resourceIdExpression = "#result != null ? #result.response.user.email : 'unknown'",
+            resourceIdentifierExpression = "#result != null ? #result.response.user.email : 'unknown'",
             includeResult = true
     )
-    public AuthResponse verifyMicrosoftToken(VerifyMicrosoftTokenRequest request) {
+    public AuthResult verifyMicrosoftToken(VerifyMicrosoftTokenRequest request) {
         try {
             log.info("Starting Microsoft token verification");
 
             // 1. Exchange authorization code for Microsoft tokens
-            JSONObject tokenResponse = microsoftOAuthService.exchangeCodeForToken(request.getAuthCode());
-
-            // 2. Extract and validate ID token
-            String idToken = extractIdToken(tokenResponse);
-            DecodedJWT decodedJWT = JWT.decode(idToken);
+            JSONObject tokenResponse = timed(LoginStep.CODE_EXCHANGE,
+                    () -> microsoftOAuthService.exchangeCodeForToken(request.getAuthCode()));
 
-            // 3. Extract user information from token
-            UserInfo userInfo = extractUserInfo(decodedJWT);
+            // 2-3. Verify the ID token against the cached tenant keys and extract the user information
+            UserInfo userInfo = timed(LoginStep.ID_TOKEN_DECODE,
+                    () -> extractUserInfo(idTokenVerifier.verify(extractIdToken(tokenResponse))));
 
             // 4. Verify user invitation status (KEY SECURITY CHECK)
-            validateUserInvitation(userInfo.email());
+            timed(LoginStep.INVITATION_CHECK, () -> {
+                validateUserInvitation(userInfo.email());
+                return null;
+            });
 
             // 5. Complete Microsoft verification and update user
-            User user = userService.completeMicrosoftVerification(
+            User user = timed(LoginStep.USER_UPDATE, () -> userService.completeMicrosoftVerification(
                     userInfo.microsoftId(),
                     userInfo.email(),
                     userInfo.name(),
                     userInfo.preferredUsername()
-            );
-
-            // 6. Generate JWT with user's specific permissions
-            String accessToken = jwtService.generateAccessToken(user);
+            ));
+
+            // 6. Generate JWT with user's specific permissions and start the refresh token family
+            AuthResult authResult = timed(LoginStep.TOKEN_MINT, () -> {
+                AuthUserData userData = userMapper.toAuthUserData(user);
+                AuthResponse response = AuthResponse.builder()
+                        .accessToken(jwtService.generateAccessToken(user))
+                        .expiresIn(AppConstants.ACCESS_TOKEN_EXPIRY / 1000)
+                        .tokenType(AppConstants.BEARER_TOKEN_TYPE)
+                        .user(userData)
+                        .build();
+                return new AuthResult(response, refreshTokenService.issue(user, userData));
+            });
 
             log.info("Successfully verified Microsoft token for user: {}", userInfo.email());
 
-            return AuthResponse.builder()
-                    .accessToken(accessToken)
-                    .expiresIn(AppConstants.ACCESS_TOKEN_EXPIRY / 1000)
-                    .tokenType(AppConstants.BEARER_TOKEN_TYPE)
-                    .user(userMapper.toAuthUserData(user))
-                    .build();
+            return authResult;
 
         } catch (UserNotInvitedException e) {
             log.warn("Uninvited user attempted authentication: {}", e.getMessage());
@@ -98,30 +135,29 @@ public class AuthServiceImpl implements AuthService {
             actionType = LOGIN,
             description = "Access token refreshed for authenticated user",
             resourceType = AUTHENTICATION,
-            resourceIdExpression = "#result != null ? #result.user.email : 'unknown'",
-            resourceIdentifierExpression = "#result != null ? #result.user.email : 'unknown'",
+            resourceIdExpression = "#result != null ? #result.response.user.email : 'unknown'",
+            resourceIdentifierExpression = "#result != null ? #result.response.user.email : 'unknown'",
             includeResult = true
     )
-    public AuthResponse refreshAccessToken(String refreshToken) {
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public AuthResult refreshAccessToken(String refreshToken) {
         log.info("Processing token refresh request");
 
-        validateRefreshToken(refreshToken);
-
-        String email = jwtService.extractEmailFromToken(refreshToken);
-        User user = userService.findByEmail(email);
+        // Verifies the token once, rotates it and returns the cached user snapshot
+        RefreshTokenRotation rotation = refreshTokenService.rotate(refreshToken);
+        TokenSubject subject = rotation.subject();
 
-        userService.updateLastLogin(email);
+        String accessToken = jwtService.generateAccessToken(subject);
 
-        String accessToken = jwtService.generateAccessToken(user);
+        log.info("Successfully refreshed access token for user: {}", subject.email());
 
-        log.info("Successfully refreshed access token for user: {}", email);
-
-        return AuthResponse.builder()
+        AuthResponse response = AuthResponse.builder()
                 .accessToken(accessToken)
                 .expiresIn(AppConstants.ACCESS_TOKEN_EXPIRY / 1000)
                 .tokenType(AppConstants.BEARER_TOKEN_TYPE)
-                .user(userMapper.toAuthUserData(user))
+                .user(subject.userData())
                 .build();
+        return new AuthResult(response, rotation.refreshToken());
     }
 
     @Override
@@ -132,11 +168,21 @@ public class AuthServiceImpl implements AuthService {
             resourceIdExpression = "#email",
             resourceIdentifierExpression = "#email"
     )
-    public void logout(String email) {
+    public void logout(String email, JwtPrincipal accessToken, String refreshToken) {
         log.info("Processing logout for user: {}", email);
 
-        // TODO: Implement token blacklisting for enhanced security
-        // For now, rely on token expiration since JWT is stateless
+        // Revoke both tokens so neither can be replayed before it expires
+        if (accessToken != null) {
+            tokenRevocationService.revoke(accessToken.tokenId(), email, accessToken.expiresAt());
+        }
+        if (refreshToken != null) {
+            jwtService.verifyToken(refreshToken)
+                    .filter(token -> email.equals(token.email()))
+                    .ifPresent(token -> {
+                        tokenRevocationService.revoke(token.tokenId(), email, token.expiresAt());
+                        refreshTokenService.revokeFamily(token.familyId());
+                    });
+        }
 
         log.info("User {} logged out successfully", email);
     }
@@ -169,17 +215,6 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
-    private void validateRefreshToken(String refreshToken) {
-        if (!jwtService.validateToken(refreshToken)) {
-            throw new InvalidTokenException("Invalid refresh token", AppConstants.INVALID_REFRESH_TOKEN);
-        }
-
-        String tokenType = jwtService.extractTokenType(refreshToken);
-        if (!AppConstants.TOKEN_TYPE_REFRESH.equals(tokenType)) {
-            throw new InvalidTokenException("Token is not a refresh token", AppConstants.INVALID_REFRESH_TOKEN);
-        }
-    }
-
     private String extractClaim(DecodedJWT jwt, String claimName, String claimDescription) {
         String claimValue = jwt.getClaim(claimName).asString();
         if (claimValue == null || claimValue.trim().isEmpty()) {
@@ -201,5 +236,23 @@ public class AuthServiceImpl implements AuthService {
         return email;
     }
 
+    private <T> T timed(LoginStep step, Supplier<T> action) {
+        return loginStepTimers.get(step).record(action);
+    }
+
+    private enum LoginStep {
+        CODE_EXCHANGE("code_exchange"),
+        ID_TOKEN_DECODE("id_token_decode"),
+        INVITATION_CHECK("invitation_check"),
+        USER_UPDATE("user_update"),
+        TOKEN_MINT("token_mint");
+
+        private final String tag;
+
+        LoginStep(String tag) {
+            this.tag = tag;
+        }
+    }
+
     private record UserInfo(String microsoftId, String email, String name, String preferredUsername) {}
 }
\ No newline at end of file
@@ -1,88 +1,136 @@
 package com.fundquest.auth.service.impl;
 
 import com.fundquest.auth.constants.AppConstants;
-import com.fundquest.auth.entity.Permission;
 import com.fundquest.auth.entity.User;
+import com.fundquest.auth.security.JwtKeyManager;
+import com.fundquest.auth.security.JwtPrincipal;
+import com.fundquest.auth.security.PermissionCatalog;
+import com.fundquest.auth.security.TokenSubject;
+import com.fundquest.auth.security.VerifiedTokenCache;
 import com.fundquest.auth.service.JwtService;
+import com.fundquest.auth.service.TokenRevocationService;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class JwtServiceImpl implements JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwtKeyManager jwtKeyManager;
+    private final PermissionCatalog permissionCatalog;
+    private final TokenRevocationService tokenRevocationService;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    @Value("${jwt.compact-permissions.enabled:false}")
+    private boolean compactPermissionsEnabled;
 
     @Override
     public String generateAccessToken(User user) {
-        log.debug("Generating access token for user: {}", user.getEmail());
+        return generateAccessToken(TokenSubject.from(user, null));
+    }
+
+    @Override
+    public String generateAccessToken(TokenSubject subject) {
+        log.debug("Generating access token for user: {}", subject.email());
 
-        Map<String, Object> claims = createBaseClaims(user, AppConstants.TOKEN_TYPE_ACCESS);
+        Map<String, Object> claims = createBaseClaims(subject, AppConstants.TOKEN_TYPE_ACCESS);
 
         // Add role and user-specific permissions
-        if (user.getRole() != null) {
-            claims.put(AppConstants.CLAIM_ROLE, user.getRole().getName());
+        if (subject.role() != null) {
+            claims.put(AppConstants.CLAIM_ROLE, subject.role());
         }
 
         // Add user's specific permissions (not role-based)
-        List<String> permissions = user.getPermissions().stream()
-                .map(Permission::getName)
-                .collect(Collectors.toList());
-        claims.put(AppConstants.CLAIM_PERMISSIONS, permissions);
+        putPermissionClaims(claims, subject.permissions());
 
-        return createToken(claims, user.getEmail(), AppConstants.ACCESS_TOKEN_EXPIRY);
+        return createToken(claims, subject.email(), UUID.randomUUID().toString(),
+                new Date(System.currentTimeMillis() + AppConstants.ACCESS_TOKEN_EXPIRY));
+    }
+
+    /**
+     * Writes permissions as a compact bitset when enabled and the catalog knows every permission,
+     * otherwise as the plain name list
+     */
+    private void putPermissionClaims(Map<String, Object> claims, List<String> permissions) {
+        if (compactPermissionsEnabled && permissionCatalog.isLoaded()) {
+            Optional<String> encoded = permissionCatalog.encode(permissions);
+            if (encoded.isPresent()) {
+                claims.put(AppConstants.CLAIM_PERMISSION_BITS, encoded.get());
+                claims.put(AppConstants.CLAIM_PERMISSION_CATALOG_VERSION, permissionCatalog.getVersion());
+                return;
+            }
+        }
+        claims.put(AppConstants.CLAIM_PERMISSIONS, permissions);
     }
 
     @Override
-    public String generateRefreshToken(User user) {
-        Map<String, Object> claims = createBaseClaims(user, AppConstants.TOKEN_TYPE_REFRESH);
-        return createToken(claims, user.getEmail(), AppConstants.REFRESH_TOKEN_EXPIRY);
+    public String generateRefreshToken(TokenSubject subject, String tokenId, String familyId, Instant expiresAt) {
+        Map<String, Object> claims = createBaseClaims(subject, AppConstants.TOKEN_TYPE_REFRESH);
+        claims.put(AppConstants.CLAIM_REFRESH_FAMILY, familyId);
+        return createToken(claims, subject.email(), tokenId, Date.from(expiresAt));
     }
 
-    private Map<String, Object> createBaseClaims(User user, String tokenType) {
+    private Map<String, Object> createBaseClaims(TokenSubject subject, String tokenType) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put(AppConstants.CLAIM_EMAIL, user.getEmail());
-        claims.put(AppConstants.CLAIM_USER_ID, user.getId());
+        claims.put(AppConstants.CLAIM_EMAIL, subject.email());
+        claims.put(AppConstants.CLAIM_USER_ID, subject.userId());
         claims.put(AppConstants.CLAIM_TYPE, tokenType);
         return claims;
     }
 
-    private String createToken(Map<String, Object> claims, String subject, long expiration) {
+    private String createToken(Map<String, Object> claims, String subject, String tokenId, Date expiresAt) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeyManager.getCurrentKeyId())
                 .setClaims(claims)
+                .setId(tokenId)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .setExpiration(expiresAt)
+                .signWith(jwtKeyManager.getSigningKey(), jwtKeyManager.getSigningAlgorithm())
                 .compact();
     }
 
     @Override
     public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
+    }
+
+    @Override
+    public Optional<JwtPrincipal> verifyToken(String token) {
+        Optional<JwtPrincipal> verified = verifiedTokenCache.get(token);
+        if (verified.isEmpty()) {
+            verified = parseVerifiedClaims(token).flatMap(this::toPrincipal);
+            verified.ifPresent(principal -> verifiedTokenCache.put(token, principal));
+        }
+
+        // Revocation is checked on every call, including cache hits, so logout takes effect immediately
+        if (verified.isPresent() && tokenRevocationService.isRevoked(verified.get().tokenId())) {
+            log.debug("Rejecting revoked token: {}", verified.get().tokenId());
+            return Optional.empty();
+        }
+        return verified;
+    }
+
+    /**
+     * Verifies the signature and expiry exactly once and returns the claims, or empty if the token is invalid
+     */
+    private Optional<Claims> parseVerifiedClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return Optional.of(extractAllClaims(token));
         } catch (ExpiredJwtException e) {
             log.debug("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
@@ -94,7 +142,41 @@ public class JwtServiceImpl implements JwtService {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private Optional<JwtPrincipal> toPrincipal(Claims claims) {
+        Optional<List<String>> permissions = extractPermissions(claims);
+        if (permissions.isEmpty()) {
+            log.debug("Rejecting token encoded against a different permission catalog");
+            return Optional.empty();
+        }
+
+        Date expiration = claims.getExpiration();
+        return Optional.of(new JwtPrincipal(
+                claims.getId(),
+                claims.get(AppConstants.CLAIM_EMAIL, String.class),
+                claims.get(AppConstants.CLAIM_USER_ID, String.class),
+                claims.get(AppConstants.CLAIM_TYPE, String.class),
+                claims.get(AppConstants.CLAIM_ROLE, String.class),
+                permissions.get(),
+                claims.get(AppConstants.CLAIM_REFRESH_FAMILY, String.class),
+                expiration != null ? expiration.toInstant() : null
+        ));
+    }
+
+    /**
+     * Reads either permission format; empty when a compact token was issued against another catalog version,
+     * in which case the client has to refresh to obtain a token in the current format
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<List<String>> extractPermissions(Claims claims) {
+        String encoded = claims.get(AppConstants.CLAIM_PERMISSION_BITS, String.class);
+        if (encoded != null) {
+            return permissionCatalog.decode(encoded, claims.get(AppConstants.CLAIM_PERMISSION_CATALOG_VERSION, String.class));
+        }
+        List<String> permissions = (List<String>) claims.get(AppConstants.CLAIM_PERMISSIONS);
+        return Optional.of(permissions != null ? permissions : List.of());
     }
 
     @Override
@@ -118,9 +200,8 @@ public class JwtServiceImpl implements JwtService {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public List<String> extractPermissionsFromToken(String token) {
-        return extractClaim(token, claims -> (List<String>) claims.get(AppConstants.CLAIM_PERMISSIONS));
+        return extractClaim(token, claims -> extractPermissions(claims).orElse(List.of()));
     }
 
     @Override
@@ -138,9 +219,7 @@ public class JwtServiceImpl implements JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return jwtKeyManager.getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,185 @@
+package com.fundquest.auth.service.impl;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.fundquest.auth.constants.AppConstants;
+import com.fundquest.auth.exception.InvalidTokenException;
+import com.fundquest.auth.service.MicrosoftIdTokenVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies Microsoft ID tokens fully in memory against a kid-indexed copy of the tenant JWKS.
+ * <p>
+ * The key set is loaded at startup and refreshed ahead of need on a schedule. A failed refresh keeps
+ * serving the previous keys (stale-while-revalidate). A token signed with an unknown kid is rejected and
+ * triggers one rate-limited background refresh, so Microsoft key rollover is picked up without ever
+ * fetching on the login thread. {@code azure.id-token.jwks-uri} can point at a local stub for tests.
+ */
+@Service
+@Slf4j
+public class MicrosoftIdTokenVerifierImpl implements MicrosoftIdTokenVerifier {
+
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(10);
+    // Tolerated clock skew between Microsoft and this instance
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    private final WebClient webClient;
+    private final String jwksUri;
+    private final long minRefreshIntervalMs;
+    private final JWTVerifier verifier;
+
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean();
+    private volatile Map<String, RSAPublicKey> keys = Map.of();
+    private final AtomicLong lastRefreshAttempt = new AtomicLong();
+
+    public MicrosoftIdTokenVerifierImpl(
+            WebClient webClient,
+            @Value("${azure.tenant-id}") String tenantId,
+            @Value("${azure.client-id}") String clientId,
+            @Value("${azure.id-token.jwks-uri:" + AppConstants.MICROSOFT_JWKS_URL + "}") String jwksUri,
+            @Value("${azure.id-token.issuer:" + AppConstants.MICROSOFT_ISSUER + "}") String issuer,
+            @Value("${azure.id-token.min-refresh-interval-ms:60000}") long minRefreshIntervalMs) {
+        this.webClient = webClient;
+        this.jwksUri = jwksUri.replace("{tenantId}", tenantId);
+        this.minRefreshIntervalMs = minRefreshIntervalMs;
+        this.verifier = JWT.require(Algorithm.RSA256(new CachedKeyProvider()))
+                .withIssuer(issuer.replace("{tenantId}", tenantId))
+                .withAudience(clientId)
+                .acceptLeeway(CLOCK_SKEW_SECONDS)
+                .build();
+    }
+
+    @Override
+    public DecodedJWT verify(String idToken) {
+        try {
+            return verifier.verify(idToken);
+        } catch (JWTVerificationException e) {
+            log.warn("Microsoft ID token rejected: {}", e.getMessage());
+            throw new InvalidTokenException("Invalid Microsoft ID token", AppConstants.INVALID_ID_TOKEN);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadKeys() {
+        refreshKeys();
+    }
+
+    /**
+     * Refresh-ahead: re-reads the JWKS well before Microsoft retires a key
+     */
+    @Scheduled(fixedDelayString = "${azure.id-token.refresh-interval-ms:3600000}",
+            initialDelayString = "${azure.id-token.refresh-interval-ms:3600000}")
+    public void refreshKeys() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastRefreshAttempt.set(System.currentTimeMillis());
+            String body = webClient.get()
+                    .uri(jwksUri)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block(FETCH_TIMEOUT);
+
+            Map<String, RSAPublicKey> refreshed = parseKeys(body);
+            if (refreshed.isEmpty()) {
+                log.warn("Microsoft JWKS at {} contained no usable keys; keeping {} cached keys", jwksUri, keys.size());
+                return;
+            }
+            keys = refreshed;
+            log.info("Loaded {} Microsoft signing keys", refreshed.size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh Microsoft JWKS, keeping {} cached keys: {}", keys.size(), e.getMessage());
+        } finally {
+            refreshInFlight.set(false);
+        }
+    }
+
+    private void requestRefresh() {
+        long last = lastRefreshAttempt.get();
+        long now = System.currentTimeMillis();
+        // Claiming the slot here keeps a burst of unknown-kid tokens down to a single fetch
+        if (now - last >= minRefreshIntervalMs && !refreshInFlight.get() && lastRefreshAttempt.compareAndSet(last, now)) {
+            CompletableFuture.runAsync(this::refreshKeys);
+        }
+    }
+
+    private static Map<String, RSAPublicKey> parseKeys(String body) throws GeneralSecurityException {
+        Map<String, RSAPublicKey> parsed = new HashMap<>();
+        if (!StringUtils.hasText(body)) {
+            return parsed;
+        }
+
+        JSONArray jwks = new JSONObject(body).optJSONArray("keys");
+        if (jwks == null) {
+            return parsed;
+        }
+
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        for (int i = 0; i < jwks.length(); i++) {
+            JSONObject jwk = jwks.getJSONObject(i);
+            String kid = jwk.optString("kid", null);
+            if (kid == null || !"RSA".equals(jwk.optString("kty")) || "enc".equals(jwk.optString("use"))) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, decoder.decode(jwk.getString("n")));
+            BigInteger exponent = new BigInteger(1, decoder.decode(jwk.getString("e")));
+            parsed.put(kid, (RSAPublicKey) keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        return Map.copyOf(parsed);
+    }
+
+    /**
+     * Serves keys from the in-memory snapshot only; misses schedule a background refresh
+     */
+    private class CachedKeyProvider implements RSAKeyProvider {
+
+        @Override
+        public RSAPublicKey getPublicKeyById(String keyId) {
+            RSAPublicKey key = keyId != null ? keys.get(keyId) : null;
+            if (key == null) {
+                log.debug("Unknown Microsoft signing key id: {}", keyId);
+                requestRefresh();
+            }
+            return key;
+        }
+
+        @Override
+        public RSAPrivateKey getPrivateKey() {
+            return null;
+        }
+
+        @Override
+        public String getPrivateKeyId() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.fundquest.auth.service.impl;
+
+import com.fundquest.auth.entity.RevokedToken;
+import com.fundquest.auth.repository.RevokedTokenRepository;
+import com.fundquest.auth.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token revocation backed by an in-memory jti set and revoked_token_tbl.
+ * Lookups on the request path are a single ConcurrentHashMap read. Entries only live until the
+ * token's own expiry, so the set never holds more than one token-TTL window of revocations.
+ * Revocations made on other instances are picked up by polling the table for rows newer than the
+ * last sync; re-reading overlapping rows is harmless because adding a jti is idempotent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    // Overlap between sync windows to tolerate clock skew between instances
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // jti -> token expiry (epoch millis)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSyncAt = LocalDateTime.now();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+        active.forEach(this::remember);
+        lastSyncAt = now;
+        log.info("Loaded {} active token revocations", active.size());
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String tokenId, String userEmail, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+
+        revokedTokens.put(tokenId, expiresAt.toEpochMilli());
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(tokenId)
+                .userEmail(userEmail)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+        log.info("Revoked token {} for user: {}", tokenId, userEmail);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Pulls revocations recorded by other instances since the last sync
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void syncRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSyncAt.minusSeconds(SYNC_OVERLAP_SECONDS);
+        try {
+            revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now).forEach(this::remember);
+            lastSyncAt = now;
+        } catch (Exception e) {
+            log.warn("Failed to sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drops revocations whose tokens have expired, from memory and from the table
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        long nowMillis = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired token revocations", deleted);
+        }
+    }
+
+    private void remember(RevokedToken revokedToken) {
+        long expiresAt = revokedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        revokedTokens.put(revokedToken.getJti(), expiresAt);
+    }
+}
@@ -6,6 +6,7 @@ import com.fundquest.auth.exception.UserNotFoundException;
 import com.fundquest.auth.repository.UserRepository;
 import com.fundquest.auth.service.UserService;
 import com.fundquest.auth.service.permission.PermissionService;
+import com.fundquest.auth.service.token.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PermissionService permissionService;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     @Transactional(readOnly = true)
@@ -138,6 +140,7 @@ public class UserServiceImpl implements UserService {
         user.setRole(role);
 
         User savedUser = userRepository.save(user);
+        refreshTokenService.invalidateSubjects(savedUser.getEmail());
         log.info("Successfully updated role for user: {}", userId);
         return savedUser;
     }
@@ -150,6 +153,7 @@ public class UserServiceImpl implements UserService {
         user.activate();
 
         User savedUser = userRepository.save(user);
+        refreshTokenService.invalidateSubjects(savedUser.getEmail());
         log.info("Successfully activated user: {}", userId);
         return savedUser;
     }
@@ -162,6 +166,7 @@ public class UserServiceImpl implements UserService {
         user.deactivate();
 
         User savedUser = userRepository.save(user);
+        refreshTokenService.revokeAllForUser(savedUser.getEmail());
         log.info("Successfully deactivated user: {}", userId);
         return savedUser;
     }
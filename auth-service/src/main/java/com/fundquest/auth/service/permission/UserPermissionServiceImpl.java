@@ -4,6 +4,7 @@ import com.fundquest.auth.entity.Permission;
 import com.fundquest.auth.entity.User;
 import com.fundquest.auth.repository.UserRepository;
 import com.fundquest.auth.service.UserService;
+import com.fundquest.auth.service.token.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
@@ -23,6 +24,7 @@ public class UserPermissionServiceImpl implements UserPermissionService {
 
     private final UserRepository userRepository;
     private final PermissionService permissionService;
+    private final RefreshTokenService refreshTokenService;
 
     // Using @Lazy to avoid circular dependency
     @Lazy
@@ -40,6 +42,7 @@ public class UserPermissionServiceImpl implements UserPermissionService {
         }
 
         User savedUser = userRepository.save(user);
+        refreshTokenService.invalidateSubjects(savedUser.getEmail());
         log.info("Successfully assigned {} permissions to user {}", permissionsToAdd.size(), userId);
         return savedUser;
     }
@@ -56,6 +59,7 @@ public class UserPermissionServiceImpl implements UserPermissionService {
         }
 
         User savedUser = userRepository.save(user);
+        refreshTokenService.invalidateSubjects(savedUser.getEmail());
         log.info("Successfully removed {} permissions from user {}", permissionsToRemove.size(), userId);
         return savedUser;
     }
@@ -70,6 +74,7 @@ public class UserPermissionServiceImpl implements UserPermissionService {
         user.setPermissions(newPermissions);
 
         User savedUser = userRepository.save(user);
+        refreshTokenService.invalidateSubjects(savedUser.getEmail());
         log.info("Successfully replaced permissions for user {} with {} permissions", userId, newPermissions.size());
         return savedUser;
     }
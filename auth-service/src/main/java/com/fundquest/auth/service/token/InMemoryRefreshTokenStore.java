@@ -0,0 +1,83 @@
+package com.fundquest.auth.service.token;
+
+import com.fundquest.auth.security.TokenSubject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-instance refresh token store; families are lost on restart, which forces users to log in again.
+ * Enabled with {@code jwt.refresh-token.store=memory}.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-token.store", havingValue = "memory")
+@Slf4j
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<String, RefreshTokenFamily> families = new ConcurrentHashMap<>();
+
+    @Override
+    public void create(RefreshTokenFamily family) {
+        families.put(family.familyId(), family);
+    }
+
+    @Override
+    public Optional<RefreshTokenFamily> find(String familyId) {
+        return Optional.ofNullable(families.get(familyId));
+    }
+
+    @Override
+    public boolean rotate(String familyId, String expectedTokenId, String newTokenId, Instant newExpiresAt) {
+        boolean[] rotated = new boolean[1];
+        families.computeIfPresent(familyId, (id, family) -> {
+            if (family.revoked() || !family.currentTokenId().equals(expectedTokenId)) {
+                return family;
+            }
+            rotated[0] = true;
+            return new RefreshTokenFamily(id, family.userEmail(), newTokenId, family.subject(), newExpiresAt, false,
+                    expectedTokenId, Instant.now());
+        });
+        return rotated[0];
+    }
+
+    @Override
+    public void cacheSubject(String familyId, TokenSubject subject) {
+        families.computeIfPresent(familyId, (id, family) -> new RefreshTokenFamily(
+                id, family.userEmail(), family.currentTokenId(), subject, family.expiresAt(), family.revoked(),
+                family.previousTokenId(), family.rotatedAt()));
+    }
+
+    @Override
+    public void invalidateSubjects(String userEmail) {
+        families.replaceAll((id, family) -> family.userEmail().equals(userEmail)
+                ? new RefreshTokenFamily(id, family.userEmail(), family.currentTokenId(), null, family.expiresAt(),
+                        family.revoked(), family.previousTokenId(), family.rotatedAt())
+                : family);
+    }
+
+    @Override
+    public void revoke(String familyId) {
+        families.computeIfPresent(familyId, (id, family) -> new RefreshTokenFamily(
+                id, family.userEmail(), family.currentTokenId(), null, family.expiresAt(), true,
+                family.previousTokenId(), family.rotatedAt()));
+    }
+
+    @Override
+    public void revokeAllForUser(String userEmail) {
+        families.values().stream()
+                .filter(family -> family.userEmail().equals(userEmail))
+                .forEach(family -> revoke(family.familyId()));
+    }
+
+    @Override
+    public int purgeExpired(Instant cutoff) {
+        int before = families.size();
+        families.values().removeIf(family -> family.expiresAt().isBefore(cutoff));
+        return before - families.size();
+    }
+}
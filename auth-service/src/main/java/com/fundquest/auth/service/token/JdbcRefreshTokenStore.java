@@ -0,0 +1,139 @@
+package com.fundquest.auth.service.token;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fundquest.auth.security.TokenSubject;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Refresh token store backed by refresh_token_family_tbl, shared by every auth-service instance.
+ * Rotation is a conditional UPDATE on current_token_id, so the database arbitrates concurrent refreshes.
+ * This is the default store ({@code jwt.refresh-token.store=jdbc}).
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-token.store", havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String SELECT_COLUMNS =
+            "SELECT family_id, user_email, current_token_id, subject_json, expires_at, revoked, previous_token_id, rotated_at " +
+                    "FROM refresh_token_family_tbl ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void create(RefreshTokenFamily family) {
+        jdbcTemplate.update(
+                "INSERT INTO refresh_token_family_tbl " +
+                        "(family_id, user_email, current_token_id, subject_json, expires_at, revoked) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                family.familyId(), family.userEmail(), family.currentTokenId(), toJson(family.subject()),
+                Timestamp.from(family.expiresAt()), family.revoked());
+    }
+
+    @Override
+    public Optional<RefreshTokenFamily> find(String familyId) {
+        return jdbcTemplate.query(SELECT_COLUMNS + "WHERE family_id = ?", familyRowMapper(), familyId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public boolean rotate(String familyId, String expectedTokenId, String newTokenId, Instant newExpiresAt) {
+        int updated = jdbcTemplate.update(
+                "UPDATE refresh_token_family_tbl " +
+                        "SET current_token_id = ?, expires_at = ?, previous_token_id = current_token_id, rotated_at = ?, " +
+                        "updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE family_id = ? AND current_token_id = ? AND revoked = FALSE",
+                newTokenId, Timestamp.from(newExpiresAt), Timestamp.from(Instant.now()), familyId, expectedTokenId);
+        return updated == 1;
+    }
+
+    @Override
+    public void cacheSubject(String familyId, TokenSubject subject) {
+        jdbcTemplate.update(
+                "UPDATE refresh_token_family_tbl SET subject_json = ?, updated_at = CURRENT_TIMESTAMP WHERE family_id = ?",
+                toJson(subject), familyId);
+    }
+
+    @Override
+    public void invalidateSubjects(String userEmail) {
+        jdbcTemplate.update(
+                "UPDATE refresh_token_family_tbl SET subject_json = NULL, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE user_email = ? AND subject_json IS NOT NULL",
+                userEmail);
+    }
+
+    @Override
+    public void revoke(String familyId) {
+        jdbcTemplate.update(
+                "UPDATE refresh_token_family_tbl SET revoked = TRUE, subject_json = NULL, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE family_id = ?",
+                familyId);
+    }
+
+    @Override
+    public void revokeAllForUser(String userEmail) {
+        jdbcTemplate.update(
+                "UPDATE refresh_token_family_tbl SET revoked = TRUE, subject_json = NULL, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE user_email = ? AND revoked = FALSE",
+                userEmail);
+    }
+
+    @Override
+    public int purgeExpired(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM refresh_token_family_tbl WHERE expires_at < ?", Timestamp.from(cutoff));
+    }
+
+    private RowMapper<RefreshTokenFamily> familyRowMapper() {
+        return (rs, rowNum) -> new RefreshTokenFamily(
+                rs.getString("family_id"),
+                rs.getString("user_email"),
+                rs.getString("current_token_id"),
+                fromJson(rs.getString("subject_json")),
+                rs.getTimestamp("expires_at").toInstant(),
+                rs.getBoolean("revoked"),
+                rs.getString("previous_token_id"),
+                toInstant(rs.getTimestamp("rotated_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    private String toJson(TokenSubject subject) {
+        if (subject == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(subject);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize token subject, it will be reloaded on next refresh: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private TokenSubject fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, TokenSubject.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to read cached token subject, reloading user: {}", e.getMessage());
+            return null;
+        }
+    }
+}
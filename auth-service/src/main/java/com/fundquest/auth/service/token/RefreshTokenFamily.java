@@ -0,0 +1,46 @@
+package com.fundquest.auth.service.token;
+
+import com.fundquest.auth.security.TokenSubject;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A chain of refresh tokens descended from one login. Only {@code currentTokenId} may be exchanged;
+ * presenting any earlier token of the family means it was replayed, and the whole family is revoked.
+ * The single exception is {@code previousTokenId} shortly after it was rotated, which is how two tabs or a
+ * retried request refreshing with the same token at the same moment look.
+ *
+ * @param subject cached user snapshot used to mint tokens, or null when it has been invalidated
+ * @param previousTokenId token exchanged by the last rotation, or null before the first refresh
+ * @param rotatedAt when the last rotation happened, or null before the first refresh
+ */
+public record RefreshTokenFamily(
+        String familyId,
+        String userEmail,
+        String currentTokenId,
+        TokenSubject subject,
+        Instant expiresAt,
+        boolean revoked,
+        String previousTokenId,
+        Instant rotatedAt
+) {
+
+    public RefreshTokenFamily(String familyId, String userEmail, String currentTokenId, TokenSubject subject,
+                              Instant expiresAt, boolean revoked) {
+        this(familyId, userEmail, currentTokenId, subject, expiresAt, revoked, null, null);
+    }
+
+    public boolean isUsable(Instant now) {
+        return !revoked && expiresAt.isAfter(now);
+    }
+
+    /**
+     * Whether {@code tokenId} is the token replaced by the last rotation and that rotation is less than
+     * {@code grace} old
+     */
+    public boolean isRecentPredecessor(String tokenId, Instant now, Duration grace) {
+        return previousTokenId != null && previousTokenId.equals(tokenId)
+                && rotatedAt != null && !now.isAfter(rotatedAt.plus(grace));
+    }
+}
@@ -0,0 +1,15 @@
+package com.fundquest.auth.service.token;
+
+import com.fundquest.auth.security.TokenSubject;
+
+/**
+ * Outcome of a successful refresh: the user snapshot to mint the access token from and the
+ * refresh token that replaces the one just presented
+ */
+public record RefreshTokenRotation(TokenSubject subject, String refreshToken) {
+
+    @Override
+    public String toString() {
+        return "RefreshTokenRotation[subject=" + subject.email() + ", refreshToken=***]";
+    }
+}
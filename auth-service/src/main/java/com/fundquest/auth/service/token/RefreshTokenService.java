@@ -0,0 +1,36 @@
+package com.fundquest.auth.service.token;
+
+import com.fundquest.auth.dto.response.AuthUserData;
+import com.fundquest.auth.entity.User;
+
+public interface RefreshTokenService {
+
+    /**
+     * Start a new refresh token family for a freshly authenticated user
+     * @return the first refresh token of the family
+     */
+    String issue(User user, AuthUserData userData);
+
+    /**
+     * Exchange a refresh token for its successor. Presenting a token that was already exchanged
+     * revokes the whole family, unless it was exchanged moments ago by a concurrent request, in which
+     * case that request's successor is returned again.
+     * @throws com.fundquest.auth.exception.InvalidTokenException if the token is invalid, revoked or reused
+     */
+    RefreshTokenRotation rotate(String refreshToken);
+
+    /**
+     * Revoke the family a refresh token belongs to, e.g. on logout
+     */
+    void revokeFamily(String familyId);
+
+    /**
+     * Force the next refresh of every session of this user to reload it (role/permission change)
+     */
+    void invalidateSubjects(String userEmail);
+
+    /**
+     * Revoke every session of this user (deactivation)
+     */
+    void revokeAllForUser(String userEmail);
+}
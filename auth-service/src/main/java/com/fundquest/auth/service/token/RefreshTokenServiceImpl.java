@@ -0,0 +1,153 @@
+package com.fundquest.auth.service.token;
+
+import com.fundquest.auth.constants.AppConstants;
+import com.fundquest.auth.dto.response.AuthUserData;
+import com.fundquest.auth.entity.User;
+import com.fundquest.auth.exception.InvalidTokenException;
+import com.fundquest.auth.repository.UserRepository;
+import com.fundquest.auth.security.JwtPrincipal;
+import com.fundquest.auth.security.TokenSubject;
+import com.fundquest.auth.service.JwtService;
+import com.fundquest.auth.util.UserMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Refresh token rotation with reuse detection.
+ * Every refresh token carries its family id (fid) and jti; the store remembers the only jti of each
+ * family that may still be exchanged. A refresh is one token verification, one family read and one
+ * compare-and-set, and mints from the cached {@link TokenSubject} so the user is only reloaded after
+ * its role, permissions or status changed.
+ * <p>
+ * Two tabs or a retried request can present the same token at the same moment. Within
+ * {@code jwt.refresh-token.reuse-grace-ms} of a rotation the token it replaced is answered with the
+ * family's current token (same jti, nothing rotates); after that it counts as reuse and revokes the family.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    @Value("${jwt.refresh-token.reuse-grace-ms:5000}")
+    private long reuseGraceMs;
+
+    @Override
+    public String issue(User user, AuthUserData userData) {
+        TokenSubject subject = TokenSubject.from(user, userData);
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        Instant expiresAt = nextExpiry();
+
+        refreshTokenStore.create(new RefreshTokenFamily(familyId, subject.email(), tokenId, subject, expiresAt, false));
+        return jwtService.generateRefreshToken(subject, tokenId, familyId, expiresAt);
+    }
+
+    @Override
+    // The family revocation on reuse must survive the exception that reports it
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public RefreshTokenRotation rotate(String refreshToken) {
+        JwtPrincipal token = jwtService.verifyToken(refreshToken)
+                .filter(JwtPrincipal::isRefreshToken)
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token", AppConstants.INVALID_REFRESH_TOKEN));
+
+        if (token.familyId() == null) {
+            // Issued before rotation was introduced; the user has to log in again once
+            throw new InvalidTokenException("Refresh token is not part of a session", AppConstants.INVALID_REFRESH_TOKEN);
+        }
+
+        RefreshTokenFamily family = refreshTokenStore.find(token.familyId())
+                .filter(candidate -> candidate.isUsable(Instant.now()))
+                .orElseThrow(() -> new InvalidTokenException("Refresh token session has ended", AppConstants.INVALID_REFRESH_TOKEN));
+
+        if (!family.currentTokenId().equals(token.tokenId())) {
+            return reissueSuccessor(family, token.tokenId());
+        }
+
+        TokenSubject subject = family.subject() != null ? family.subject() : reloadSubject(family);
+
+        String newTokenId = UUID.randomUUID().toString();
+        Instant expiresAt = nextExpiry();
+        if (!refreshTokenStore.rotate(family.familyId(), token.tokenId(), newTokenId, expiresAt)) {
+            // Another request exchanged the same token between our read and our write
+            RefreshTokenFamily current = refreshTokenStore.find(family.familyId())
+                    .filter(candidate -> candidate.isUsable(Instant.now()))
+                    .orElseThrow(() -> new InvalidTokenException("Refresh token session has ended", AppConstants.INVALID_REFRESH_TOKEN));
+            return reissueSuccessor(current, token.tokenId());
+        }
+
+        String newRefreshToken = jwtService.generateRefreshToken(subject, newTokenId, family.familyId(), expiresAt);
+        return new RefreshTokenRotation(subject, newRefreshToken);
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        if (familyId != null) {
+            refreshTokenStore.revoke(familyId);
+        }
+    }
+
+    @Override
+    public void invalidateSubjects(String userEmail) {
+        refreshTokenStore.invalidateSubjects(userEmail);
+    }
+
+    @Override
+    public void revokeAllForUser(String userEmail) {
+        refreshTokenStore.revokeAllForUser(userEmail);
+        log.info("Revoked all refresh token sessions for user: {}", userEmail);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval-ms:3600000}")
+    public void purgeExpiredFamilies() {
+        int purged = refreshTokenStore.purgeExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh token families", purged);
+        }
+    }
+
+    private TokenSubject reloadSubject(RefreshTokenFamily family) {
+        User user = userRepository.findByEmailAndIsActiveTrue(family.userEmail())
+                .orElseThrow(() -> new InvalidTokenException("User is no longer active", AppConstants.INVALID_REFRESH_TOKEN));
+        TokenSubject subject = TokenSubject.from(user, userMapper.toAuthUserData(user));
+        refreshTokenStore.cacheSubject(family.familyId(), subject);
+        return subject;
+    }
+
+    /**
+     * Answer a token that is no longer current: with the family's current token if it was replaced within
+     * the grace window, otherwise by revoking the family
+     */
+    private RefreshTokenRotation reissueSuccessor(RefreshTokenFamily family, String presentedTokenId) {
+        if (!family.isRecentPredecessor(presentedTokenId, Instant.now(), Duration.ofMillis(reuseGraceMs))) {
+            revokeOnReuse(family);
+        }
+        log.debug("Concurrent refresh for session {}; returning its current token", family.familyId());
+        TokenSubject subject = family.subject() != null ? family.subject() : reloadSubject(family);
+        String successor = jwtService.generateRefreshToken(
+                subject, family.currentTokenId(), family.familyId(), family.expiresAt());
+        return new RefreshTokenRotation(subject, successor);
+    }
+
+    private void revokeOnReuse(RefreshTokenFamily family) {
+        refreshTokenStore.revoke(family.familyId());
+        log.warn("Refresh token reuse detected for user {}; session {} revoked", family.userEmail(), family.familyId());
+        throw new InvalidTokenException("Refresh token has already been used", AppConstants.REFRESH_TOKEN_REUSED);
+    }
+
+    private static Instant nextExpiry() {
+        return Instant.now().plusMillis(AppConstants.REFRESH_TOKEN_EXPIRY);
+    }
+}
@@ -0,0 +1,47 @@
+package com.fundquest.auth.service.token;
+
+import com.fundquest.auth.security.TokenSubject;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Persistence for refresh token families.
+ * Implementations must make {@link #rotate} an atomic compare-and-set so two concurrent refreshes
+ * with the same token cannot both succeed.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Start a new family at login
+     */
+    void create(RefreshTokenFamily family);
+
+    Optional<RefreshTokenFamily> find(String familyId);
+
+    /**
+     * Replace the family's current token if, and only if, it is still {@code expectedTokenId}
+     * @return false if the family is revoked or another token has already been exchanged
+     */
+    boolean rotate(String familyId, String expectedTokenId, String newTokenId, Instant newExpiresAt);
+
+    /**
+     * Cache the user snapshot on the family so later refreshes skip the user lookup
+     */
+    void cacheSubject(String familyId, TokenSubject subject);
+
+    /**
+     * Drop cached snapshots for a user after their role, permissions or status change
+     */
+    void invalidateSubjects(String userEmail);
+
+    void revoke(String familyId);
+
+    void revokeAllForUser(String userEmail);
+
+    /**
+     * Remove families whose last token expired before {@code cutoff}
+     * @return number of families removed
+     */
+    int purgeExpired(Instant cutoff);
+}
@@ -1,9 +1,7 @@
 package com.fundquest.auth.util;
 
 import com.fundquest.auth.dto.response.AuthResponse;
-import com.fundquest.auth.entity.User;
-import com.fundquest.auth.service.JwtService;
-import com.fundquest.auth.service.UserService;
+import com.fundquest.auth.dto.response.AuthResult;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,31 +12,18 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class AuthResponseHelper {
 
-    private final JwtService jwtService;
-    private final UserService userService;
     private final CookieHelper cookieHelper;
 
     /**
-     * Prepares complete authentication response with refresh token cookie
+     * Sets the refresh token from the auth result as an HTTP-only cookie and returns the response body
      */
-    public void prepareAuthResponseWithCookie(AuthResponse authResponse, HttpServletResponse response) {
-        try {
-            // Extract email from access token to get user
-            String email = jwtService.extractEmailFromToken(authResponse.getAccessToken());
-            User user = userService.findByEmail(email);
+    public AuthResponse prepareAuthResponseWithCookie(AuthResult authResult, HttpServletResponse response) {
+        cookieHelper.setRefreshTokenCookie(response, authResult.refreshToken());
 
-            // Generate refresh token
-            String refreshToken = jwtService.generateRefreshToken(user);
-
-            // Set refresh token as HTTP-only cookie
-            cookieHelper.setRefreshTokenCookie(response, refreshToken);
-
-            log.info("Auth response prepared with refresh token cookie for user: {}", email);
-
-        } catch (Exception e) {
-            log.error("Error preparing auth response with cookie", e);
-            throw new RuntimeException("Failed to prepare authentication response", e);
-        }
+        AuthResponse authResponse = authResult.response();
+        log.info("Auth response prepared with refresh token cookie for user: {}",
+                authResponse.getUser() != null ? authResponse.getUser().getEmail() : null);
+        return authResponse;
     }
 
     /**
@@ -48,4 +33,4 @@ public class AuthResponseHelper {
         cookieHelper.clearRefreshTokenCookie(response);
         log.debug("Authentication session cleared");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,360 @@
+package com.fundquest.auth.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the originating client address of a request behind a chain of trusted proxies.
+ * <p>
+ * Forwarding headers are only honoured when the direct peer is a trusted proxy. The
+ * {@code X-Client-Address} header set by the api-gateway wins; otherwise {@code X-Forwarded-For}
+ * is scanned right to left, skipping trusted hops. Scanning and validation work on character
+ * ranges of the header, so the only allocation is the returned address itself.
+ * <p>
+ * Trusted proxies are configured as IPv4 or IPv6 addresses or CIDR ranges. Both families are compared
+ * numerically, so {@code ::1} also matches the {@code 0:0:0:0:0:0:0:1} form servlet containers report.
+ */
+@Component
+@Slf4j
+public class ClientAddressResolver {
+
+    public static final String FALLBACK_ADDRESS = "127.0.0.1";
+
+    private static final int MAX_ADDRESS_LENGTH = 45; // ip_address column, long enough for IPv6
+
+    private final int[] trustedNetworks;
+    private final int[] trustedMasks;
+    // IPv6 networks and masks as upper and lower 64 bits
+    private final long[] trustedIpv6High;
+    private final long[] trustedIpv6Low;
+    private final long[] trustedIpv6MaskHigh;
+    private final long[] trustedIpv6MaskLow;
+
+    public ClientAddressResolver(
+            @Value("${spring.audit.client-address.trusted-proxies:127.0.0.1,::1,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+            List<String> trustedProxies) {
+        List<int[]> ipv4 = new ArrayList<>();
+        List<long[]> ipv6 = new ArrayList<>();
+        for (String entry : trustedProxies) {
+            String proxy = entry.trim();
+            if (proxy.isEmpty()) {
+                continue;
+            }
+            int slash = proxy.indexOf('/');
+            String address = slash < 0 ? proxy : proxy.substring(0, slash);
+            long parsed = parseIpv4(address, 0, address.length());
+            if (parsed >= 0) {
+                int prefix = slash < 0 ? 32 : parsePrefix(proxy, slash + 1);
+                if (prefix >= 0 && prefix <= 32) {
+                    int mask = prefix == 0 ? 0 : -1 << (32 - prefix);
+                    ipv4.add(new int[]{(int) parsed & mask, mask});
+                    continue;
+                }
+            } else if (isValidIpv6(address, 0, address.length())) {
+                int prefix = slash < 0 ? 128 : parsePrefix(proxy, slash + 1);
+                if (prefix >= 0 && prefix <= 128) {
+                    long maskHigh = prefix == 0 ? 0 : prefix >= 64 ? -1L : -1L << (64 - prefix);
+                    long maskLow = prefix <= 64 ? 0 : -1L << (128 - prefix);
+                    ipv6.add(new long[]{
+                            ipv6Half(address, 0, address.length(), true) & maskHigh,
+                            ipv6Half(address, 0, address.length(), false) & maskLow,
+                            maskHigh, maskLow});
+                    continue;
+                }
+            }
+            log.warn("Ignoring invalid trusted proxy entry: {}", proxy);
+        }
+        this.trustedNetworks = new int[ipv4.size()];
+        this.trustedMasks = new int[ipv4.size()];
+        for (int i = 0; i < ipv4.size(); i++) {
+            trustedNetworks[i] = ipv4.get(i)[0];
+            trustedMasks[i] = ipv4.get(i)[1];
+        }
+        this.trustedIpv6High = new long[ipv6.size()];
+        this.trustedIpv6Low = new long[ipv6.size()];
+        this.trustedIpv6MaskHigh = new long[ipv6.size()];
+        this.trustedIpv6MaskLow = new long[ipv6.size()];
+        for (int i = 0; i < ipv6.size(); i++) {
+            trustedIpv6High[i] = ipv6.get(i)[0];
+            trustedIpv6Low[i] = ipv6.get(i)[1];
+            trustedIpv6MaskHigh[i] = ipv6.get(i)[2];
+            trustedIpv6MaskLow[i] = ipv6.get(i)[3];
+        }
+    }
+
+    /**
+     * Resolve the client address from the direct peer and its forwarding headers
+     * @param remoteAddress address of the direct peer
+     * @param gatewayClientAddress {@code X-Client-Address} header value, may be null
+     * @param forwardedFor {@code X-Forwarded-For} header value, may be null
+     * @return the client address, or {@link #FALLBACK_ADDRESS} if nothing valid is found
+     */
+    public String resolve(String remoteAddress, String gatewayClientAddress, String forwardedFor) {
+        boolean remoteValid = remoteAddress != null && isValidAddress(remoteAddress, 0, remoteAddress.length());
+        if (!remoteValid) {
+            return FALLBACK_ADDRESS;
+        }
+        if (!isTrusted(remoteAddress, 0, remoteAddress.length())) {
+            return remoteAddress;
+        }
+
+        if (gatewayClientAddress != null) {
+            int start = skipWhitespace(gatewayClientAddress, 0, gatewayClientAddress.length());
+            int end = trimEnd(gatewayClientAddress, start, gatewayClientAddress.length());
+            if (isValidAddress(gatewayClientAddress, start, end)) {
+                return slice(gatewayClientAddress, start, end);
+            }
+        }
+
+        if (forwardedFor != null) {
+            // Walk hops from the nearest proxy outwards; the first untrusted one is the client
+            int end = forwardedFor.length();
+            while (end > 0) {
+                int comma = forwardedFor.lastIndexOf(',', end - 1);
+                int start = skipWhitespace(forwardedFor, comma + 1, end);
+                int hopEnd = trimEnd(forwardedFor, start, end);
+                if (!isValidAddress(forwardedFor, start, hopEnd)) {
+                    break;
+                }
+                if (!isTrusted(forwardedFor, start, hopEnd) || comma < 0) {
+                    return slice(forwardedFor, start, hopEnd);
+                }
+                end = comma;
+            }
+        }
+
+        return remoteAddress;
+    }
+
+    /**
+     * Check whether {@code value} is a syntactically valid IPv4 or IPv6 address
+     */
+    public static boolean isValidAddress(String value) {
+        return value != null && isValidAddress(value, 0, value.length());
+    }
+
+    // value must already be a valid address
+    private boolean isTrusted(String value, int start, int end) {
+        long ipv4 = parseIpv4(value, start, end);
+        if (ipv4 >= 0) {
+            for (int i = 0; i < trustedNetworks.length; i++) {
+                if (((int) ipv4 & trustedMasks[i]) == trustedNetworks[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (trustedIpv6High.length == 0) {
+            return false;
+        }
+        long high = ipv6Half(value, start, end, true);
+        long low = ipv6Half(value, start, end, false);
+        for (int i = 0; i < trustedIpv6High.length; i++) {
+            if ((high & trustedIpv6MaskHigh[i]) == trustedIpv6High[i] && (low & trustedIpv6MaskLow[i]) == trustedIpv6Low[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isValidAddress(String value, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length > MAX_ADDRESS_LENGTH) {
+            return false;
+        }
+        return parseIpv4(value, start, end) >= 0 || isValidIpv6(value, start, end);
+    }
+
+    /**
+     * Parse a CIDR prefix length of one to three decimal digits
+     * @return the prefix length, or -1 if the suffix is not a number
+     */
+    private static int parsePrefix(String value, int start) {
+        int length = value.length() - start;
+        if (length < 1 || length > 3) {
+            return -1;
+        }
+        int prefix = 0;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+        return prefix;
+    }
+
+    /**
+     * Parse a dotted-quad IPv4 address into its unsigned 32-bit value
+     * @return the address as a non-negative long, or -1 if the range is not a valid IPv4 address
+     */
+    private static long parseIpv4(String value, int start, int end) {
+        long address = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet < 0 ? c - '0' : octet * 10 + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 3) {
+                address = (address << 8) | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | octet;
+    }
+
+    /**
+     * Validate an IPv6 address: up to eight groups of 1-4 hex digits, at most one "::",
+     * optionally ending in an embedded IPv4 address
+     */
+    private static boolean isValidIpv6(String value, int start, int end) {
+        if (end - start < 2) {
+            return false;
+        }
+        int groups = 0;
+        int digits = 0;
+        boolean compressed = false;
+        int groupStart = start;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == ':') {
+                if (i + 1 < end && value.charAt(i + 1) == ':') {
+                    if (compressed) {
+                        return false;
+                    }
+                    compressed = true;
+                    if (digits > 0) {
+                        groups++;
+                    }
+                    i++;
+                } else if (digits == 0) {
+                    return false; // single leading colon or empty group
+                } else {
+                    groups++;
+                    if (i + 1 == end) {
+                        return false; // trailing single colon
+                    }
+                }
+                digits = 0;
+                groupStart = i + 1;
+            } else if (c == '.') {
+                // Embedded IPv4 tail counts as two groups
+                if (parseIpv4(value, groupStart, end) < 0) {
+                    return false;
+                }
+                groups += 2;
+                digits = 0;
+                break;
+            } else if (isHexDigit(c) && digits < 4) {
+                digits++;
+            } else {
+                return false;
+            }
+        }
+        if (digits > 0) {
+            groups++;
+        }
+        return compressed ? groups < 8 : groups == 8;
+    }
+
+    /**
+     * Upper or lower 64 bits of an address already accepted by {@link #isValidIpv6}, with "::" and an
+     * embedded IPv4 tail expanded
+     */
+    private static long ipv6Half(String value, int start, int end, boolean upper) {
+        // 128-bit accumulators: groups before "::" (head) and groups read since the start or since "::"
+        long headHigh = 0;
+        long headLow = 0;
+        int headGroups = -1;
+        long high = 0;
+        long low = 0;
+        int groups = 0;
+        int group = 0;
+        int digits = 0;
+        int groupStart = start;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == ':') {
+                if (digits > 0) {
+                    high = (high << 16) | (low >>> 48);
+                    low = (low << 16) | group;
+                    groups++;
+                }
+                if (i + 1 < end && value.charAt(i + 1) == ':') {
+                    headHigh = high;
+                    headLow = low;
+                    headGroups = groups;
+                    high = 0;
+                    low = 0;
+                    groups = 0;
+                    i++;
+                }
+                group = 0;
+                digits = 0;
+                groupStart = i + 1;
+            } else if (c == '.') {
+                long ipv4 = parseIpv4(value, groupStart, end);
+                high = (high << 32) | (low >>> 32);
+                low = (low << 32) | ipv4;
+                digits = 0;
+                break;
+            } else {
+                group = (group << 4) | Character.digit(c, 16);
+                digits++;
+            }
+        }
+        if (digits > 0) {
+            high = (high << 16) | (low >>> 48);
+            low = (low << 16) | group;
+        }
+        if (headGroups > 0) {
+            // The head moves above the compressed zeros and the tail: a shift of 16..112 bits
+            int shift = 16 * (8 - headGroups);
+            if (shift >= 64) {
+                high |= headLow << (shift - 64);
+            } else {
+                high |= (headHigh << shift) | (headLow >>> (64 - shift));
+                low |= headLow << shift;
+            }
+        }
+        return upper ? high : low;
+    }
+
+    // ASCII only; Character.digit would also accept fullwidth and other Unicode digits
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static int skipWhitespace(String value, int start, int end) {
+        while (start < end && value.charAt(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String value, int start, int end) {
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static String slice(String value, int start, int end) {
+        return start == 0 && end == value.length() ? value : value.substring(start, end);
+    }
+}
@@ -0,0 +1,27 @@
+package com.fundquest.auth.util.pagination;
+
+/**
+ * How a paginated listing obtains its total element count
+ */
+public enum CountMode {
+
+    /**
+     * COUNT query with the same filters on every request
+     */
+    EXACT,
+
+    /**
+     * COUNT query result reused for a short TTL, keyed by the normalized filter
+     */
+    CACHED,
+
+    /**
+     * PostgreSQL planner statistics (reltuples); only meaningful for unfiltered listings
+     */
+    ESTIMATED,
+
+    /**
+     * No total at all: the page only reports whether a next page exists
+     */
+    NONE
+}
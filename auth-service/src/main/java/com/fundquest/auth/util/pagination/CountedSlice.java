@@ -0,0 +1,20 @@
+package com.fundquest.auth.util.pagination;
+
+import org.springframework.data.domain.Slice;
+
+/**
+ * A page of results together with how its total was obtained
+ * @param slice content and hasNext, fetched without a count query
+ * @param totalElements total element count, or null when none was requested ({@link CountMode#NONE})
+ * @param totalEstimated whether the total comes from a cache or planner statistics rather than a fresh count
+ */
+public record CountedSlice<T>(Slice<T> slice, Long totalElements, boolean totalEstimated) {
+
+    public Integer totalPages() {
+        if (totalElements == null) {
+            return null;
+        }
+        int size = slice.getSize();
+        return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+}
@@ -0,0 +1,100 @@
+package com.fundquest.auth.util.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Resolves the total of a listing fetched as a {@link Slice} according to a {@link CountMode}.
+ * The content query never counts; a total is only computed when the mode asks for one, and not at all when
+ * the slice itself shows it is the last page (offset + rows is then the exact total).
+ * Cached counts live in a bounded Caffeine cache with a short TTL ({@code pagination.count-cache.*}).
+ */
+@Component
+@Slf4j
+public class PageCounter {
+
+    private static final String CACHE_NAME = "pagination.counts";
+    private static final char KEY_SEPARATOR = '\u001F';
+
+    private final Cache<String, Long> countCache;
+
+    public PageCounter(@Value("${pagination.count-cache.max-size:1000}") long maxSize,
+                       @Value("${pagination.count-cache.ttl-seconds:30}") long ttlSeconds,
+                       MeterRegistry meterRegistry) {
+        this.countCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, countCache, CACHE_NAME);
+    }
+
+    /**
+     * @param slice the fetched page
+     * @param mode how to obtain the total
+     * @param cacheKey normalized filter key (see {@link #key}) for {@link CountMode#CACHED}
+     * @param exactCount COUNT query with the listing's filters
+     * @param estimatedCount planner estimate for unfiltered listings; null falls back to a cached count
+     */
+    public <T> CountedSlice<T> count(Slice<T> slice, CountMode mode, String cacheKey,
+                                     LongSupplier exactCount, LongSupplier estimatedCount) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                : slice.getNumberOfElements();
+
+        // Last page reached: the total is known without counting (a page past the end tells us nothing)
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            return new CountedSlice<>(slice, seen, false);
+        }
+
+        // Totals reused from a cache or statistics never claim fewer rows than the client has already seen
+        long atLeast = seen + (slice.hasNext() ? 1 : 0);
+        return switch (mode) {
+            case NONE -> new CountedSlice<>(slice, null, false);
+            case EXACT -> new CountedSlice<>(slice, exactCount.getAsLong(), false);
+            case ESTIMATED -> estimatedCount != null
+                    ? new CountedSlice<>(slice, Math.max(estimatedCount.getAsLong(), atLeast), true)
+                    : cached(slice, cacheKey, exactCount, atLeast);
+            case CACHED -> cached(slice, cacheKey, exactCount, atLeast);
+        };
+    }
+
+    /**
+     * Cache key from a listing name and its filters. Filters are keyed exactly as the query matches them:
+     * wrap the ones matched case-insensitively in {@link #ignoreCase} so equivalent inputs share one cached
+     * count, and pass exact-match filters as they are.
+     */
+    public static String key(String listing, Object... filters) {
+        StringBuilder key = new StringBuilder(listing);
+        for (Object filter : filters) {
+            key.append(KEY_SEPARATOR);
+            if (filter != null) {
+                // Marks presence, so an absent filter and an empty value get different keys
+                key.append('=').append(filter);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Key form of a filter the query trims and matches case-insensitively; blank counts as absent
+     */
+    public static String ignoreCase(String text) {
+        return text == null || text.isBlank() ? null : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private <T> CountedSlice<T> cached(Slice<T> slice, String cacheKey, LongSupplier exactCount, long atLeast) {
+        Long total = countCache.get(cacheKey, key -> exactCount.getAsLong());
+        return new CountedSlice<>(slice, Math.max(total, atLeast), true);
+    }
+}
@@ -0,0 +1,9 @@
+-- V10__Add_Refresh_Token_Reuse_Grace.sql
+-- Remember the token replaced by the last rotation so a concurrent refresh with it (two tabs, a retried
+-- request) can be answered with the family's current token instead of being treated as theft
+
+ALTER TABLE refresh_token_family_tbl ADD COLUMN previous_token_id VARCHAR(64);
+ALTER TABLE refresh_token_family_tbl ADD COLUMN rotated_at TIMESTAMP;
+
+COMMENT ON COLUMN refresh_token_family_tbl.previous_token_id IS 'jti exchanged by the last rotation; accepted again only within the reuse grace window';
+COMMENT ON COLUMN refresh_token_family_tbl.rotated_at IS 'When current_token_id was last replaced';
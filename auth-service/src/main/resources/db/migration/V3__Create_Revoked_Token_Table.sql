@@ -0,0 +1,16 @@
+-- V3__Create_Revoked_Token_Table.sql
+-- Persists revoked token ids (jti) so revocations survive restarts and reach every auth-service instance
+
+CREATE TABLE revoked_token_tbl (
+    jti VARCHAR(64) PRIMARY KEY,
+    user_email VARCHAR(255),
+    expires_at TIMESTAMP NOT NULL, -- Original token expiry; the row is useless after this
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Instances poll for revocations newer than their last sync
+CREATE INDEX idx_revoked_token_revoked_at ON revoked_token_tbl(revoked_at);
+-- Expired rows are purged periodically
+CREATE INDEX idx_revoked_token_expires_at ON revoked_token_tbl(expires_at);
+
+COMMENT ON TABLE revoked_token_tbl IS 'Revoked JWT ids, kept until the original token expires';
@@ -0,0 +1,19 @@
+-- V4__Create_Refresh_Token_Family_Table.sql
+-- Refresh token rotation families: one row per login, rotated on every refresh
+
+CREATE TABLE refresh_token_family_tbl (
+    family_id VARCHAR(64) PRIMARY KEY,
+    user_email VARCHAR(255) NOT NULL,
+    current_token_id VARCHAR(64) NOT NULL, -- jti of the only refresh token that may still be exchanged
+    subject_json TEXT, -- Cached user snapshot used to mint tokens; NULL forces a reload from user_tbl
+    expires_at TIMESTAMP NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_refresh_family_user_email ON refresh_token_family_tbl(user_email);
+CREATE INDEX idx_refresh_family_expires_at ON refresh_token_family_tbl(expires_at);
+
+COMMENT ON TABLE refresh_token_family_tbl IS 'Refresh token rotation families with reuse detection';
+COMMENT ON COLUMN refresh_token_family_tbl.current_token_id IS 'Presenting any other token of the family revokes it';
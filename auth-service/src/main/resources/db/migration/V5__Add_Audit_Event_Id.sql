@@ -0,0 +1,8 @@
+-- V5__Add_Audit_Event_Id.sql
+-- Idempotency key for audit events so spooled events can be replayed without duplicates
+
+ALTER TABLE audit_trail_tbl ADD COLUMN event_id VARCHAR(36);
+
+CREATE UNIQUE INDEX ux_audit_event_id ON audit_trail_tbl(event_id);
+
+COMMENT ON COLUMN audit_trail_tbl.event_id IS 'Client-generated idempotency key; NULL for rows written before V5';
@@ -0,0 +1,115 @@
+-- V6__Partition_Audit_Trail_Table.sql
+-- Rebuilds audit_trail_tbl as a table range-partitioned by month on initiated_timestamp.
+-- Retention drops whole partitions instead of DELETE scans, and date-range searches prune partitions.
+-- Future partitions are created by AuditPartitionManager; this migration covers existing data plus three months.
+
+ALTER TABLE audit_trail_tbl RENAME TO audit_trail_legacy_tbl;
+-- Renaming a table keeps its constraint names; free audit_trail_tbl_pkey for the new table
+ALTER TABLE audit_trail_legacy_tbl RENAME CONSTRAINT audit_trail_tbl_pkey TO audit_trail_legacy_tbl_pkey;
+ALTER SEQUENCE audit_trail_tbl_id_seq OWNED BY NONE;
+
+-- Index names are schema-wide; the legacy copies go away with the legacy table anyway
+DROP INDEX idx_audit_user_email, idx_audit_action_type, idx_audit_resource_type, idx_audit_initiated_timestamp,
+    idx_audit_initiated_date, idx_audit_status, idx_audit_service_name, idx_audit_user_date, idx_audit_action_date,
+    idx_audit_resource_date, ux_audit_event_id;
+
+CREATE TABLE audit_trail_tbl (
+    id BIGINT NOT NULL DEFAULT nextval('audit_trail_tbl_id_seq'),
+    event_id VARCHAR(36),
+
+    -- User Information
+    user_email VARCHAR(255),
+    user_name VARCHAR(255),
+    user_role VARCHAR(100),
+
+    -- Action Information
+    action_type VARCHAR(100) NOT NULL,
+    action_description TEXT NOT NULL,
+
+    -- Resource Information
+    resource_type VARCHAR(100),
+    resource_id VARCHAR(255),
+    resource_identifier VARCHAR(255),
+
+    -- Request Information
+    endpoint VARCHAR(500),
+    http_method VARCHAR(10),
+    request_parameters TEXT,
+
+    -- Timestamp Information (initiated_timestamp is the partition key)
+    initiated_date DATE NOT NULL,
+    initiated_time TIME NOT NULL,
+    initiated_timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Additional Context
+    ip_address VARCHAR(45),
+    user_agent TEXT,
+    session_id VARCHAR(255),
+
+    -- Status Information
+    status VARCHAR(20) NOT NULL DEFAULT 'SUCCESS',
+    error_message TEXT,
+
+    -- Metadata
+    service_name VARCHAR(100) DEFAULT 'auth-service',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Unique constraints on a partitioned table must include the partition key
+    CONSTRAINT audit_trail_tbl_pkey PRIMARY KEY (id, initiated_timestamp)
+) PARTITION BY RANGE (initiated_timestamp);
+
+ALTER SEQUENCE audit_trail_tbl_id_seq OWNED BY audit_trail_tbl.id;
+
+-- Safety net for rows outside every monthly partition; expected to stay empty
+CREATE TABLE audit_trail_tbl_default PARTITION OF audit_trail_tbl DEFAULT;
+
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE := date_trunc('month', CURRENT_DATE + INTERVAL '3 months')::DATE;
+    partition_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(initiated_timestamp), CURRENT_DATE))::DATE
+    INTO first_month
+    FROM audit_trail_legacy_tbl;
+
+    partition_month := first_month;
+    WHILE partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF audit_trail_tbl FOR VALUES FROM (%L) TO (%L)',
+                       'audit_trail_tbl_p' || to_char(partition_month, 'YYYY_MM'),
+                       partition_month, (partition_month + INTERVAL '1 month')::DATE);
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO audit_trail_tbl (id, event_id, user_email, user_name, user_role, action_type, action_description,
+                             resource_type, resource_id, resource_identifier, endpoint, http_method,
+                             request_parameters, initiated_date, initiated_time, initiated_timestamp, ip_address,
+                             user_agent, session_id, status, error_message, service_name, created_at)
+SELECT id, event_id, user_email, user_name, user_role, action_type, action_description,
+       resource_type, resource_id, resource_identifier, endpoint, http_method,
+       request_parameters, initiated_date, initiated_time, initiated_timestamp, ip_address,
+       user_agent, session_id, status, error_message, service_name, created_at
+FROM audit_trail_legacy_tbl;
+
+DROP TABLE audit_trail_legacy_tbl;
+
+-- Indexes are created once on the parent and cascade to every partition.
+-- Date filters now go through initiated_timestamp, so the initiated_date and service_name indexes are gone.
+CREATE UNIQUE INDEX ux_audit_event_id ON audit_trail_tbl(event_id, initiated_timestamp);
+CREATE INDEX idx_audit_initiated_timestamp ON audit_trail_tbl(initiated_timestamp);
+CREATE INDEX idx_audit_user_timestamp ON audit_trail_tbl(user_email, initiated_timestamp);
+CREATE INDEX idx_audit_action_timestamp ON audit_trail_tbl(action_type, initiated_timestamp);
+CREATE INDEX idx_audit_resource_timestamp ON audit_trail_tbl(resource_type, initiated_timestamp);
+CREATE INDEX idx_audit_status_timestamp ON audit_trail_tbl(status, initiated_timestamp);
+
+COMMENT ON TABLE audit_trail_tbl IS 'Comprehensive audit trail for all system activities, partitioned by month';
+COMMENT ON COLUMN audit_trail_tbl.action_type IS 'High-level categorization of the action performed';
+COMMENT ON COLUMN audit_trail_tbl.action_description IS 'Human-readable description of what was done';
+COMMENT ON COLUMN audit_trail_tbl.resource_type IS 'Type of resource that was affected';
+COMMENT ON COLUMN audit_trail_tbl.resource_id IS 'Technical ID of the affected resource';
+COMMENT ON COLUMN audit_trail_tbl.resource_identifier IS 'Human-readable identifier of the affected resource';
+COMMENT ON COLUMN audit_trail_tbl.status IS 'Whether the operation completed successfully';
+COMMENT ON COLUMN audit_trail_tbl.service_name IS 'Name of the microservice that performed the action';
+COMMENT ON COLUMN audit_trail_tbl.event_id IS 'Client-generated idempotency key; NULL for rows written before V5';
+COMMENT ON COLUMN audit_trail_tbl.initiated_timestamp IS 'Partition key; retention drops whole months';
@@ -0,0 +1,7 @@
+-- V7__Add_Audit_Keyset_Index.sql
+-- Keyset pagination orders by (initiated_timestamp DESC, id DESC); this index makes each page a range seek.
+-- It replaces the single-column timestamp index, which it fully covers.
+
+CREATE INDEX idx_audit_timestamp_id ON audit_trail_tbl(initiated_timestamp, id);
+
+DROP INDEX idx_audit_initiated_timestamp;
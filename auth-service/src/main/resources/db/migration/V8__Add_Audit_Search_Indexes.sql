@@ -0,0 +1,9 @@
+-- V8__Add_Audit_Search_Indexes.sql
+-- Trigram GIN indexes so case-insensitive substring searches (lower(col) LIKE '%term%')
+-- use an index instead of scanning every row of the searched partitions.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_audit_user_email_trgm ON audit_trail_tbl USING GIN (lower(user_email) gin_trgm_ops);
+CREATE INDEX idx_audit_user_name_trgm ON audit_trail_tbl USING GIN (lower(user_name) gin_trgm_ops);
+CREATE INDEX idx_audit_description_trgm ON audit_trail_tbl USING GIN (lower(action_description) gin_trgm_ops);
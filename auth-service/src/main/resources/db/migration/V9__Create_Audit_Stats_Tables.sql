@@ -0,0 +1,40 @@
+-- V9__Create_Audit_Stats_Tables.sql
+-- Pre-aggregated audit counters for dashboards. The batch writer increments hourly buckets in the same
+-- transaction as the raw insert; a nightly job verifies them against audit_trail_tbl and compacts
+-- complete days into the daily table. Missing dimensions are stored as '' so they can be part of the key.
+
+CREATE TABLE audit_stats_hourly_tbl (
+    bucket_start TIMESTAMP NOT NULL, -- initiated_timestamp truncated to the hour
+    action_type VARCHAR(100) NOT NULL,
+    resource_type VARCHAR(100) NOT NULL DEFAULT '',
+    status VARCHAR(20) NOT NULL,
+    user_email VARCHAR(255) NOT NULL DEFAULT '',
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, action_type, resource_type, status, user_email)
+);
+
+CREATE TABLE audit_stats_daily_tbl (
+    bucket_date DATE NOT NULL,
+    action_type VARCHAR(100) NOT NULL,
+    resource_type VARCHAR(100) NOT NULL DEFAULT '',
+    status VARCHAR(20) NOT NULL,
+    user_email VARCHAR(255) NOT NULL DEFAULT '',
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_date, action_type, resource_type, status, user_email)
+);
+
+-- Backfill from existing audit rows so the stats start out complete
+INSERT INTO audit_stats_hourly_tbl (bucket_start, action_type, resource_type, status, user_email, event_count)
+SELECT date_trunc('hour', initiated_timestamp), action_type, COALESCE(resource_type, ''), status,
+       COALESCE(user_email, ''), COUNT(*)
+FROM audit_trail_tbl
+GROUP BY 1, 2, 3, 4, 5;
+
+INSERT INTO audit_stats_daily_tbl (bucket_date, action_type, resource_type, status, user_email, event_count)
+SELECT CAST(bucket_start AS DATE), action_type, resource_type, status, user_email, SUM(event_count)
+FROM audit_stats_hourly_tbl
+WHERE bucket_start < CAST(CURRENT_DATE AS TIMESTAMP)
+GROUP BY 1, 2, 3, 4, 5;
+
+COMMENT ON TABLE audit_stats_hourly_tbl IS 'Audit event counts per hour; incremented on ingest, verified nightly';
+COMMENT ON TABLE audit_stats_daily_tbl IS 'Audit event counts per day, compacted from audit_stats_hourly_tbl';
@@ -0,0 +1,86 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fundquest.auth.audit_trail.annotation.Auditable;
+import com.fundquest.auth.audit_trail.entity.enums.ActionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditEvaluationContextTest {
+
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
+
+    @Test
+    void lookupVariable_shouldResolveArgumentsByNameAndPosition() throws NoSuchMethodException {
+        // Given
+        AuditMethodMetadata metadata = metadata("rename");
+        AuditEvaluationContext context = new AuditEvaluationContext(metadata, new Object[]{"user-1", new Rename("Jane")});
+
+        // Then
+        assertThat(context.lookupVariable("userId")).isEqualTo("user-1");
+        assertThat(context.lookupVariable("p0")).isEqualTo("user-1");
+        assertThat(context.lookupVariable("p1")).isEqualTo(new Rename("Jane"));
+        assertThat(context.lookupVariable("p2")).isNull();
+        assertThat(context.lookupVariable("unknown")).isNull();
+    }
+
+    @Test
+    void getValue_shouldEvaluatePropertyPaths_acrossRepeatedAndCompiledCalls() throws NoSuchMethodException {
+        // Given
+        AuditMethodMetadata metadata = metadata("rename");
+
+        // When the expression is evaluated often enough for MIXED mode to compile it
+        for (int i = 0; i < 200; i++) {
+            AuditEvaluationContext context = new AuditEvaluationContext(metadata, new Object[]{"user-" + i, new Rename("name-" + i)});
+
+            // Then each call sees its own arguments
+            assertThat(metadata.resourceIdExpression.getValue(context)).isEqualTo("user-" + i);
+            assertThat(metadata.resourceIdentifierExpression.getValue(context)).isEqualTo("name-" + i);
+        }
+    }
+
+    @Test
+    void lookupVariable_shouldPreferExplicitResult_overParameterOfSameName() throws NoSuchMethodException {
+        // Given
+        AuditEvaluationContext context = new AuditEvaluationContext(metadata("withResultParameter"), new Object[]{"argument"});
+        assertThat(context.lookupVariable("result")).isEqualTo("argument");
+
+        // When
+        context.setVariable("result", "returned");
+
+        // Then
+        assertThat(context.lookupVariable("result")).isEqualTo("returned");
+    }
+
+    private AuditMethodMetadata metadata(String name) throws NoSuchMethodException {
+        for (Method method : AuditedOperations.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return AuditMethodMetadata.of(method, method.getAnnotation(Auditable.class), parser,
+                        new AuditParameterSerializer(new ObjectMapper(), 4096));
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    public record Rename(String name) {
+    }
+
+    @SuppressWarnings("unused")
+    private interface AuditedOperations {
+
+        @Auditable(actionType = ActionType.UPDATE, description = "Renamed user",
+                resourceIdExpression = "#userId", resourceIdentifierExpression = "#p1.name")
+        void rename(String userId, Rename request);
+
+        @Auditable(actionType = ActionType.UPDATE, description = "Updated", resourceIdExpression = "#result")
+        void withResultParameter(String result);
+    }
+}
@@ -0,0 +1,72 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fundquest.auth.benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * includeParameters serialization per audited call, against the previous HashMap + writeValueAsString
+ * (which redacted by parameter name only), for a small argument list and one past the byte budget
+ */
+@Tag(Benchmarks.TAG)
+class AuditParameterSerializerBenchmark {
+
+    private static final int WARMUP = 100_000;
+    private static final int ITERATIONS = 500_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serialize() throws NoSuchMethodException {
+        AuditParameterSerializer serializer = new AuditParameterSerializer(objectMapper, 4096);
+        Method update = AuditedOperations.class.getDeclaredMethod("update", String.class, UpdateRequest.class);
+        ParameterRedactionPlan plan = serializer.planFor(update);
+
+        Object[] small = {"user-42", new UpdateRequest("Jane Doe", "jane@fundquest.com", "s3cret", List.of("ADMIN"))};
+        Object[] large = {"user-42", new UpdateRequest("Jane Doe", "jane@fundquest.com", "s3cret",
+                List.of("x".repeat(2000), "y".repeat(2000), "z".repeat(2000)))};
+
+        Benchmarks.measure("AuditParameterSerializer (small)", WARMUP, ITERATIONS,
+                i -> serializer.serialize(plan, small));
+        Benchmarks.measure("writeValueAsString (small, previous)", WARMUP, ITERATIONS,
+                i -> legacySerialize(update, small));
+        Benchmarks.measure("AuditParameterSerializer (6 KB)", WARMUP, ITERATIONS,
+                i -> serializer.serialize(plan, large));
+        Benchmarks.measure("writeValueAsString (6 KB, previous)", WARMUP, ITERATIONS,
+                i -> legacySerialize(update, large));
+    }
+
+    private String legacySerialize(Method method, Object[] args) {
+        Parameter[] parameters = method.getParameters();
+        Map<String, Object> paramMap = new HashMap<>();
+        for (int i = 0; i < parameters.length && i < args.length; i++) {
+            String paramName = parameters[i].getName();
+            String lowerName = paramName.toLowerCase();
+            boolean sensitive = lowerName.contains("password") || lowerName.contains("token")
+                    || lowerName.contains("secret") || lowerName.contains("authcode");
+            paramMap.put(paramName, sensitive ? "[REDACTED]" : args[i]);
+        }
+        try {
+            return objectMapper.writeValueAsString(paramMap);
+        } catch (JsonProcessingException e) {
+            return "Failed to serialize parameters";
+        }
+    }
+
+    record UpdateRequest(String name, String email, String password, List<String> roles) {
+    }
+
+    @SuppressWarnings("unused")
+    private interface AuditedOperations {
+
+        void update(String userId, UpdateRequest request);
+    }
+}
@@ -0,0 +1,155 @@
+package com.fundquest.auth.audit_trail.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditParameterSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditParameterSerializer serializer = new AuditParameterSerializer(objectMapper, 4096);
+
+    @Test
+    void serialize_shouldRedactSensitiveParameterByName() throws NoSuchMethodException {
+        // Given
+        ParameterRedactionPlan plan = serializer.planFor(method("resetPassword"));
+
+        // When
+        String json = serializer.serialize(plan, new Object[]{"user-1", "hunter2"});
+
+        // Then
+        assertThat(json).isEqualTo("{\"userId\":\"user-1\",\"newPassword\":\"[REDACTED]\"}");
+    }
+
+    @Test
+    void serialize_shouldDropSensitiveNestedFields() throws NoSuchMethodException {
+        // Given
+        ParameterRedactionPlan plan = serializer.planFor(method("update"));
+        UpdateRequest request = new UpdateRequest("Jane",
+                new Credentials("hunter2", "tok-123"),
+                List.of(new Credentials("old-pass", "old-token")));
+
+        // When
+        String json = serializer.serialize(plan, new Object[]{request});
+
+        // Then
+        assertThat(json).contains("\"name\":\"Jane\"", "\"login\":\"jane\"")
+                .doesNotContain("hunter2", "tok-123", "old-pass", "old-token", "password", "apiToken");
+    }
+
+    @Test
+    void serialize_shouldDropSensitiveMapKeys_withoutRememberingThem() throws NoSuchMethodException {
+        // Given
+        ParameterRedactionPlan plan = serializer.planFor(method("patch"));
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("displayName", "Jane");
+        changes.put("refreshToken", "tok-123");
+        changes.put("nested", Map.of("clientSecret", "s3cr3t", "colour", "blue"));
+        for (int i = 0; i < 500; i++) {
+            changes.put("key" + i, i);
+        }
+        int knownBefore = knownProperties(plan).size();
+
+        // When
+        String json = serializer.serialize(plan, new Object[]{changes});
+
+        // Then
+        assertThat(json).contains("\"displayName\":\"Jane\"", "\"colour\":\"blue\"")
+                .doesNotContain("tok-123", "s3cr3t");
+        assertThat(knownProperties(plan)).hasSize(knownBefore);
+    }
+
+    @Test
+    void serialize_shouldTruncateAtByteBudget() throws NoSuchMethodException {
+        // Given
+        AuditParameterSerializer small = new AuditParameterSerializer(objectMapper, 64);
+        ParameterRedactionPlan plan = small.planFor(method("note"));
+
+        // When
+        String json = small.serialize(plan, new Object[]{"x".repeat(500)});
+
+        // Then
+        assertThat(json).startsWith("{\"text\":\"xxx").endsWith(AuditParameterSerializer.TRUNCATED_SUFFIX);
+        String kept = json.substring(0, json.length() - AuditParameterSerializer.TRUNCATED_SUFFIX.length());
+        assertThat(kept.getBytes(StandardCharsets.UTF_8)).hasSize(64);
+    }
+
+    @Test
+    void serialize_shouldNotTruncate_whenOutputFitsExactly() throws NoSuchMethodException {
+        // Given {"text":"..."} is 11 bytes of framing
+        AuditParameterSerializer small = new AuditParameterSerializer(objectMapper, 64);
+        ParameterRedactionPlan plan = small.planFor(method("note"));
+
+        // When
+        String json = small.serialize(plan, new Object[]{"y".repeat(53)});
+
+        // Then
+        assertThat(json).isEqualTo("{\"text\":\"" + "y".repeat(53) + "\"}");
+    }
+
+    @Test
+    void serialize_shouldNotSplitMultiByteCharacters_atAnyCutPoint() throws NoSuchMethodException {
+        // Given 2- and 3-byte characters, cut at every offset within them (Jackson escapes non-BMP characters)
+        for (String character : List.of("é", "€")) {
+            for (int budget = 20; budget < 28; budget++) {
+                AuditParameterSerializer small = new AuditParameterSerializer(objectMapper, budget);
+                ParameterRedactionPlan plan = small.planFor(method("note"));
+
+                // When
+                String json = small.serialize(plan, new Object[]{character.repeat(40)});
+
+                // Then
+                String kept = json.substring(0, json.length() - AuditParameterSerializer.TRUNCATED_SUFFIX.length());
+                assertThat(kept).as("%s at %d bytes", character, budget)
+                        .doesNotContain("\uFFFD")
+                        .matches("\\{\"text\":\"(" + character + ")*");
+                assertThat(kept.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(budget)
+                        .isGreaterThan(budget - character.getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Boolean> knownProperties(ParameterRedactionPlan plan) {
+        return (Map<String, Boolean>) ReflectionTestUtils.getField(plan, "sensitiveProperties");
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        for (Method method : AuditedOperations.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    record Credentials(String password, String apiToken) {
+
+        public String getLogin() {
+            return "jane";
+        }
+    }
+
+    record UpdateRequest(String name, Credentials credentials, List<Credentials> history) {
+    }
+
+    @SuppressWarnings("unused")
+    private interface AuditedOperations {
+
+        void resetPassword(String userId, String newPassword);
+
+        void update(UpdateRequest request);
+
+        void patch(Map<String, Object> changes);
+
+        void note(String text);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fundquest.auth.audit_trail.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvAuditExportWriterTest {
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+            "plain                        | plain",
+            "a,b                          | \"a,b\"",
+            "say \"hi\"                   | \"say \"\"hi\"\"\"",
+            "=HYPERLINK(\"http://x\")     | \"'=HYPERLINK(\"\"http://x\"\")\"",
+            "=1+1                         | '=1+1",
+            "+1                           | '+1",
+            "-2                           | '-2",
+            "@SUM(A1)                     | '@SUM(A1)",
+            "=cmd,x                       | \"'=cmd,x\"",
+            "a=b                          | a=b"
+    })
+    void writeRow_shouldQuoteAndNeutralizeFormulas(String value, String expected) throws IOException {
+        assertThat(field(value)).isEqualTo(expected);
+    }
+
+    @Test
+    void writeRow_shouldNeutralizeLeadingTabAndCarriageReturn() throws IOException {
+        assertThat(field("\t=1")).isEqualTo("'\t=1");
+        assertThat(field("\r=1")).isEqualTo("\"'\r=1\"");
+    }
+
+    private static String field(String value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvAuditExportWriter writer = new CsvAuditExportWriter(List.of("value"), out);
+        writer.writeRow(new String[]{value}, "c");
+        writer.finish();
+        String csv = out.toString(StandardCharsets.UTF_8);
+        String row = csv.substring(csv.indexOf("\r\n") + 2, csv.length() - 2);
+        return row.substring(0, row.length() - ",c".length());
+    }
+}
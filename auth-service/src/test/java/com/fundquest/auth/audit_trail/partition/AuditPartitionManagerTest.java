@@ -0,0 +1,167 @@
+package com.fundquest.auth.audit_trail.partition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditPartitionManagerTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuditPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        partitionManager = new AuditPartitionManager(jdbcTemplate, transactionManager, meterRegistry, 1, false, 365, "drop");
+    }
+
+    @Test
+    void maintainPartitions_shouldMoveStrayRowsIntoNewPartition_whenDefaultPartitionHasRowsForTheMonth() {
+        // Given this month's partition exists and next month's rows were already written to the default partition
+        YearMonth next = YearMonth.now().plusMonths(1);
+        String nextPartition = "audit_trail_tbl_p" + SUFFIX.format(next);
+        LocalDateTime from = next.atDay(1).atStartOfDay();
+        LocalDateTime to = next.plusMonths(1).atDay(1).atStartOfDay();
+        stubLock(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_trail_tbl")))
+                .thenReturn(List.of("audit_trail_tbl_default", "audit_trail_tbl_p" + SUFFIX.format(YearMonth.now())));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq(from), eq(to)))
+                .thenReturn(true);
+        when(jdbcTemplate.update(startsWith("WITH moved AS"), eq(from), eq(to))).thenReturn(7);
+
+        // When
+        partitionManager.maintainPartitions();
+
+        // Then
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("CREATE TABLE " + nextPartition +
+                " (LIKE audit_trail_tbl INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        order.verify(jdbcTemplate).update(
+                "WITH moved AS (DELETE FROM audit_trail_tbl_default WHERE initiated_timestamp >= ? " +
+                        "AND initiated_timestamp < ? RETURNING *) INSERT INTO " + nextPartition + " SELECT * FROM moved",
+                from, to);
+        order.verify(jdbcTemplate).execute("ALTER TABLE audit_trail_tbl ATTACH PARTITION " + nextPartition +
+                " FOR VALUES FROM ('" + next.atDay(1) + "') TO ('" + next.plusMonths(1).atDay(1) + "')");
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS"));
+        assertThat(meterRegistry.counter("audit.partitions.rows.moved").count()).isEqualTo(7);
+        assertThat(meterRegistry.counter("audit.partitions.maintenance.failures").count()).isZero();
+    }
+
+    @Test
+    void maintainPartitions_shouldCreatePartitionDirectly_whenDefaultPartitionHasNoRowsForTheMonth() {
+        // Given
+        YearMonth next = YearMonth.now().plusMonths(1);
+        stubLock(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_trail_tbl")))
+                .thenReturn(List.of("audit_trail_tbl_default", "audit_trail_tbl_p" + SUFFIX.format(YearMonth.now())));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), any(), any()))
+                .thenReturn(false);
+
+        // When
+        partitionManager.maintainPartitions();
+
+        // Then
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS audit_trail_tbl_p" + SUFFIX.format(next) +
+                " PARTITION OF audit_trail_tbl FOR VALUES FROM ('" + next.atDay(1) + "') TO ('" +
+                next.plusMonths(1).atDay(1) + "')");
+        verify(jdbcTemplate, never()).update(startsWith("WITH moved AS"), any(), any());
+    }
+
+    @Test
+    void maintainPartitions_shouldCreatePastPartition_whenDefaultPartitionHasRowsForAnOlderMonth() {
+        // Given a replayed event from three months ago, before the oldest partition
+        YearMonth past = YearMonth.now().minusMonths(3);
+        String pastPartition = "audit_trail_tbl_p" + SUFFIX.format(past);
+        stubLock(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_trail_tbl")))
+                .thenReturn(List.of("audit_trail_tbl_default", "audit_trail_tbl_p" + SUFFIX.format(YearMonth.now()),
+                        "audit_trail_tbl_p" + SUFFIX.format(YearMonth.now().plusMonths(1))));
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT"), eq(LocalDate.class)))
+                .thenReturn(List.of(past.atDay(1)));
+
+        // When
+        partitionManager.maintainPartitions();
+
+        // Then
+        verify(jdbcTemplate).execute("CREATE TABLE " + pastPartition +
+                " (LIKE audit_trail_tbl INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        verify(jdbcTemplate).execute("ALTER TABLE audit_trail_tbl ATTACH PARTITION " + pastPartition +
+                " FOR VALUES FROM ('" + past.atDay(1) + "') TO ('" + past.plusMonths(1).atDay(1) + "')");
+    }
+
+    @Test
+    void maintainPartitions_shouldDeleteExpiredDefaultRows_andReportTheRest() {
+        // Given
+        SimpleMeterRegistry cleaningRegistry = new SimpleMeterRegistry();
+        AuditPartitionManager cleaningManager =
+                new AuditPartitionManager(jdbcTemplate, transactionManager, cleaningRegistry, 0, true, 365, "drop");
+        YearMonth expired = YearMonth.now().minusMonths(14);
+        stubLock(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_trail_tbl")))
+                .thenReturn(List.of("audit_trail_tbl_default", "audit_trail_tbl_p" + SUFFIX.format(YearMonth.now())));
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT"), eq(LocalDate.class)))
+                .thenReturn(List.of(expired.atDay(1)));
+        when(jdbcTemplate.update(startsWith("DELETE FROM audit_trail_tbl_default"), any(Object[].class))).thenReturn(4);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_trail_tbl_default", Long.class)).thenReturn(2L);
+
+        // When
+        cleaningManager.maintainPartitions();
+
+        // Then the expired month gets no partition, its rows are deleted and the remaining rows are reported
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE audit_trail_tbl_p" + SUFFIX.format(expired)));
+        verify(jdbcTemplate).update("DELETE FROM audit_trail_tbl_default WHERE initiated_timestamp < ?",
+                YearMonth.from(LocalDate.now().minusDays(365)).atDay(1).atStartOfDay());
+        assertThat(cleaningRegistry.get("audit.partitions.default.rows").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void maintainPartitions_shouldCountFailure_whenMaintenanceFails() {
+        // Given
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?)"), eq(Boolean.class), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // When
+        partitionManager.maintainPartitions();
+
+        // Then
+        assertThat(meterRegistry.counter("audit.partitions.maintenance.failures").count()).isEqualTo(1);
+    }
+
+    private void stubLock(boolean acquired) {
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?)"), eq(Boolean.class), any()))
+                .thenReturn(acquired);
+    }
+}
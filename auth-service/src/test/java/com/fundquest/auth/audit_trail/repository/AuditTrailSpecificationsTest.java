@@ -0,0 +1,168 @@
+package com.fundquest.auth.audit_trail.repository;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Evaluates specifications against in-memory rows: the criteria builder is stubbed so every predicate it
+ * creates is backed by a Java predicate over (initiatedTimestamp, id).
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditTrailSpecificationsTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2025, 6, 1, 12, 0, 0);
+    private static final LocalDateTime T2 = T1.plusSeconds(1);
+    private static final LocalDateTime T3 = T1.plusSeconds(2);
+
+    private static final Comparator<Row> KEYSET_ORDER =
+            Comparator.comparing(Row::timestamp).thenComparingLong(Row::id).reversed();
+
+    @Mock
+    private Root<AuditTrail> root;
+    @Mock
+    private CriteriaBuilder cb;
+    @Mock
+    private Path<Object> timestampPath;
+    @Mock
+    private Path<Object> idPath;
+
+    private final Map<Object, Function<Row, Comparable<Object>>> columns = new IdentityHashMap<>();
+    private final Map<Predicate, java.util.function.Predicate<Row>> predicates = new IdentityHashMap<>();
+
+    private record Row(LocalDateTime timestamp, long id) {
+    }
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() {
+        lenient().when(root.get("initiatedTimestamp")).thenReturn(timestampPath);
+        lenient().when(root.get("id")).thenReturn(idPath);
+        columns.put(timestampPath, row -> (Comparable) row.timestamp());
+        columns.put(idPath, row -> (Comparable) Long.valueOf(row.id()));
+
+        lenient().when(cb.lessThan(any(Expression.class), any(Comparable.class))).thenAnswer(invocation ->
+                compare(invocation.getArgument(0), invocation.getArgument(1), c -> c < 0));
+        lenient().when(cb.lessThanOrEqualTo(any(Expression.class), any(Comparable.class))).thenAnswer(invocation ->
+                compare(invocation.getArgument(0), invocation.getArgument(1), c -> c <= 0));
+        lenient().when(cb.greaterThan(any(Expression.class), any(Comparable.class))).thenAnswer(invocation ->
+                compare(invocation.getArgument(0), invocation.getArgument(1), c -> c > 0));
+        lenient().when(cb.and(any(Expression.class), any(Expression.class))).thenAnswer(invocation ->
+                predicate(predicates.get(invocation.<Predicate>getArgument(0))
+                        .and(predicates.get(invocation.<Predicate>getArgument(1)))));
+        lenient().when(cb.or(any(Expression.class), any(Expression.class))).thenAnswer(invocation ->
+                predicate(predicates.get(invocation.<Predicate>getArgument(0))
+                        .or(predicates.get(invocation.<Predicate>getArgument(1)))));
+    }
+
+    @Test
+    void before_shouldReturnRowsStrictlyAfterCursor_inKeysetOrder() {
+        // Given
+        List<Row> rows = List.of(new Row(T1, 1), new Row(T2, 2), new Row(T3, 3));
+
+        // When
+        List<Row> page = seek(rows, T2, 2);
+
+        // Then
+        assertThat(page).containsExactly(new Row(T1, 1));
+    }
+
+    @Test
+    void before_shouldBreakTiesOnTimestampById() {
+        // Given several rows share the cursor's timestamp
+        List<Row> rows = List.of(new Row(T2, 10), new Row(T2, 11), new Row(T2, 12), new Row(T2, 13),
+                new Row(T1, 20), new Row(T3, 5));
+
+        // When
+        List<Row> page = seek(rows, T2, 12);
+
+        // Then the cursor row and the ties before it are excluded, the ties after it are kept
+        assertThat(page).containsExactly(new Row(T2, 11), new Row(T2, 10), new Row(T1, 20));
+    }
+
+    @Test
+    void before_shouldKeepOlderRowsWithHigherIds() {
+        // Given a spool replay inserted an old event late, so it has a higher id than newer rows
+        List<Row> rows = List.of(new Row(T3, 1), new Row(T2, 2), new Row(T1, 99));
+
+        // When
+        List<Row> page = seek(rows, T2, 2);
+
+        // Then
+        assertThat(page).containsExactly(new Row(T1, 99));
+    }
+
+    @Test
+    void before_shouldVisitEveryRowOnce_whenPagingFromStart() {
+        // Given
+        List<Row> rows = List.of(new Row(T3, 7), new Row(T3, 6), new Row(T2, 9), new Row(T2, 4),
+                new Row(T2, 3), new Row(T1, 8), new Row(T1, 1));
+
+        // When paging two rows at a time from the start position
+        List<Row> visited = new ArrayList<>();
+        Row cursor = new Row(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+        List<Row> page;
+        do {
+            page = seek(rows, cursor.timestamp(), cursor.id()).stream().limit(2).toList();
+            visited.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1);
+            }
+        } while (!page.isEmpty());
+
+        // Then
+        assertThat(visited).containsExactlyElementsOf(rows.stream().sorted(KEYSET_ORDER).toList());
+    }
+
+    @Test
+    void idAfter_shouldReturnRowsWithHigherId() {
+        List<Row> rows = List.of(new Row(T1, 4), new Row(T2, 5), new Row(T3, 6));
+
+        assertThat(filter(rows, AuditTrailSpecifications.idAfter(5))).containsExactly(new Row(T3, 6));
+    }
+
+    private List<Row> seek(List<Row> rows, LocalDateTime cursorTimestamp, long cursorId) {
+        return filter(rows, AuditTrailSpecifications.before(cursorTimestamp, cursorId)).stream()
+                .sorted(KEYSET_ORDER)
+                .toList();
+    }
+
+    private List<Row> filter(List<Row> rows, Specification<AuditTrail> specification) {
+        Predicate predicate = specification.toPredicate(root, null, cb);
+        return rows.stream().filter(predicates.get(predicate)).toList();
+    }
+
+    private Predicate compare(Expression<?> column, Comparable<Object> bound, IntPredicate accept) {
+        Function<Row, Comparable<Object>> value = columns.get(column);
+        return predicate(row -> accept.test(value.apply(row).compareTo(bound)));
+    }
+
+    private Predicate predicate(java.util.function.Predicate<Row> test) {
+        Predicate predicate = mock(Predicate.class);
+        predicates.put(predicate, test);
+        return predicate;
+    }
+}
@@ -0,0 +1,208 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.audit_trail.entity.enums.ActionType;
+import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
+import com.fundquest.auth.audit_trail.spool.AuditSpool;
+import com.fundquest.auth.audit_trail.stats.AuditStatsRepository;
+import com.fundquest.auth.audit_trail.stream.AuditEventBroadcaster;
+import com.fundquest.auth.util.ClientAddressResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditBatchWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditSpool auditSpool;
+
+    @Mock
+    private AuditEventEnricher auditEventEnricher;
+
+    @Mock
+    private AuditStatsRepository auditStatsRepository;
+
+    @Mock
+    private AuditEventBroadcaster auditEventBroadcaster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new AuditBatchWriter(jdbcTemplate, auditSpool, auditEventEnricher, auditStatsRepository,
+                auditEventBroadcaster, transactionManager, new SimpleMeterRegistry(), 200, 10000, 10000, 250);
+    }
+
+    @Test
+    void insertIsolatingRejects_shouldReturnOnlyTheRejectedEvent_whenBatchContentIsRejected() {
+        // Given the database rejects any batch containing "bad"
+        doAnswer(invocation -> {
+            Collection<AuditTrail> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> "bad".equals(row.getEventId()))) {
+                throw new DataIntegrityViolationException("null value in column violates not-null constraint");
+            }
+            return new int[][]{new int[rows.size()]};
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), anyPreparedStatementSetter());
+        AuditTrail good1 = audit("good-1");
+        AuditTrail bad = audit("bad");
+        AuditTrail good2 = audit("good-2");
+
+        // When
+        List<AuditTrail> rejected = writer.insertIsolatingRejects(List.of(good1, bad, good2));
+
+        // Then
+        assertThat(rejected).containsExactly(bad);
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyCollection(), anyInt(), anyPreparedStatementSetter());
+    }
+
+    @Test
+    void insertIsolatingRejects_shouldRethrow_whenDatabaseIsUnavailable() {
+        // Given
+        doThrow(new CannotGetJdbcConnectionException("connection refused"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), anyPreparedStatementSetter());
+
+        // When / Then
+        assertThatThrownBy(() -> writer.insertIsolatingRejects(List.of(audit("good-1"), audit("good-2"))))
+                .isInstanceOf(CannotGetJdbcConnectionException.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(), anyPreparedStatementSetter());
+    }
+
+    @Test
+    void insertBatch_shouldCountOnlyInsertedEvents_whenSomeAreDuplicates() {
+        // Given the second event is already in the table
+        doAnswer(invocation -> new int[][]{{1, 0, 1}})
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), anyPreparedStatementSetter());
+        AuditTrail first = audit("event-1");
+        AuditTrail duplicate = audit("event-2");
+        AuditTrail third = audit("event-3");
+
+        // When
+        writer.insertBatch(List.of(first, duplicate, third));
+
+        // Then
+        verify(auditStatsRepository).increment(List.of(first, third));
+    }
+
+    @Test
+    void withoutPersisted_shouldDropEventsAlreadyInTheTable() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("event-2"));
+        AuditTrail first = audit("event-1");
+        AuditTrail persisted = audit("event-2");
+
+        // When
+        List<AuditTrail> pending = writer.withoutPersisted(List.of(first, persisted));
+
+        // Then
+        assertThat(pending).containsExactly(first);
+    }
+
+    @Test
+    void cap_shouldCutToColumnWidth_withoutSplittingSurrogatePairs() {
+        assertThat(AuditBatchWriter.cap(null, 5)).isNull();
+        assertThat(AuditBatchWriter.cap("short", 5)).isEqualTo("short");
+        assertThat(AuditBatchWriter.cap("/api/v1/" + "x".repeat(600), 500)).hasSize(500);
+        assertThat(AuditBatchWriter.cap("abcd😀", 5)).isEqualTo("abcd");
+    }
+
+    @Test
+    void submit_shouldSpoolWithDeferredWork_whenQueueIsFull() throws Exception {
+        // Given a writer with no queue room and a real enricher
+        AuditEventEnricher enricher = new AuditEventEnricher(new ClientAddressResolver(List.of("10.0.0.0/8")));
+        AuditBatchWriter fullWriter = new AuditBatchWriter(jdbcTemplate, auditSpool, enricher, auditStatsRepository,
+                auditEventBroadcaster, transactionManager, new SimpleMeterRegistry(), 200, 0, 10, 250);
+        AuditTrail audit = audit("overflow");
+        audit.setActionDescription(null);
+        AuditRequestSnapshot request = new AuditRequestSnapshot("/api/v1/users/42", "PUT", "10.0.0.7",
+                "203.0.113.5", null, "curl/8.0", null, "admin@fundquest.com", "ADMIN");
+        when(auditSpool.append(audit)).thenReturn(true);
+        fullWriter.start();
+
+        // When
+        boolean accepted = fullWriter.submit(new PendingAudit(audit, request,
+                trail -> trail.setActionDescription("Updated user 42")));
+        fullWriter.stop();
+
+        // Then the spooler thread completed the event before spooling it
+        assertThat(accepted).isTrue();
+        assertThat(audit.getActionDescription()).isEqualTo("Updated user 42");
+        assertThat(audit.getIpAddress()).isEqualTo("203.0.113.5");
+        verify(auditSpool).append(audit);
+    }
+
+    @Test
+    void submit_shouldSpoolWithoutDeferredWork_whenOverflowIsFull() {
+        // Given a writer with no queue or overflow room and a real enricher
+        AuditEventEnricher enricher = new AuditEventEnricher(new ClientAddressResolver(List.of("10.0.0.0/8")));
+        AuditBatchWriter fullWriter = new AuditBatchWriter(jdbcTemplate, auditSpool, enricher, auditStatsRepository,
+                auditEventBroadcaster, transactionManager, new SimpleMeterRegistry(), 200, 0, 0, 250);
+        AuditTrail audit = audit("overflow");
+        audit.setActionDescription(null);
+        AuditRequestSnapshot request = new AuditRequestSnapshot("/api/v1/users/42", "PUT", "10.0.0.7",
+                "203.0.113.5", null, "curl/8.0", null, "admin@fundquest.com", "ADMIN");
+        AtomicBoolean deferredWorkRan = new AtomicBoolean();
+        when(auditSpool.append(audit)).thenReturn(true);
+
+        // When
+        boolean accepted = fullWriter.submit(new PendingAudit(audit, request, trail -> deferredWorkRan.set(true)));
+
+        // Then the caller only paid for the request enrichment
+        assertThat(accepted).isTrue();
+        assertThat(deferredWorkRan).isFalse();
+        assertThat(audit.getIpAddress()).isEqualTo("203.0.113.5");
+        assertThat(audit.getEndpoint()).isEqualTo("/api/v1/users/42");
+        assertThat(audit.getActionDescription()).isNull();
+        verify(auditSpool).append(audit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ParameterizedPreparedStatementSetter<AuditTrail> anyPreparedStatementSetter() {
+        return any(ParameterizedPreparedStatementSetter.class);
+    }
+
+    private static AuditTrail audit(String eventId) {
+        AuditTrail audit = AuditTrail.builder()
+                .eventId(eventId)
+                .userEmail("admin@fundquest.com")
+                .actionType(ActionType.UPDATE)
+                .resourceType(ResourceType.USER)
+                .actionDescription("Updated user")
+                .build();
+        audit.setTimestamps(LocalDateTime.of(2025, 1, 15, 10, 30));
+        return audit;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fundquest.auth.audit_trail.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditCursorTest {
+
+    @Test
+    void decode_shouldRoundTripEncodedCursor() {
+        // Given
+        AuditCursor cursor = new AuditCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), 42L);
+
+        // When
+        String token = cursor.encode();
+
+        // Then
+        assertThat(token).doesNotContain("+", "/", "=");
+        assertThat(AuditCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_shouldRoundTripWholeSecondTimestamp() {
+        AuditCursor cursor = new AuditCursor(LocalDateTime.of(2025, 1, 1, 0, 0), 1L);
+
+        assertThat(AuditCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"  ", "\t"})
+    void decode_shouldStartFromNewestRow_whenTokenIsBlank(String token) {
+        assertThat(AuditCursor.decode(token)).isSameAs(AuditCursor.START);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "%%%", "abc"})
+    void decode_shouldReject_tokenThatIsNotBase64Cursor(String token) {
+        assertThatThrownBy(() -> AuditCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid audit trail cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-03-14T09:26:53",          // no separator
+            "2025-03-14T09:26:53|",         // no id
+            "2025-03-14T09:26:53|x",        // id not a number
+            "2025-03-14T09:26:53|99999999999999999999",
+            "yesterday|42",
+            "|42"
+    })
+    void decode_shouldReject_malformedPayload(String raw) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> AuditCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid audit trail cursor");
+    }
+}
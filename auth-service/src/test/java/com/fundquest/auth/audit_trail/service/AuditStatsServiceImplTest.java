@@ -0,0 +1,60 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.stats.AuditStatGranularity;
+import com.fundquest.auth.audit_trail.stats.AuditStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditStatsServiceImplTest {
+
+    @Mock
+    private AuditStatsRepository auditStatsRepository;
+
+    @InjectMocks
+    private AuditStatsServiceImpl auditStatsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(auditStatsService, "hourlyRetentionDays", 30);
+    }
+
+    @Test
+    void getTimeline_shouldRejectHourlyRange_whenStartIsBeforeRetentionWindow() {
+        // Given a short range that lies entirely before the hourly buckets still kept
+        LocalDate start = LocalDate.now().minusDays(90);
+
+        // When / Then
+        assertThatThrownBy(() -> auditStatsService.getTimeline(AuditStatGranularity.HOUR, start, start.plusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("30 days");
+        verifyNoInteractions(auditStatsRepository);
+    }
+
+    @Test
+    void getTimeline_shouldReadHourlyBuckets_whenRangeIsWithinRetentionWindow() {
+        // Given
+        LocalDate start = LocalDate.now().minusDays(2);
+        when(auditStatsRepository.countPerHour(any(), any())).thenReturn(List.of());
+
+        // When
+        auditStatsService.getTimeline(AuditStatGranularity.HOUR, start, LocalDate.now());
+
+        // Then
+        verify(auditStatsRepository).countPerHour(start.atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay());
+    }
+}
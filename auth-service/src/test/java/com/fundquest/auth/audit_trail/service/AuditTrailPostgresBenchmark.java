@@ -0,0 +1,331 @@
+package com.fundquest.auth.audit_trail.service;
+
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.audit_trail.entity.enums.ActionType;
+import com.fundquest.auth.audit_trail.entity.enums.AuditStatus;
+import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
+import com.fundquest.auth.audit_trail.spool.AuditSpool;
+import com.fundquest.auth.audit_trail.stats.AuditStatsRepository;
+import com.fundquest.auth.audit_trail.stream.AuditEventBroadcaster;
+import com.fundquest.auth.benchmark.Benchmarks;
+import com.fundquest.auth.util.ClientAddressResolver;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Audit write and read paths against a real PostgreSQL, migrated by Flyway:
+ * <ol>
+ *     <li>seed {@code benchmark.rows} events over the last {@code benchmark.months} months through
+ *     {@link AuditBatchWriter#insertBatch}, reporting the insert rate into the partitioned table</li>
+ *     <li>submit {@code benchmark.ingest.events} events through the queued writer from 1, 8 and 32 threads,
+ *     reporting submit latency and end-to-end throughput</li>
+ *     <li>time the list and search queries the service issues (p50/p99), and the bytes and heap
+ *     one page costs as full rows versus the summary projection</li>
+ * </ol>
+ * Point {@code benchmark.jdbc.url} (with {@code benchmark.jdbc.username} / {@code benchmark.jdbc.password})
+ * at a throwaway database: the audit tables are truncated first. Skipped when the URL is not set, e.g.
+ * {@code mvn test -Pbenchmark -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/audit_bench?reWriteBatchedInserts=true
+ * -Dbenchmark.rows=50000000}
+ */
+@Tag(Benchmarks.TAG)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AuditTrailPostgresBenchmark {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final int USERS = 2000;
+
+    private static final String SUMMARY_COLUMNS = "id, user_email, user_name, user_role, action_type, " +
+            "action_description, resource_type, resource_identifier, initiated_date, initiated_time, " +
+            "initiated_timestamp, status, service_name";
+    private static final String WINDOW = "initiated_timestamp >= ? AND initiated_timestamp < ?";
+    private static final String NEWEST_FIRST = " ORDER BY initiated_timestamp DESC, id DESC LIMIT " + (PAGE_SIZE + 1);
+
+    private final long rows = Long.getLong("benchmark.rows", 1_000_000);
+    private final int months = Integer.getInteger("benchmark.months", 12);
+    private final int seedThreads = Integer.getInteger("benchmark.seed.threads", 4);
+    private final int ingestEvents = Integer.getInteger("benchmark.ingest.events", 200_000);
+    private final int queryIterations = Integer.getInteger("benchmark.query.iterations", 200);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditBatchWriter auditBatchWriter;
+
+    @BeforeAll
+    void setUp() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        assumeTrue(url != null, "benchmark.jdbc.url not set");
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(System.getProperty("benchmark.jdbc.username", "postgres"));
+        dataSource.setPassword(System.getProperty("benchmark.jdbc.password", "postgres"));
+        dataSource.setMaximumPoolSize(Math.max(seedThreads, 8) + 2);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE audit_trail_tbl, audit_stats_hourly_tbl, audit_stats_daily_tbl");
+        YearMonth month = YearMonth.now().minusMonths(months);
+        while (!month.isAfter(YearMonth.now().plusMonths(1))) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS audit_trail_tbl_p" + PARTITION_SUFFIX.format(month) +
+                    " PARTITION OF audit_trail_tbl FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                    month.plusMonths(1).atDay(1) + "')");
+            month = month.plusMonths(1);
+        }
+
+        meterRegistry = new SimpleMeterRegistry();
+        AuditEventEnricher enricher = new AuditEventEnricher(
+                new ClientAddressResolver(List.of("127.0.0.1", "::1", "10.0.0.0/8")));
+        auditBatchWriter = new AuditBatchWriter(jdbcTemplate, mock(AuditSpool.class), enricher,
+                new AuditStatsRepository(jdbcTemplate), mock(AuditEventBroadcaster.class),
+                new DataSourceTransactionManager(dataSource), meterRegistry, 200, 10000, 10000, 250);
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void seed() throws Exception {
+        LocalDateTime start = LocalDateTime.now().minusMonths(months);
+        long spanSeconds = Duration.between(start, LocalDateTime.now()).getSeconds();
+        AtomicLong next = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(seedThreads);
+        long begin = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < seedThreads; t++) {
+                workers.add(executor.submit(() -> {
+                    long first;
+                    while ((first = next.getAndAdd(SEED_BATCH_SIZE)) < rows) {
+                        List<AuditTrail> batch = new ArrayList<>(SEED_BATCH_SIZE);
+                        for (long i = first; i < Math.min(first + SEED_BATCH_SIZE, rows); i++) {
+                            batch.add(event(start.plusSeconds(spanSeconds * i / rows)));
+                        }
+                        auditBatchWriter.insertBatch(batch);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - begin;
+        jdbcTemplate.execute("ANALYZE audit_trail_tbl");
+        Benchmarks.report("seeded %d rows over %d months with %d threads: %.0f rows/s",
+                rows, months, seedThreads, rows / seconds(elapsed));
+    }
+
+    @Test
+    @Order(2)
+    void ingest() throws Exception {
+        AuditRequestSnapshot request = new AuditRequestSnapshot("/api/v1/users/42", "PUT", "10.0.0.5",
+                "203.0.113.7", null, "Mozilla/5.0 (X11; Linux x86_64)", "session-1", "admin@fundquest.com", "ADMIN");
+        for (int threads : new int[]{1, 8, 32}) {
+            int perThread = ingestEvents / threads;
+            double writtenBefore = written();
+            auditBatchWriter.start();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long begin = System.nanoTime();
+            long[] latencies;
+            try {
+                List<Future<long[]>> producers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    producers.add(executor.submit(() -> {
+                        long[] submitNanos = new long[perThread];
+                        for (int i = 0; i < perThread; i++) {
+                            PendingAudit pending = new PendingAudit(event(LocalDateTime.now()), request, null);
+                            long submitted = System.nanoTime();
+                            auditBatchWriter.submit(pending);
+                            submitNanos[i] = System.nanoTime() - submitted;
+                        }
+                        return submitNanos;
+                    }));
+                }
+                latencies = new long[perThread * threads];
+                for (int t = 0; t < threads; t++) {
+                    System.arraycopy(producers.get(t).get(), 0, latencies, t * perThread, perThread);
+                }
+            } finally {
+                executor.shutdown();
+            }
+            long submittedAt = System.nanoTime();
+            // stop() flushes whatever is still queued
+            auditBatchWriter.stop();
+            long drainedAt = System.nanoTime();
+
+            double written = written() - writtenBefore;
+            Benchmarks.report("ingest %2d threads: %.0f submits/s, %.0f rows/s written (%.0f of %d), submit %s",
+                    threads, latencies.length / seconds(submittedAt - begin), written / seconds(drainedAt - begin),
+                    written, latencies.length, Benchmarks.percentiles(latencies));
+        }
+    }
+
+    @Test
+    @Order(3)
+    void search() {
+        Timestamp to = Timestamp.valueOf(LocalDateTime.now().plusDays(1));
+        Timestamp lastMonth = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        Timestamp lastYear = Timestamp.valueOf(LocalDateTime.now().minusDays(365));
+
+        time("newest page, 30 days",
+                "SELECT " + SUMMARY_COLUMNS + " FROM audit_trail_tbl WHERE " + WINDOW + NEWEST_FIRST, lastMonth, to);
+        time("newest page, 365 days",
+                "SELECT " + SUMMARY_COLUMNS + " FROM audit_trail_tbl WHERE " + WINDOW + NEWEST_FIRST, lastYear, to);
+        time("user email contains, 365 days",
+                "SELECT " + SUMMARY_COLUMNS + " FROM audit_trail_tbl WHERE " + WINDOW +
+                        " AND lower(user_email) LIKE ? ESCAPE '\\'" + NEWEST_FIRST, lastYear, to, "%user1234@%");
+        time("description contains, 365 days",
+                "SELECT " + SUMMARY_COLUMNS + " FROM audit_trail_tbl WHERE " + WINDOW +
+                        " AND lower(action_description) LIKE ? ESCAPE '\\'" + NEWEST_FIRST, lastYear, to, "%report 77%");
+        time("action + status filter, 365 days",
+                "SELECT " + SUMMARY_COLUMNS + " FROM audit_trail_tbl WHERE " + WINDOW +
+                        " AND action_type = ? AND status = ?" + NEWEST_FIRST, lastYear, to, "DELETE", "FAILED");
+
+        List<Map<String, Object>> cursor = jdbcTemplate.queryForList("SELECT initiated_timestamp, id " +
+                "FROM audit_trail_tbl WHERE " + WINDOW + " ORDER BY initiated_timestamp DESC, id DESC OFFSET 1000 LIMIT 1",
+                lastYear, to);
+        if (!cursor.isEmpty()) {
+            Object cursorTimestamp = cursor.get(0).get("initiated_timestamp");
+            time("keyset page after 1000 rows",
+                    "SELECT " + SUMMARY_COLUMNS + " FROM audit_trail_tbl WHERE " + WINDOW +
+                            " AND initiated_timestamp <= ? AND (initiated_timestamp < ? OR id < ?)" + NEWEST_FIRST,
+                    lastYear, to, cursorTimestamp, cursorTimestamp, cursor.get(0).get("id"));
+        }
+        time("exact count, 30 days", "SELECT COUNT(*) FROM audit_trail_tbl WHERE " + WINDOW, lastMonth, to);
+    }
+
+    @Test
+    @Order(4)
+    void pageCost() {
+        Timestamp from = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        Timestamp to = Timestamp.valueOf(LocalDateTime.now().plusDays(1));
+        for (String columns : List.of("*", SUMMARY_COLUMNS)) {
+            String sql = "SELECT " + columns + " FROM audit_trail_tbl WHERE " + WINDOW + NEWEST_FIRST;
+            for (int i = 0; i < 20; i++) {
+                readPage(sql, from, to);
+            }
+            long[] bytes = new long[1];
+            long heap = Benchmarks.allocatedBy(() -> bytes[0] = readPage(sql, from, to));
+            Benchmarks.report("page of %d, %-14s %8d value bytes %10d heap bytes",
+                    PAGE_SIZE, "*".equals(columns) ? "full rows:" : "summary:", bytes[0], heap);
+        }
+    }
+
+    private void time(String name, String sql, Object... args) {
+        for (int i = 0; i < queryIterations / 10; i++) {
+            jdbcTemplate.queryForList(sql, args);
+        }
+        long[] latencies = new long[queryIterations];
+        for (int i = 0; i < queryIterations; i++) {
+            long begin = System.nanoTime();
+            jdbcTemplate.queryForList(sql, args);
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Benchmarks.report("%-40s %s", name, Benchmarks.percentiles(latencies));
+    }
+
+    /**
+     * Materialize one page as the row mapper would and return the size of its values
+     */
+    private long readPage(String sql, Object... args) {
+        Long size = jdbcTemplate.query(sql, (ResultSet rs) -> {
+            long bytes = 0;
+            List<Object[]> page = new ArrayList<>();
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                Object[] row = new Object[columns];
+                for (int c = 0; c < columns; c++) {
+                    row[c] = rs.getObject(c + 1);
+                    bytes += valueBytes(row[c]);
+                }
+                page.add(row);
+            }
+            return bytes;
+        }, args);
+        return size != null ? size : 0;
+    }
+
+    private static long valueBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        return value instanceof String text ? text.getBytes(StandardCharsets.UTF_8).length : Long.BYTES;
+    }
+
+    private static AuditTrail event(LocalDateTime timestamp) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = random.nextInt(USERS);
+        ActionType actionType = ActionType.values()[random.nextInt(ActionType.values().length)];
+        ResourceType resourceType = ResourceType.values()[random.nextInt(ResourceType.values().length)];
+        AuditTrail auditTrail = AuditTrail.builder()
+                .eventId(UUID.randomUUID().toString())
+                .userEmail("user" + user + "@fundquest.com")
+                .userName("User " + user)
+                .userRole(user % 10 == 0 ? "ADMIN" : "ANALYST")
+                .actionType(actionType)
+                .actionDescription(actionType + " " + resourceType.name().toLowerCase() + " for report " + random.nextInt(1000))
+                .resourceType(resourceType)
+                .resourceId(String.valueOf(random.nextInt(100_000)))
+                .resourceIdentifier("resource-" + random.nextInt(100_000))
+                .endpoint("/api/v1/" + resourceType.name().toLowerCase())
+                .httpMethod("POST")
+                .requestParameters("{\"request\":{\"name\":\"" + "x".repeat(random.nextInt(200, 1200)) + "\"}}")
+                .ipAddress("203.0.113." + random.nextInt(256))
+                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0")
+                .sessionId(UUID.randomUUID().toString())
+                .status(random.nextInt(50) == 0 ? AuditStatus.FAILED : AuditStatus.SUCCESS)
+                .build();
+        auditTrail.setTimestamps(timestamp);
+        return auditTrail;
+    }
+
+    private double written() {
+        return meterRegistry.counter("audit.writer.events", "outcome", "written").count();
+    }
+
+    private static double seconds(long nanos) {
+        return (double) nanos / TimeUnit.SECONDS.toNanos(1);
+    }
+}
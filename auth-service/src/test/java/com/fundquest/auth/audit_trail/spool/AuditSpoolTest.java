@@ -0,0 +1,143 @@
+package com.fundquest.auth.audit_trail.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fundquest.auth.audit_trail.entity.AuditTrail;
+import com.fundquest.auth.audit_trail.entity.enums.ActionType;
+import com.fundquest.auth.audit_trail.entity.enums.ResourceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSpoolTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    private AuditSpool spool;
+
+    @AfterEach
+    void tearDown() {
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    @Test
+    void peek_shouldReturnAppendedEvents_inAppendOrder() throws Exception {
+        // Given
+        spool = open();
+        spool.append(audit("event-1"));
+        spool.append(audit("event-2"));
+
+        // When
+        AuditSpool.SpoolBatch batch = spool.peek(10);
+
+        // Then
+        assertThat(batch.events()).extracting(AuditTrail::getEventId).containsExactly("event-1", "event-2");
+        assertThat(batch.unreadable()).isEmpty();
+        assertThat(spool.isEmpty()).isFalse();
+
+        spool.commit(batch);
+        assertThat(spool.isEmpty()).isTrue();
+    }
+
+    @Test
+    void append_shouldRollIntoPreparedSegment_whenSegmentIsFull() throws Exception {
+        // Given
+        spool = open();
+        spool.prepareNextSegment();
+        Path prepared = directory.resolve(String.format("segment-%020d.spool", 2));
+        assertThat(prepared).exists();
+
+        // When enough events are appended to fill more than one segment
+        int count = 2 * SEGMENT_SIZE / objectMapper.writeValueAsBytes(audit("event-0")).length;
+        for (int i = 0; i < count; i++) {
+            assertThat(spool.append(audit("event-" + i))).isTrue();
+        }
+        spool.force();
+
+        // Then every event is read back in order across the segments
+        AuditSpool.SpoolBatch batch = spool.peek(count + 1);
+        assertThat(batch.events()).hasSize(count);
+        assertThat(batch.events().get(0).getEventId()).isEqualTo("event-0");
+        assertThat(batch.events().get(count - 1).getEventId()).isEqualTo("event-" + (count - 1));
+
+        spool.commit(batch);
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(directory.resolve(String.format("segment-%020d.spool", 1))).doesNotExist();
+    }
+
+    @Test
+    void commit_shouldDeadLetterUnreadableRecord_andMovePastIt() throws Exception {
+        // Given a segment whose first record is not an audit event
+        writeSegment(List.of("{not json".getBytes(StandardCharsets.UTF_8), objectMapper.writeValueAsBytes(audit("event-2"))));
+        spool = open();
+
+        // When
+        AuditSpool.SpoolBatch batch = spool.peek(10);
+        spool.commit(batch);
+
+        // Then
+        assertThat(batch.events()).extracting(AuditTrail::getEventId).containsExactly("event-2");
+        assertThat(batch.unreadable()).hasSize(1);
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(Files.readAllLines(directory.resolve("dead-letter.ndjson")))
+                .singleElement()
+                .asString()
+                .contains("\"unreadable\"");
+    }
+
+    @Test
+    void deadLetter_shouldAppendEventAsJsonLine() throws Exception {
+        // Given
+        spool = open();
+
+        // When
+        boolean written = spool.deadLetter(audit("event-1")) && spool.deadLetter(audit("event-2"));
+
+        // Then
+        assertThat(written).isTrue();
+        List<String> lines = Files.readAllLines(directory.resolve("dead-letter.ndjson"));
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), AuditTrail.class).getEventId()).isEqualTo("event-2");
+    }
+
+    private AuditSpool open() throws Exception {
+        AuditSpool opened = new AuditSpool(objectMapper, directory.toString(), SEGMENT_SIZE);
+        opened.open();
+        return opened;
+    }
+
+    private void writeSegment(List<byte[]> records) throws Exception {
+        ByteBuffer segment = ByteBuffer.allocate(SEGMENT_SIZE);
+        for (byte[] payload : records) {
+            segment.putInt(payload.length).put(payload);
+        }
+        Files.write(directory.resolve(String.format("segment-%020d.spool", 1)), segment.array());
+    }
+
+    private static AuditTrail audit(String eventId) {
+        AuditTrail audit = AuditTrail.builder()
+                .eventId(eventId)
+                .userEmail("admin@fundquest.com")
+                .actionType(ActionType.UPDATE)
+                .resourceType(ResourceType.USER)
+                .actionDescription("Updated user")
+                .build();
+        audit.setTimestamps(LocalDateTime.of(2025, 1, 15, 10, 30));
+        return audit;
+    }
+}
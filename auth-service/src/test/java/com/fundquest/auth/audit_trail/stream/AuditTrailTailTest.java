@@ -0,0 +1,149 @@
+package com.fundquest.auth.audit_trail.stream;
+
+import com.fundquest.auth.audit_trail.repository.AuditTrailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditTrailTailTest {
+
+    private static final long SETTLE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Mock
+    private AuditTrailRepository auditTrailRepository;
+
+    // Ids visible in the table
+    private final TreeSet<Long> committed = new TreeSet<>();
+
+    private AuditTrailTail tail;
+
+    @BeforeEach
+    void setUp() {
+        when(auditTrailRepository.findMaxId()).thenAnswer(invocation -> committed.isEmpty() ? 0L : committed.last());
+        tail = new AuditTrailTail(auditTrailRepository, SETTLE_NANOS, 2);
+    }
+
+    @Test
+    void poll_shouldStartAtCurrentEnd_andReturnNewIdsInOrder() {
+        // Given
+        stubTable();
+        commit(1, 2, 3);
+        assertThat(tail.poll(0)).isEmpty();
+
+        // When
+        commit(4, 5, 6);
+        List<Long> found = tail.poll(1);
+
+        // Then
+        assertThat(found).containsExactly(4L, 5L, 6L);
+        assertThat(tail.poll(2)).isEmpty();
+    }
+
+    @Test
+    void poll_shouldStartAtCurrentEndAgain_afterReset() {
+        // Given
+        stubTable();
+        commit(1, 2);
+        tail.poll(0);
+        tail.reset();
+
+        // When rows are written while the tail is not followed
+        commit(3, 4);
+
+        // Then they are skipped and only later rows are returned
+        assertThat(tail.poll(1)).isEmpty();
+        commit(5);
+        assertThat(tail.poll(2)).containsExactly(5L);
+    }
+
+    @Test
+    void poll_shouldReturnLowerIdCommittedLate_untilItSettles() {
+        // Given id 11 commits before id 10
+        stubTable();
+        tail.poll(0);
+        commit(11);
+        assertThat(tail.poll(seconds(1))).containsExactly(11L);
+        assertThat(tail.watermark()).isZero();
+
+        // When
+        commit(10);
+
+        // Then
+        assertThat(tail.poll(seconds(2))).containsExactly(10L);
+        assertThat(tail.poll(seconds(3))).isEmpty();
+    }
+
+    @Test
+    void poll_shouldMoveWatermarkPastGaps_onceSettled() {
+        // Given ids 20..24 were taken but only 20 and 24 committed (rollback / ON CONFLICT)
+        stubTable();
+        tail.poll(0);
+        commit(20, 24);
+        assertThat(tail.poll(seconds(1))).containsExactly(20L, 24L);
+
+        // When
+        tail.poll(seconds(7));
+
+        // Then a resume position never lies beyond ids that could still appear
+        assertThat(tail.watermark()).isEqualTo(24L);
+        commit(21);
+        assertThat(tail.poll(seconds(8))).isEmpty();
+    }
+
+    @Test
+    void poll_shouldNotMove_whenLookupFails() {
+        // Given
+        stubTable();
+        tail.poll(0);
+        commit(1, 2, 3);
+        when(auditTrailRepository.findIdsAfter(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        // When
+        assertThatThrownBy(() -> tail.poll(seconds(1))).isInstanceOf(IllegalStateException.class);
+        stubTable();
+
+        // Then
+        assertThat(tail.poll(seconds(2))).containsExactly(1L, 2L, 3L);
+    }
+
+    private void stubTable() {
+        // Not every test reaches both lookups
+        lenient().when(auditTrailRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return committed.tailSet(after, false).stream().limit(page.getPageSize()).toList();
+        });
+        lenient().when(auditTrailRepository.findExistingIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(committed::contains).toList();
+        });
+    }
+
+    private void commit(long... ids) {
+        for (long id : ids) {
+            committed.add(id);
+        }
+    }
+
+    private static long seconds(long seconds) {
+        return TimeUnit.SECONDS.toNanos(seconds);
+    }
+}
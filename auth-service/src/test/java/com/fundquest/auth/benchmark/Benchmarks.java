@@ -0,0 +1,78 @@
+package com.fundquest.auth.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Timing helpers for the tests tagged {@value #TAG}, which only run with {@code mvn test -Pbenchmark}.
+ * Plain JUnit instead of JMH, so the harness needs no extra dependencies; results are printed, not asserted.
+ */
+public final class Benchmarks {
+
+    public static final String TAG = "benchmark";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Results are folded in here so the JIT cannot drop the measured calls
+    private static volatile int sink;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Average time and heap allocation per call, after {@code warmup} untimed calls.
+     * The operation gets the iteration number, e.g. to cycle through sample inputs
+     */
+    public static void measure(String name, int warmup, int iterations, IntFunction<?> operation) {
+        int hash = 0;
+        for (int i = 0; i < warmup; i++) {
+            hash += System.identityHashCode(operation.apply(i));
+        }
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            hash += System.identityHashCode(operation.apply(i));
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        sink = hash;
+        report("%-40s %10.1f ns/op %10d B/op", name, (double) elapsed / iterations, allocated / iterations);
+    }
+
+    /**
+     * Bytes allocated by the current thread while running {@code operation}
+     */
+    public static long allocatedBy(Runnable operation) {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        operation.run();
+        return THREADS.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    /**
+     * p50/p99/max of the given latencies in nanoseconds, in milliseconds
+     */
+    public static String percentiles(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms",
+                millis(sorted[percentileIndex(sorted.length, 0.50)]),
+                millis(sorted[percentileIndex(sorted.length, 0.99)]),
+                millis(sorted[sorted.length - 1]));
+    }
+
+    public static void report(String format, Object... args) {
+        System.out.println("[benchmark] " + String.format(Locale.ROOT, format, args));
+    }
+
+    private static int percentileIndex(int count, double percentile) {
+        return Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+    }
+
+    private static double millis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
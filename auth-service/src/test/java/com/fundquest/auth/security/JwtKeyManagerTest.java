@@ -0,0 +1,108 @@
+package com.fundquest.auth.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JwtKeyManagerTest {
+
+    private static final String SECRET = "test-secret-0123456789-0123456789-0123456789-0123456789-0123456789";
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private MockEnvironment environment;
+    private JwtKeyManager keyManager;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("jwt.secret", SECRET)
+                .withProperty("jwt.signing-algorithm", "HS512");
+        keyManager = new JwtKeyManager(environment, verifiedTokenCache);
+        keyManager.init();
+    }
+
+    @Test
+    void parser_shouldStillVerifyHs512Token_afterSwitchingToRs256WithSameKeyId() {
+        // Given a token issued in HS512 mode under the default kid
+        String hs512Token = issue();
+        assertThat(keyManager.getCurrentKeyId()).isEqualTo(JwtKeyManager.DEFAULT_KEY_ID);
+
+        // When
+        switchTo("RS256");
+
+        // Then both the old HS512 token and a new RS256 token under the same kid verify
+        assertThat(keyManager.getSigningAlgorithm()).isEqualTo(SignatureAlgorithm.RS256);
+        assertThat(subjectOf(hs512Token)).isEqualTo("admin@fundquest.com");
+        assertThat(subjectOf(issue())).isEqualTo("admin@fundquest.com");
+        verify(verifiedTokenCache).invalidateAll();
+    }
+
+    @Test
+    void parser_shouldVerifyRs256Token_afterSwitchingBackToHs512_onlyWhileKeyIsPublished() {
+        // Given
+        switchTo("RS256");
+        String rs256Token = issue();
+
+        // When the RSA key is no longer configured
+        switchTo("HS512");
+
+        // Then
+        assertThatThrownBy(() -> subjectOf(rs256Token)).isInstanceOf(SignatureException.class);
+        assertThat(subjectOf(issue())).isEqualTo("admin@fundquest.com");
+    }
+
+    @Test
+    void parser_shouldRejectHs512Token_signedWithUnknownSecret() {
+        // Given
+        String forged = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, JwtKeyManager.DEFAULT_KEY_ID)
+                .setSubject("admin@fundquest.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.replace('t', 'x').getBytes(StandardCharsets.UTF_8)),
+                        SignatureAlgorithm.HS512)
+                .compact();
+
+        // When / Then
+        assertThatThrownBy(() -> subjectOf(forged)).isInstanceOf(SignatureException.class);
+    }
+
+    private void switchTo(String algorithm) {
+        environment.setProperty("jwt.signing-algorithm", algorithm);
+        keyManager.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("jwt.signing-algorithm")));
+    }
+
+    private String issue() {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyManager.getCurrentKeyId())
+                .setSubject("admin@fundquest.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyManager.getSigningKey(), keyManager.getSigningAlgorithm())
+                .compact();
+    }
+
+    private String subjectOf(String token) {
+        Claims claims = keyManager.getParser().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+}
@@ -0,0 +1,213 @@
+package com.fundquest.auth.service.impl;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fundquest.auth.constants.AppConstants;
+import com.fundquest.auth.exception.InvalidTokenException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MicrosoftIdTokenVerifierImplTest {
+
+    private static final String TENANT_ID = "tenant-1";
+    private static final String CLIENT_ID = "client-1";
+    private static final String ISSUER = "https://login.microsoftonline.com/tenant-1/v2.0";
+
+    private static final KeyPair SIGNING_KEY = generateKeyPair();
+    private static final KeyPair ROLLED_KEY = generateKeyPair();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+
+    private HttpServer jwksServer;
+    private volatile String jwks;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jwks = jwks(jwk("kid-1", SIGNING_KEY));
+        jwksServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        jwksServer.createContext("/" + TENANT_ID + "/keys", exchange -> {
+            jwksRequests.incrementAndGet();
+            byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        jwksServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksServer.stop(0);
+    }
+
+    @Test
+    void verify_shouldAcceptToken_signedWithPublishedKey() {
+        // Given
+        MicrosoftIdTokenVerifierImpl verifier = verifier(60_000);
+
+        // When
+        DecodedJWT decoded = verifier.verify(token("kid-1", SIGNING_KEY, ISSUER, CLIENT_ID, Instant.now().plusSeconds(300)));
+
+        // Then
+        assertThat(decoded.getSubject()).isEqualTo("microsoft-user");
+        assertThat(jwksRequests).hasValue(1);
+    }
+
+    @Test
+    void verify_shouldReject_whenSignatureDoesNotMatchKey() {
+        // Given a token claiming kid-1 but signed with another private key
+        MicrosoftIdTokenVerifierImpl verifier = verifier(60_000);
+        String forged = token("kid-1", ROLLED_KEY, ISSUER, CLIENT_ID, Instant.now().plusSeconds(300));
+
+        // When / Then
+        assertRejected(verifier, forged);
+    }
+
+    @Test
+    void verify_shouldReject_wrongIssuer() {
+        MicrosoftIdTokenVerifierImpl verifier = verifier(60_000);
+        String token = token("kid-1", SIGNING_KEY, "https://login.microsoftonline.com/other-tenant/v2.0", CLIENT_ID,
+                Instant.now().plusSeconds(300));
+
+        assertRejected(verifier, token);
+    }
+
+    @Test
+    void verify_shouldReject_wrongAudience() {
+        MicrosoftIdTokenVerifierImpl verifier = verifier(60_000);
+        String token = token("kid-1", SIGNING_KEY, ISSUER, "other-client", Instant.now().plusSeconds(300));
+
+        assertRejected(verifier, token);
+    }
+
+    @Test
+    void verify_shouldReject_expiredTokenBeyondClockSkew() {
+        MicrosoftIdTokenVerifierImpl verifier = verifier(60_000);
+        String token = token("kid-1", SIGNING_KEY, ISSUER, CLIENT_ID, Instant.now().minusSeconds(120));
+
+        assertRejected(verifier, token);
+    }
+
+    @Test
+    void verify_shouldRefreshOnce_whenKidIsUnknown_andAcceptAfterRollover() throws InterruptedException {
+        // Given Microsoft rolled over to kid-2 after our last load
+        MicrosoftIdTokenVerifierImpl verifier = verifier(200);
+        jwks = jwks(jwk("kid-1", SIGNING_KEY), jwk("kid-2", ROLLED_KEY));
+        String rolled = token("kid-2", ROLLED_KEY, ISSUER, CLIENT_ID, Instant.now().plusSeconds(300));
+        Thread.sleep(250);
+
+        // When a burst of logins presents the new kid; the first is rejected, later ones race the refresh
+        assertRejected(verifier, rolled);
+        for (int i = 0; i < 4; i++) {
+            try {
+                verifier.verify(rolled);
+            } catch (InvalidTokenException e) {
+                // Refresh not published yet
+            }
+        }
+
+        // Then exactly one background refresh runs, after which the token verifies
+        awaitJwksRequests(2);
+        assertThat(verifier.verify(rolled).getKeyId()).isEqualTo("kid-2");
+        Thread.sleep(100);
+        assertThat(jwksRequests).hasValue(2);
+    }
+
+    @Test
+    void verify_shouldNotRefresh_whenUnknownKidArrivesWithinMinimumInterval() throws InterruptedException {
+        // Given
+        MicrosoftIdTokenVerifierImpl verifier = verifier(60_000);
+        String unknown = token("kid-9", ROLLED_KEY, ISSUER, CLIENT_ID, Instant.now().plusSeconds(300));
+
+        // When
+        assertRejected(verifier, unknown);
+        Thread.sleep(100);
+
+        // Then
+        assertThat(jwksRequests).hasValue(1);
+    }
+
+    private MicrosoftIdTokenVerifierImpl verifier(long minRefreshIntervalMs) {
+        String jwksUri = "http://127.0.0.1:" + jwksServer.getAddress().getPort() + "/{tenantId}/keys";
+        MicrosoftIdTokenVerifierImpl verifier = new MicrosoftIdTokenVerifierImpl(WebClient.create(), TENANT_ID, CLIENT_ID,
+                jwksUri, AppConstants.MICROSOFT_ISSUER, minRefreshIntervalMs);
+        verifier.loadKeys();
+        return verifier;
+    }
+
+    private void awaitJwksRequests(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jwksRequests.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // The request is counted before the response is parsed; give the refresh time to publish the keys
+        Thread.sleep(100);
+        assertThat(jwksRequests).hasValue(expected);
+    }
+
+    private static void assertRejected(MicrosoftIdTokenVerifierImpl verifier, String token) {
+        assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOf(InvalidTokenException.class)
+                .extracting("errorCode").isEqualTo(AppConstants.INVALID_ID_TOKEN);
+    }
+
+    private static String token(String kid, KeyPair keyPair, String issuer, String audience, Instant expiresAt) {
+        return JWT.create()
+                .withKeyId(kid)
+                .withIssuer(issuer)
+                .withAudience(audience)
+                .withSubject("microsoft-user")
+                .withIssuedAt(expiresAt.minusSeconds(600))
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+    }
+
+    private static String jwks(String... keys) {
+        return "{\"keys\":[" + String.join(",", keys) + "]}";
+    }
+
+    private static String jwk(String kid, KeyPair keyPair) {
+        RSAPublicKey key = (RSAPublicKey) keyPair.getPublic();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return "{\"kty\":\"RSA\",\"use\":\"sig\",\"kid\":\"" + kid + "\","
+                + "\"n\":\"" + encoder.encodeToString(unsigned(key.getModulus().toByteArray())) + "\","
+                + "\"e\":\"" + encoder.encodeToString(unsigned(key.getPublicExponent().toByteArray())) + "\"}";
+    }
+
+    private static byte[] unsigned(byte[] bytes) {
+        return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
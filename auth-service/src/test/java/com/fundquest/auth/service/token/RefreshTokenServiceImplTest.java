@@ -0,0 +1,143 @@
+package com.fundquest.auth.service.token;
+
+import com.fundquest.auth.constants.AppConstants;
+import com.fundquest.auth.exception.InvalidTokenException;
+import com.fundquest.auth.repository.UserRepository;
+import com.fundquest.auth.security.JwtPrincipal;
+import com.fundquest.auth.security.TokenSubject;
+import com.fundquest.auth.service.JwtService;
+import com.fundquest.auth.util.UserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    private static final String TOKEN = "refresh.jwt";
+    private static final String FAMILY_ID = "family-1";
+    private static final TokenSubject SUBJECT =
+            new TokenSubject("user-1", "admin@fundquest.com", "ADMIN", List.of(), null);
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserMapper userMapper;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenStore, jwtService, userRepository, userMapper);
+        ReflectionTestUtils.setField(refreshTokenService, "reuseGraceMs", 5000L);
+    }
+
+    @Test
+    void rotate_shouldIssueNewToken_whenTokenIsCurrent() {
+        // Given
+        presenting("t1");
+        when(refreshTokenStore.find(FAMILY_ID)).thenReturn(Optional.of(family("t1", null, null)));
+        when(refreshTokenStore.rotate(eq(FAMILY_ID), eq("t1"), anyString(), any())).thenReturn(true);
+        when(jwtService.generateRefreshToken(eq(SUBJECT), anyString(), eq(FAMILY_ID), any())).thenReturn("next.jwt");
+
+        // When
+        RefreshTokenRotation rotation = refreshTokenService.rotate(TOKEN);
+
+        // Then
+        assertThat(rotation.refreshToken()).isEqualTo("next.jwt");
+        verify(refreshTokenStore, never()).revoke(anyString());
+    }
+
+    @Test
+    void rotate_shouldReturnCurrentToken_whenPreviousTokenIsPresentedWithinGrace() {
+        // Given another tab exchanged t1 for t2 a moment ago
+        presenting("t1");
+        RefreshTokenFamily family = family("t2", "t1", Instant.now().minusSeconds(1));
+        when(refreshTokenStore.find(FAMILY_ID)).thenReturn(Optional.of(family));
+        when(jwtService.generateRefreshToken(SUBJECT, "t2", FAMILY_ID, family.expiresAt())).thenReturn("t2.jwt");
+
+        // When
+        RefreshTokenRotation rotation = refreshTokenService.rotate(TOKEN);
+
+        // Then
+        assertThat(rotation.refreshToken()).isEqualTo("t2.jwt");
+        verify(refreshTokenStore, never()).rotate(anyString(), anyString(), anyString(), any());
+        verify(refreshTokenStore, never()).revoke(anyString());
+    }
+
+    @Test
+    void rotate_shouldRevokeFamily_whenPreviousTokenIsPresentedAfterGrace() {
+        // Given
+        presenting("t1");
+        when(refreshTokenStore.find(FAMILY_ID))
+                .thenReturn(Optional.of(family("t2", "t1", Instant.now().minusSeconds(30))));
+
+        // When / Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(TOKEN))
+                .isInstanceOf(InvalidTokenException.class)
+                .extracting("errorCode").isEqualTo(AppConstants.REFRESH_TOKEN_REUSED);
+        verify(refreshTokenStore).revoke(FAMILY_ID);
+    }
+
+    @Test
+    void rotate_shouldRevokeFamily_whenOlderTokenIsPresented() {
+        // Given t0 was replaced two rotations ago
+        presenting("t0");
+        when(refreshTokenStore.find(FAMILY_ID))
+                .thenReturn(Optional.of(family("t2", "t1", Instant.now())));
+
+        // When / Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(TOKEN)).isInstanceOf(InvalidTokenException.class);
+        verify(refreshTokenStore).revoke(FAMILY_ID);
+    }
+
+    @Test
+    void rotate_shouldReturnWinnersToken_whenConcurrentRefreshWinsCompareAndSet() {
+        // Given both requests read t1 as current and the other one rotated first
+        presenting("t1");
+        RefreshTokenFamily rotated = family("t2", "t1", Instant.now());
+        when(refreshTokenStore.find(FAMILY_ID))
+                .thenReturn(Optional.of(family("t1", null, null)))
+                .thenReturn(Optional.of(rotated));
+        when(refreshTokenStore.rotate(eq(FAMILY_ID), eq("t1"), anyString(), any())).thenReturn(false);
+        when(jwtService.generateRefreshToken(SUBJECT, "t2", FAMILY_ID, rotated.expiresAt())).thenReturn("t2.jwt");
+
+        // When
+        RefreshTokenRotation rotation = refreshTokenService.rotate(TOKEN);
+
+        // Then
+        assertThat(rotation.refreshToken()).isEqualTo("t2.jwt");
+        verify(refreshTokenStore, never()).revoke(anyString());
+    }
+
+    private void presenting(String tokenId) {
+        JwtPrincipal principal = new JwtPrincipal(tokenId, SUBJECT.email(), SUBJECT.userId(),
+                AppConstants.TOKEN_TYPE_REFRESH, null, null, FAMILY_ID, Instant.now().plusSeconds(3600));
+        when(jwtService.verifyToken(TOKEN)).thenReturn(Optional.of(principal));
+    }
+
+    private static RefreshTokenFamily family(String currentTokenId, String previousTokenId, Instant rotatedAt) {
+        return new RefreshTokenFamily(FAMILY_ID, SUBJECT.email(), currentTokenId, SUBJECT,
+                Instant.now().plusSeconds(3600), false, previousTokenId, rotatedAt);
+    }
+}
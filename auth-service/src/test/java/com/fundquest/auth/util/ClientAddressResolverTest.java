@@ -0,0 +1,146 @@
+package com.fundquest.auth.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver =
+            new ClientAddressResolver(List.of("127.0.0.1", "::1", "10.0.0.0/8", "192.168.1.0/24", "fd00::1"));
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "0.0.0.0",
+            "192.168.1.1",
+            "255.255.255.255",
+            "::",
+            "::1",
+            "1::",
+            "fe80::1",
+            "2001:db8::8a2e:370:7334",
+            "2001:0DB8:85A3:0000:0000:8A2E:0370:7334",
+            "1:2:3:4:5:6:7::",
+            "::ffff:192.0.2.128",
+            "1:2:3:4:5:6:10.0.0.1",
+            "::192.0.2.1"
+    })
+    void isValidAddress_shouldAccept_wellFormedAddresses(String address) {
+        assertThat(ClientAddressResolver.isValidAddress(address)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "1.2.3",
+            "1.2.3.4.5",
+            "256.1.1.1",
+            "1..2.3",
+            "1.2.3.4 ",
+            "a.b.c.d",
+            ":",
+            ":::",
+            "1:::2",
+            ":1::2",
+            "1::2::3",
+            "1:2:3:4:5:6:7",
+            "1:2:3:4:5:6:7:8:9",
+            "1:2:3:4:5:6:7:",
+            "12345::1",
+            "g::1",
+            "fe80::1%eth0",
+            "1:2:3:4:5:6:7:1.2.3.4",
+            "::ffff:1.2.3",
+            "::ffff:1.2.3.256",
+            // Fullwidth and Arabic-Indic digits are digits to Character.digit, but not hex digits
+            "１::1",
+            "١::1",
+            "1234:5678:9abc:def0:1234:5678:9abc:def0:1"
+    })
+    void isValidAddress_shouldReject_malformedAddresses(String address) {
+        assertThat(ClientAddressResolver.isValidAddress(address)).isFalse();
+    }
+
+    @ParameterizedTest(name = "{0} / {1} / {2} -> {3}")
+    @CsvSource(nullValues = "null", value = {
+            // Untrusted peer: headers are ignored
+            "203.0.113.9, 198.51.100.1, 198.51.100.2, 203.0.113.9",
+            // Trusted peer: the gateway header wins
+            "10.1.2.3, 198.51.100.1, 198.51.100.2, 198.51.100.1",
+            "10.1.2.3, ' 198.51.100.1 ', null, 198.51.100.1",
+            // Invalid gateway header falls through to X-Forwarded-For
+            "10.1.2.3, not-an-ip, 198.51.100.2, 198.51.100.2",
+            // Trusted hops are skipped right to left
+            "10.1.2.3, null, '198.51.100.7, 10.9.9.9, 192.168.1.20', 198.51.100.7",
+            "127.0.0.1, null, '203.0.113.1, 198.51.100.7, 10.0.0.1', 198.51.100.7",
+            "::1, null, '2001:db8::1, fd00::1', 2001:db8::1",
+            "::1, null, '2001:db8::1, FD00::1', 2001:db8::1",
+            // Servlet containers report IPv6 peers in their expanded form
+            "0:0:0:0:0:0:0:1, null, '2001:db8::1, fd00:0:0:0:0:0:0:1', 2001:db8::1",
+            // 192.168.2.0 is outside the /24 and so is the client
+            "10.1.2.3, null, '198.51.100.7, 192.168.2.1', 192.168.2.1",
+            // Every hop trusted: the leftmost one is the client
+            "10.1.2.3, null, '10.0.0.5, 192.168.1.1', 10.0.0.5",
+            // An invalid hop stops the walk at the peer
+            "10.1.2.3, null, '198.51.100.7, garbage, 10.0.0.1', 10.1.2.3",
+            "10.1.2.3, null, '', 10.1.2.3",
+            "10.1.2.3, null, null, 10.1.2.3",
+            // Invalid peer
+            "null, 198.51.100.1, null, 127.0.0.1",
+            "unknown, 198.51.100.1, null, 127.0.0.1"
+    })
+    void resolve_shouldPickClientAddress(String remote, String gateway, String forwardedFor, String expected) {
+        assertThat(resolver.resolve(remote, gateway, forwardedFor)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest(name = "{0} trusted by {1} -> {2}")
+    @CsvSource({
+            "10.255.255.255, 10.0.0.0/8, true",
+            "11.0.0.1, 10.0.0.0/8, false",
+            "172.31.0.1, 172.16.0.0/12, true",
+            "172.32.0.1, 172.16.0.0/12, false",
+            "192.168.1.77, 192.168.1.77/32, true",
+            "192.168.1.78, 192.168.1.77/32, false",
+            "8.8.8.8, 0.0.0.0/0, true",
+            // Host bits in the network address are masked off
+            "10.20.30.40, 10.20.30.1/24, true",
+            "fd12:3456::1, fd00::/8, true",
+            "fe80::1, fd00::/8, false",
+            "2001:db8:0:0:1::7, 2001:db8::/64, true",
+            "2001:db8:0:1::7, 2001:db8::/64, false",
+            "2001:db8::8000:0:0:1, 2001:db8::/65, false",
+            "2001:db8::7fff:0:0:1, 2001:db8::/65, true",
+            "::ffff:10.0.0.1, ::ffff:10.0.0.0/120, true",
+            "::ffff:10.0.1.1, ::ffff:10.0.0.0/120, false",
+            "1:2:3:4:5:6:7:8, 1:2:3:4:5:6:7:8/128, true",
+            "1:2:3:4:5:6:7:9, 1:2:3:4:5:6:7::, false",
+            "2001:db8::1, ::/0, true"
+    })
+    void resolve_shouldApplyCidrMask(String peer, String trustedProxy, boolean trusted) {
+        // Given
+        ClientAddressResolver cidrResolver = new ClientAddressResolver(List.of(trustedProxy));
+
+        // When
+        String resolved = cidrResolver.resolve(peer, "198.51.100.1", null);
+
+        // Then
+        assertThat(resolved).isEqualTo(trusted ? "198.51.100.1" : peer);
+    }
+
+    @Test
+    void constructor_shouldIgnoreInvalidEntries() {
+        // Given
+        ClientAddressResolver lenientResolver = new ClientAddressResolver(
+                List.of("10.0.0.0/33", "10.0.0.0/x", "10.0.0.0/", "fd00::/129", "fd00::/", "not-a-proxy", " ", "127.0.0.1"));
+
+        // When / Then only the valid entry is trusted
+        assertThat(lenientResolver.resolve("10.0.0.1", "198.51.100.1", null)).isEqualTo("10.0.0.1");
+        assertThat(lenientResolver.resolve("fd00::1", "198.51.100.1", null)).isEqualTo("fd00::1");
+        assertThat(lenientResolver.resolve("127.0.0.1", "198.51.100.1", null)).isEqualTo("198.51.100.1");
+    }
+}
@@ -0,0 +1,135 @@
+package com.fundquest.auth.util.pagination;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCounterTest {
+
+    private final PageCounter pageCounter = new PageCounter(100, 30, new SimpleMeterRegistry());
+    private final AtomicInteger exactCounts = new AtomicInteger();
+
+    @Test
+    void count_shouldSkipCounting_whenSliceIsLastPage() {
+        // Given page 2 of size 10 holds the last 4 rows
+        Slice<Integer> slice = slice(2, 10, 4, false);
+
+        // When
+        CountedSlice<Integer> counted = pageCounter.count(slice, CountMode.EXACT, "k", exactCount(999), null);
+
+        // Then
+        assertThat(counted.totalElements()).isEqualTo(24L);
+        assertThat(counted.totalEstimated()).isFalse();
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    @Test
+    void count_shouldReturnZero_whenFirstPageIsEmpty() {
+        CountedSlice<Integer> counted = pageCounter.count(slice(0, 10, 0, false), CountMode.EXACT, "k", exactCount(5), null);
+
+        assertThat(counted.totalElements()).isZero();
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    @Test
+    void count_shouldCount_whenPageIsPastTheEnd() {
+        // Given an empty page beyond the last one, which says nothing about the total
+        CountedSlice<Integer> counted = pageCounter.count(slice(5, 10, 0, false), CountMode.EXACT, "k", exactCount(12), null);
+
+        assertThat(counted.totalElements()).isEqualTo(12L);
+        assertThat(exactCounts).hasValue(1);
+    }
+
+    @Test
+    void count_shouldReturnNoTotal_whenModeIsNone() {
+        CountedSlice<Integer> counted = pageCounter.count(slice(0, 10, 10, true), CountMode.NONE, "k", exactCount(50), null);
+
+        assertThat(counted.totalElements()).isNull();
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    @Test
+    void count_shouldClampEstimate_toRowsAlreadySeen() {
+        // Given statistics lag behind: page 3 is full and has a next page, so at least 41 rows exist
+        Slice<Integer> slice = slice(3, 10, 10, true);
+
+        // When
+        CountedSlice<Integer> counted = pageCounter.count(slice, CountMode.ESTIMATED, "k", exactCount(100), () -> 7);
+
+        // Then
+        assertThat(counted.totalElements()).isEqualTo(41L);
+        assertThat(counted.totalEstimated()).isTrue();
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    @Test
+    void count_shouldClampCachedCount_toRowsAlreadySeen() {
+        // Given a count cached while the table was smaller
+        pageCounter.count(slice(0, 10, 10, true), CountMode.CACHED, "audit.all", exactCount(15), null);
+
+        // When
+        CountedSlice<Integer> counted = pageCounter.count(slice(2, 10, 10, true), CountMode.CACHED, "audit.all",
+                exactCount(100), null);
+
+        // Then
+        assertThat(counted.totalElements()).isEqualTo(31L);
+        assertThat(exactCounts).hasValue(1);
+    }
+
+    @Test
+    void count_shouldFallBackToCachedCount_whenNoEstimateIsAvailable() {
+        // When
+        CountedSlice<Integer> first = pageCounter.count(slice(0, 10, 10, true), CountMode.ESTIMATED, "audit.search",
+                exactCount(57), null);
+        CountedSlice<Integer> second = pageCounter.count(slice(1, 10, 10, true), CountMode.ESTIMATED, "audit.search",
+                exactCount(57), null);
+
+        // Then the filtered listing is counted once and reused
+        assertThat(first.totalElements()).isEqualTo(57L);
+        assertThat(second.totalElements()).isEqualTo(57L);
+        assertThat(second.totalEstimated()).isTrue();
+        assertThat(exactCounts).hasValue(1);
+    }
+
+    @Test
+    void key_shouldKeepExactMatchFiltersVerbatim() {
+        assertThat(PageCounter.key("audit.user", "Admin@FundQuest.com"))
+                .isNotEqualTo(PageCounter.key("audit.user", "admin@fundquest.com"));
+        assertThat(PageCounter.key("audit.user", "")).isNotEqualTo(PageCounter.key("audit.user", (Object) null));
+    }
+
+    @Test
+    void key_shouldFoldCaseInsensitiveFilters() {
+        assertThat(PageCounter.key("users.name", PageCounter.ignoreCase(" Jane ")))
+                .isEqualTo(PageCounter.key("users.name", PageCounter.ignoreCase("JANE")));
+        assertThat(PageCounter.key("users.filter", PageCounter.ignoreCase("  "), true))
+                .isEqualTo(PageCounter.key("users.filter", null, true));
+    }
+
+    @Test
+    void key_shouldKeepFilterPositions() {
+        assertThat(PageCounter.key("audit.search", "a", null))
+                .isNotEqualTo(PageCounter.key("audit.search", null, "a"));
+    }
+
+    private LongSupplier exactCount(long total) {
+        return () -> {
+            exactCounts.incrementAndGet();
+            return total;
+        };
+    }
+
+    private static Slice<Integer> slice(int page, int size, int rows, boolean hasNext) {
+        List<Integer> content = Collections.nCopies(rows, 1);
+        return new SliceImpl<>(content, PageRequest.of(page, size), hasNext);
+    }
+}
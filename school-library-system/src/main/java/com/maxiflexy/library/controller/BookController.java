@@ -5,9 +5,9 @@ import com.maxiflexy.library.service.BookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -48,13 +48,16 @@ public class BookController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<Book>> searchBooks(
+    public ResponseEntity<Slice<Book>> searchBooks(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Book> books = bookService.searchBooks(keyword, pageable);
+        Slice<Book> books = withTotal
+                ? bookService.searchBooks(keyword, pageable)
+                : bookService.searchBooksSlice(keyword, pageable);
         return ResponseEntity.ok(books);
     }
 
@@ -3,6 +3,7 @@ package com.maxiflexy.library.repository;
 import com.maxiflexy.library.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,6 +27,10 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     @Query("SELECT b FROM Book b WHERE b.title LIKE %:keyword% OR b.author LIKE %:keyword%")
     Page<Book> searchBooks(@Param("keyword") String keyword, Pageable pageable);
 
+    // Same search without the COUNT query: fetches one extra row to tell whether a next page exists
+    @Query("SELECT b FROM Book b WHERE b.title LIKE %:keyword% OR b.author LIKE %:keyword%")
+    Slice<Book> searchBooksSlice(@Param("keyword") String keyword, Pageable pageable);
+
     @Query("SELECT COUNT(b) FROM Book b WHERE b.availableCopies = 0")
     Long countUnavailableBooks();
 }
@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,6 +47,11 @@ public class BookService {
         return bookRepository.searchBooks(keyword, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Book> searchBooksSlice(String keyword, Pageable pageable) {
+        return bookRepository.searchBooksSlice(keyword, pageable);
+    }
+
     public Book updateBookCopies(Long bookId, Integer newTotalCopies) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new IllegalArgumentException("Book not found with id: " + bookId));
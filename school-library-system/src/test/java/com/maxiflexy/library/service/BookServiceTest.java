@@ -12,6 +12,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.Arrays;
 import java.util.List;
@@ -115,6 +117,23 @@ class BookServiceTest {
         verify(bookRepository).searchBooks("test", pageable);
     }
 
+    @Test
+    void searchBooksSlice_shouldReturnSliceWithoutCounting() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<Book> bookSlice = new SliceImpl<>(Arrays.asList(testBook), pageable, false);
+        when(bookRepository.searchBooksSlice("test", pageable)).thenReturn(bookSlice);
+
+        // When
+        Slice<Book> result = bookService.searchBooksSlice("test", pageable);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+        verify(bookRepository).searchBooksSlice("test", pageable);
+        verify(bookRepository, never()).searchBooks(anyString(), any(Pageable.class));
+    }
+
     @Test
     void updateBookCopies_shouldUpdateSuccessfully_whenBookExists() {
         // Given